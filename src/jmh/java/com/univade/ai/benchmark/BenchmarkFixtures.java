@@ -0,0 +1,127 @@
+package com.univade.ai.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+public final class BenchmarkFixtures {
+
+    public enum Size {
+        SMALL(3, 3),
+        MEDIUM(12, 15),
+        HUGE(150, 120);
+
+        private final int methods;
+        private final int tests;
+
+        Size(int methods, int tests) {
+            this.methods = methods;
+            this.tests = tests;
+        }
+    }
+
+    private BenchmarkFixtures() {
+    }
+
+    public static String classUnderTest(Size size) {
+        StringBuilder source = new StringBuilder();
+        source.append("package com.example.orders;\n\n")
+              .append("import java.math.BigDecimal;\n")
+              .append("import java.util.List;\n")
+              .append("import java.util.Optional;\n\n")
+              .append("/**\n * Handles order lifecycle operations.\n */\n")
+              .append("@Service\n")
+              .append("public class OrderService {\n\n")
+              .append("    private final OrderRepository orderRepository;\n")
+              .append("    private final PaymentGateway paymentGateway;\n\n")
+              .append("    public OrderService(OrderRepository orderRepository, PaymentGateway paymentGateway) {\n")
+              .append("        this.orderRepository = orderRepository;\n")
+              .append("        this.paymentGateway = paymentGateway;\n")
+              .append("    }\n");
+        for (int i = 0; i < size.methods; i++) {
+            source.append("\n    /**\n     * Applies rule ").append(i).append(" to the order.\n     */\n")
+                  .append("    public Order applyRule").append(i).append("(Long orderId, BigDecimal amount) {\n")
+                  .append("        Order order = orderRepository.findById(orderId)\n")
+                  .append("                .orElseThrow(() -> new IllegalArgumentException(\"Order not found: \" + orderId));\n")
+                  .append("        if (amount == null || amount.signum() < 0) {\n")
+                  .append("            throw new IllegalArgumentException(\"Amount must be positive\");\n")
+                  .append("        }\n")
+                  .append("        // keep the running total in sync\n")
+                  .append("        order.setTotal(order.getTotal().add(amount));\n")
+                  .append("        return orderRepository.save(order);\n")
+                  .append("    }\n");
+        }
+        source.append("}\n");
+        return source.toString();
+    }
+
+    public static String testClassSource(Size size) {
+        StringBuilder source = new StringBuilder();
+        source.append("package com.example.orders;\n\n")
+              .append("import org.junit.jupiter.api.BeforeEach;\n")
+              .append("import org.junit.jupiter.api.Test;\n")
+              .append("import static org.assertj.core.api.Assertions.assertThat;\n")
+              .append("import static org.mockito.Mockito.*;\n\n")
+              .append("class OrderServiceTest {\n\n")
+              .append("    private OrderRepository orderRepository;\n")
+              .append("    private OrderService orderService;\n\n")
+              .append("    @BeforeEach\n    void setUp() {\n")
+              .append("        orderRepository = mock(OrderRepository.class);\n")
+              .append("        orderService = new OrderService(orderRepository, mock(PaymentGateway.class));\n")
+              .append("    }\n");
+        for (int i = 0; i < size.tests; i++) {
+            source.append("\n    @Test\n    void shouldApplyRule").append(i).append("WhenAmountIsPositive() {\n")
+                  .append("        Order order = new Order(1L, BigDecimal.TEN);\n")
+                  .append("        when(orderRepository.findById(1L)).thenReturn(Optional.of(order));\n")
+                  .append("        when(orderRepository.save(order)).thenReturn(order);\n\n")
+                  .append("        Order result = orderService.applyRule").append(i % Math.max(1, size.methods))
+                  .append("(1L, BigDecimal.ONE);\n\n")
+                  .append("        assertThat(result.getTotal()).isEqualByComparingTo(\"11\");\n")
+                  .append("    }\n");
+        }
+        source.append("}\n");
+        return source.toString();
+    }
+
+    public static String replyJson(Size size) {
+        ObjectMapper mapper = new ObjectMapper();
+        ObjectNode root = mapper.createObjectNode();
+
+        ObjectNode metadata = root.putObject("metadata");
+        metadata.put("component_type", "SERVICE");
+        metadata.put("entity_name", "OrderService");
+        metadata.put("test_count", size.tests);
+        metadata.putArray("coverage_areas").add("happy path").add("validation");
+        metadata.putArray("dependencies").add("OrderRepository").add("PaymentGateway");
+        metadata.put("test_framework", "JUnit 5");
+        metadata.put("assertion_library", "AssertJ");
+
+        ObjectNode testClass = root.putObject("test_class");
+        testClass.put("package", "com.example.orders");
+        ArrayNode imports = testClass.putArray("imports");
+        imports.add("org.junit.jupiter.api.Test").add("org.junit.jupiter.api.BeforeEach");
+        testClass.put("class_name", "OrderServiceTest");
+        testClass.putArray("annotations");
+        testClass.put("source_code", testClassSource(size));
+
+        ObjectNode summary = root.putObject("test_summary");
+        summary.put("happy_path_tests", size.tests / 2);
+        summary.put("edge_case_tests", size.tests / 4);
+        summary.put("error_condition_tests", size.tests / 8);
+        summary.put("validation_tests", size.tests - size.tests / 2 - size.tests / 4 - size.tests / 8);
+
+        ObjectNode checklist = root.putObject("quality_checklist");
+        checklist.put("all_tests_executable", true);
+        checklist.put("proper_mocking", true);
+        checklist.put("comprehensive_assertions", true);
+        checklist.put("follows_naming_conventions", true);
+        checklist.put("includes_edge_cases", true);
+        checklist.put("handles_error_conditions", true);
+
+        return root.toPrettyString();
+    }
+
+    public static String modelReply(Size size) {
+        return "Here are the generated tests for OrderService.\n\n```json\n" + replyJson(size) + "\n```\n";
+    }
+}
@@ -0,0 +1,58 @@
+package com.univade.ai.benchmark;
+
+import com.knuddels.jtokkit.api.EncodingType;
+import com.univade.ai.benchmark.BenchmarkFixtures.Size;
+import com.univade.ai.domain.model.PromptContext;
+import com.univade.ai.domain.service.PromptRefiner;
+import com.univade.ai.domain.value.CompactionLevel;
+import com.univade.ai.infrastructure.ai.TokenEstimator;
+import com.univade.ai.infrastructure.parser.JavaSourceCompactor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PromptRefinerBenchmark {
+
+    @Param({"SMALL", "MEDIUM", "HUGE"})
+    public Size size;
+
+    @Param({"NONE", "STRIP_COMMENTS", "COLLAPSE_PRIVATE"})
+    public CompactionLevel compactionLevel;
+
+    private PromptRefiner promptRefiner;
+    private PromptContext context;
+
+    @Setup
+    public void setUp() {
+        JavaSourceCompactor compactor = new JavaSourceCompactor(new TokenEstimator(EncodingType.O200K_BASE));
+        promptRefiner = new PromptRefiner(compactor, compactionLevel);
+        context = new PromptContext("benchmark-session", "Generate tests for OrderService",
+                BenchmarkFixtures.classUnderTest(size));
+    }
+
+    @Benchmark
+    public String buildUserPrompt() {
+        return promptRefiner.buildUserPrompt(context);
+    }
+
+    @Benchmark
+    public String refinePrompt() {
+        return promptRefiner.refinePrompt(context, "Add tests for negative amounts and missing orders");
+    }
+}
@@ -0,0 +1,61 @@
+package com.univade.ai.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.univade.ai.benchmark.BenchmarkFixtures.Size;
+import com.univade.ai.domain.model.TestGenerationResult;
+import com.univade.ai.infrastructure.file.TestFileManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TestFileManagerBenchmark {
+
+    @Param({"SMALL", "MEDIUM", "HUGE"})
+    public Size size;
+
+    private Path outputDirectory;
+    private TestFileManager testFileManager;
+    private TestGenerationResult result;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        outputDirectory = Files.createTempDirectory("testgen-jmh");
+        testFileManager = new TestFileManager();
+        ReflectionTestUtils.setField(testFileManager, "outputDirectory", outputDirectory.toString());
+        result = new ObjectMapper().readValue(BenchmarkFixtures.replyJson(size), TestGenerationResult.class);
+        result.setSessionId("benchmark-session");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        FileSystemUtils.deleteRecursively(outputDirectory);
+    }
+
+    @Benchmark
+    public String saveGeneratedTest() {
+        return testFileManager.saveGeneratedTest(result);
+    }
+}
@@ -0,0 +1,62 @@
+package com.univade.ai.infrastructure.ai;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.univade.ai.benchmark.BenchmarkFixtures;
+import com.univade.ai.benchmark.BenchmarkFixtures.Size;
+import com.univade.ai.domain.model.TestGenerationResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.ai.chat.memory.MessageWindowChatMemory;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lives in the client's package so it can reach {@link OpenAiClient#parseAiResponse(String)} directly.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResponseParsingBenchmark {
+
+    @Param({"SMALL", "MEDIUM", "HUGE"})
+    public Size size;
+
+    private OpenAiClient openAiClient;
+    private ObjectReader resultReader;
+    private String modelReply;
+    private String replyJson;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        openAiClient = new OpenAiClient(null, MessageWindowChatMemory.builder().build(), objectMapper, null, null, null, null, null, null,
+                new SimpleMeterRegistry(), "gpt-4o", "0.1", "8000");
+        resultReader = objectMapper.readerFor(TestGenerationResult.class);
+        modelReply = BenchmarkFixtures.modelReply(size);
+        replyJson = BenchmarkFixtures.replyJson(size);
+    }
+
+    @Benchmark
+    public TestGenerationResult parseAiResponse() {
+        return openAiClient.parseAiResponse(modelReply);
+    }
+
+    @Benchmark
+    public TestGenerationResult readResultJson() throws Exception {
+        return resultReader.readValue(replyJson);
+    }
+}
@@ -0,0 +1,234 @@
+package com.univade.ai.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Minimal OpenAI-compatible chat completions endpoint. Replies with a well-formed test generation
+ * result after a configurable delay, so the application can be loaded without network or API cost.
+ */
+public class FakeOpenAiServer implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(FakeOpenAiServer.class);
+    private static final Pattern CLASS_NAME = Pattern.compile("class\\s+(\\w+)");
+    private static final int STREAM_CHUNK_CHARS = 64;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final long latencyMs;
+    private final long jitterMs;
+    private final int testsPerReply;
+    private final HttpServer server;
+    private final ExecutorService handlers;
+    private final AtomicLong requests = new AtomicLong();
+
+    public FakeOpenAiServer(int port, long latencyMs, long jitterMs, int testsPerReply) throws IOException {
+        this.latencyMs = latencyMs;
+        this.jitterMs = jitterMs;
+        this.testsPerReply = testsPerReply;
+
+        AtomicInteger threadCounter = new AtomicInteger();
+        this.handlers = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "fake-openai-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.server = HttpServer.create(new InetSocketAddress("localhost", port), 1024);
+        this.server.createContext("/", this::handle);
+        this.server.setExecutor(handlers);
+    }
+
+    public void start() {
+        server.start();
+        logger.info("Fake OpenAI server listening on {} ({}ms +/- {}ms per reply)", getBaseUrl(), latencyMs, jitterMs);
+    }
+
+    public String getBaseUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    public long getRequestCount() {
+        return requests.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        handlers.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            if (!"POST".equals(exchange.getRequestMethod())
+                    || !exchange.getRequestURI().getPath().endsWith("/chat/completions")) {
+                send(exchange, 404, "application/json", "{\"error\":{\"message\":\"Not found\"}}");
+                return;
+            }
+
+            requests.incrementAndGet();
+            byte[] body;
+            try (InputStream input = exchange.getRequestBody()) {
+                body = input.readAllBytes();
+            }
+            JsonNode request = objectMapper.readTree(body);
+            String model = request.path("model").asText("gpt-4o");
+            String content = replyContent(className(request));
+            int promptTokens = Math.max(1, body.length / 4);
+            int completionTokens = Math.max(1, content.length() / 4);
+
+            sleep(latencyMs + (jitterMs > 0 ? ThreadLocalRandom.current().nextLong(-jitterMs, jitterMs + 1) : 0));
+
+            if (request.path("stream").asBoolean(false)) {
+                stream(exchange, model, content, promptTokens, completionTokens);
+            } else {
+                send(exchange, 200, "application/json",
+                        objectMapper.writeValueAsString(completion(model, content, promptTokens, completionTokens)));
+            }
+        } catch (IOException e) {
+            logger.debug("Fake OpenAI request failed", e);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private ObjectNode completion(String model, String content, int promptTokens, int completionTokens) {
+        ObjectNode completion = objectMapper.createObjectNode();
+        completion.put("id", "chatcmpl-" + UUID.randomUUID());
+        completion.put("object", "chat.completion");
+        completion.put("created", System.currentTimeMillis() / 1000);
+        completion.put("model", model);
+        ObjectNode choice = completion.putArray("choices").addObject();
+        choice.put("index", 0);
+        choice.putObject("message").put("role", "assistant").put("content", content);
+        choice.put("finish_reason", "stop");
+        completion.set("usage", usage(promptTokens, completionTokens));
+        return completion;
+    }
+
+    private void stream(HttpExchange exchange, String model, String content,
+                        int promptTokens, int completionTokens) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "text/event-stream");
+        exchange.sendResponseHeaders(200, 0);
+        String id = "chatcmpl-" + UUID.randomUUID();
+        try (OutputStream output = exchange.getResponseBody()) {
+            for (int start = 0; start < content.length(); start += STREAM_CHUNK_CHARS) {
+                ObjectNode chunk = chunk(id, model);
+                chunk.withArray("choices").addObject()
+                        .put("index", 0)
+                        .putNull("finish_reason")
+                        .putObject("delta")
+                        .put("content", content.substring(start, Math.min(content.length(), start + STREAM_CHUNK_CHARS)));
+                writeEvent(output, objectMapper.writeValueAsString(chunk));
+            }
+            ObjectNode last = chunk(id, model);
+            last.withArray("choices").addObject().put("index", 0).put("finish_reason", "stop").putObject("delta");
+            last.set("usage", usage(promptTokens, completionTokens));
+            writeEvent(output, objectMapper.writeValueAsString(last));
+            writeEvent(output, "[DONE]");
+        }
+    }
+
+    private ObjectNode chunk(String id, String model) {
+        ObjectNode chunk = objectMapper.createObjectNode();
+        chunk.put("id", id);
+        chunk.put("object", "chat.completion.chunk");
+        chunk.put("created", System.currentTimeMillis() / 1000);
+        chunk.put("model", model);
+        return chunk;
+    }
+
+    private ObjectNode usage(int promptTokens, int completionTokens) {
+        ObjectNode usage = objectMapper.createObjectNode();
+        usage.put("prompt_tokens", promptTokens);
+        usage.put("completion_tokens", completionTokens);
+        usage.put("total_tokens", promptTokens + completionTokens);
+        return usage;
+    }
+
+    private String className(JsonNode request) {
+        for (JsonNode message : request.path("messages")) {
+            if ("user".equals(message.path("role").asText())) {
+                Matcher matcher = CLASS_NAME.matcher(message.path("content").asText());
+                if (matcher.find()) {
+                    return matcher.group(1);
+                }
+            }
+        }
+        return "GeneratedClass";
+    }
+
+    private String replyContent(String className) throws IOException {
+        StringBuilder source = new StringBuilder();
+        source.append("package com.example;\n\nimport org.junit.jupiter.api.Test;\n")
+              .append("import static org.assertj.core.api.Assertions.assertThat;\n\n")
+              .append("class ").append(className).append("Test {\n");
+        for (int i = 0; i < testsPerReply; i++) {
+            source.append("\n    @Test\n    void shouldHandleCase").append(i).append("() {\n")
+                  .append("        assertThat(").append(i).append(").isEqualTo(").append(i).append(");\n")
+                  .append("    }\n");
+        }
+        source.append("}\n");
+
+        ObjectNode reply = objectMapper.createObjectNode();
+        ObjectNode metadata = reply.putObject("metadata");
+        metadata.put("component_type", "SERVICE");
+        metadata.put("entity_name", className);
+        metadata.put("test_count", testsPerReply);
+        metadata.put("test_framework", "JUnit 5");
+        metadata.put("assertion_library", "AssertJ");
+        ObjectNode testClass = reply.putObject("test_class");
+        testClass.put("package", "com.example");
+        testClass.putArray("imports").add("org.junit.jupiter.api.Test");
+        testClass.put("class_name", className + "Test");
+        testClass.put("source_code", source.toString());
+        reply.putObject("test_summary").put("happy_path_tests", testsPerReply);
+        ObjectNode checklist = reply.putObject("quality_checklist");
+        checklist.put("all_tests_executable", true);
+        checklist.put("follows_naming_conventions", true);
+        return "```json\n" + objectMapper.writeValueAsString(reply) + "\n```";
+    }
+
+    private void send(HttpExchange exchange, int status, String contentType, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(bytes);
+        }
+    }
+
+    private void writeEvent(OutputStream output, String data) throws IOException {
+        output.write(("data: " + data + "\n\n").getBytes(StandardCharsets.UTF_8));
+        output.flush();
+    }
+
+    private void sleep(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            TimeUnit.MILLISECONDS.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package com.univade.ai.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.univade.ai.TestgenAiApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drives the full stack (Tomcat, controller, ChatClient, HTTP client, parsing and file output) with
+ * N concurrent clients against {@link FakeOpenAiServer}, one run per concurrency level, and prints
+ * throughput, failures by kind, latency percentiles, heap and thread counts for each. Rejections (429),
+ * shed load (503) and other server errors are counted apart, so admission control is not mistaken for
+ * breakage; "other" covers any remaining status and requests that got no response at all.
+ *
+ * <p>Settings are read from system properties: {@code loadtest.concurrency} (comma separated levels),
+ * {@code loadtest.duration-seconds}, {@code loadtest.warmup-seconds}, {@code loadtest.users},
+ * {@code loadtest.methods}, {@code loadtest.stub.latency-ms}, {@code loadtest.stub.jitter-ms} and
+ * {@code loadtest.stub.tests-per-reply}.
+ */
+public class LoadTestHarness {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+    private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    private final AtomicLong requestSequence = new AtomicLong();
+
+    private final URI generateUri;
+    private final int users;
+    private final int methods;
+
+    LoadTestHarness(URI generateUri, int users, int methods) {
+        this.generateUri = generateUri;
+        this.users = users;
+        this.methods = methods;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int[] levels = Arrays.stream(System.getProperty("loadtest.concurrency", "1,4,8,16,32,64").split(","))
+                .map(String::trim)
+                .mapToInt(Integer::parseInt)
+                .toArray();
+        int durationSeconds = Integer.getInteger("loadtest.duration-seconds", 30);
+        int warmupSeconds = Integer.getInteger("loadtest.warmup-seconds", 5);
+
+        try (FakeOpenAiServer stub = new FakeOpenAiServer(0,
+                Long.getLong("loadtest.stub.latency-ms", 2000),
+                Long.getLong("loadtest.stub.jitter-ms", 500),
+                Integer.getInteger("loadtest.stub.tests-per-reply", 10))) {
+            stub.start();
+
+            ConfigurableApplicationContext application = new SpringApplicationBuilder(TestgenAiApplication.class)
+                    .profiles("loadtest")
+                    .properties("server.port=0", "spring.ai.openai.base-url=" + stub.getBaseUrl())
+                    .run(args);
+            try {
+                String port = application.getEnvironment().getProperty("local.server.port");
+                LoadTestHarness harness = new LoadTestHarness(
+                        URI.create("http://localhost:" + port + "/api/test-generation/generate"),
+                        Integer.getInteger("loadtest.users", 16),
+                        Integer.getInteger("loadtest.methods", 6));
+
+                System.out.printf("Warming up for %ds...%n", warmupSeconds);
+                harness.run(Math.max(1, levels[0]), warmupSeconds);
+
+                System.out.printf("%n%-11s %9s %6s %6s %6s %6s %9s %9s %9s %9s %9s %10s %8s%n",
+                        "concurrency", "req/s", "429", "503", "5xx", "other", "p50 ms", "p90 ms", "p99 ms", "max ms",
+                        "heap MB", "threads", "peak");
+                for (int concurrency : levels) {
+                    System.out.println(harness.run(concurrency, durationSeconds).format());
+                }
+                System.out.printf("%nFake OpenAI server answered %d requests%n", stub.getRequestCount());
+            } finally {
+                application.close();
+            }
+        }
+    }
+
+    RunResult run(int concurrency, int durationSeconds) throws InterruptedException {
+        System.gc();
+        threads.resetPeakThreadCount();
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(durationSeconds);
+        List<long[]> latencies = new ArrayList<>();
+        int[] counts = new int[concurrency];
+        AtomicLong rejected = new AtomicLong();
+        AtomicLong unavailable = new AtomicLong();
+        AtomicLong serverErrors = new AtomicLong();
+        AtomicLong otherFailures = new AtomicLong();
+        CountDownLatch done = new CountDownLatch(concurrency);
+        ExecutorService clients = Executors.newFixedThreadPool(concurrency);
+
+        long start = System.nanoTime();
+        for (int client = 0; client < concurrency; client++) {
+            long[] samples = new long[Math.max(16, durationSeconds * 1000)];
+            latencies.add(samples);
+            int index = client;
+            clients.execute(() -> {
+                try {
+                    while (System.nanoTime() < deadline && counts[index] < samples.length) {
+                        long began = System.nanoTime();
+                        int status = send();
+                        if (status == 429) {
+                            rejected.incrementAndGet();
+                        } else if (status == 503) {
+                            unavailable.incrementAndGet();
+                        } else if (status >= 500) {
+                            serverErrors.incrementAndGet();
+                        } else if (status != 200) {
+                            otherFailures.incrementAndGet();
+                        }
+                        samples[counts[index]++] = System.nanoTime() - began;
+                    }
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+        long elapsed = System.nanoTime() - start;
+        clients.shutdown();
+
+        int total = Arrays.stream(counts).sum();
+        long[] all = new long[total];
+        int offset = 0;
+        for (int client = 0; client < concurrency; client++) {
+            System.arraycopy(latencies.get(client), 0, all, offset, counts[client]);
+            offset += counts[client];
+        }
+        Arrays.sort(all);
+
+        return new RunResult(concurrency,
+                total / (elapsed / 1_000_000_000.0),
+                rejected.get(),
+                unavailable.get(),
+                serverErrors.get(),
+                otherFailures.get(),
+                percentile(all, 0.50),
+                percentile(all, 0.90),
+                percentile(all, 0.99),
+                all.length == 0 ? 0 : all[all.length - 1],
+                memory.getHeapMemoryUsage().getUsed(),
+                threads.getThreadCount(),
+                threads.getPeakThreadCount());
+    }
+
+    /**
+     * Returns the response status, or -1 when the request failed without one.
+     */
+    private int send() {
+        long sequence = requestSequence.incrementAndGet();
+        try {
+            HttpRequest request = HttpRequest.newBuilder(generateUri)
+                    .timeout(Duration.ofMinutes(5))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(requestBody(sequence)))
+                    .build();
+            HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+            return response.statusCode();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return -1;
+        } catch (Exception e) {
+            return -1;
+        }
+    }
+
+    private String requestBody(long sequence) throws Exception {
+        // A distinct class per request keeps single-flight and the caches from collapsing the load.
+        String className = "LoadTestService" + sequence;
+        StringBuilder source = new StringBuilder();
+        source.append("package com.example;\n\n@Service\npublic class ").append(className).append(" {\n\n")
+              .append("    private final OrderRepository orderRepository;\n\n")
+              .append("    public ").append(className).append("(OrderRepository orderRepository) {\n")
+              .append("        this.orderRepository = orderRepository;\n    }\n");
+        for (int i = 0; i < methods; i++) {
+            source.append("\n    public Order process").append(i).append("(Long id) {\n")
+                  .append("        if (id == null) {\n")
+                  .append("            throw new IllegalArgumentException(\"id is required\");\n        }\n")
+                  .append("        return orderRepository.findById(id).orElseThrow();\n    }\n");
+        }
+        source.append("}\n");
+
+        ObjectNode body = objectMapper.createObjectNode();
+        body.put("userInput", "Generate unit tests for " + className);
+        body.put("classSourceCode", source.toString());
+        body.put("userId", "load-user-" + (sequence % users));
+        return objectMapper.writeValueAsString(body);
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(percentile * sorted.length) - 1);
+        return sorted[Math.max(0, index)];
+    }
+
+    record RunResult(int concurrency, double throughput, long rejected, long unavailable, long serverErrors,
+                     long otherFailures, long p50Nanos, long p90Nanos, long p99Nanos, long maxNanos,
+                     long heapUsedBytes, int threadCount, int peakThreadCount) {
+
+        String format() {
+            return String.format("%-11d %9.2f %6d %6d %6d %6d %9d %9d %9d %9d %9d %10d %8d",
+                    concurrency, throughput, rejected, unavailable, serverErrors, otherFailures,
+                    TimeUnit.NANOSECONDS.toMillis(p50Nanos), TimeUnit.NANOSECONDS.toMillis(p90Nanos),
+                    TimeUnit.NANOSECONDS.toMillis(p99Nanos), TimeUnit.NANOSECONDS.toMillis(maxNanos),
+                    heapUsedBytes / (1024 * 1024), threadCount, peakThreadCount);
+        }
+    }
+}
@@ -2,11 +2,9 @@ package com.univade.ai;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
-import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
 import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
 
 @SpringBootApplication(exclude = {
-	DataSourceAutoConfiguration.class,
 	HibernateJpaAutoConfiguration.class
 })
 public class TestgenAiApplication {
@@ -0,0 +1,85 @@
+package com.univade.ai.application.service;
+
+import com.univade.ai.domain.model.ConversationContext;
+import com.univade.ai.domain.repository.MemoryRepository;
+import com.univade.ai.infrastructure.persistence.JdbcChatMemoryRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.chat.memory.ChatMemory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+@Service
+public class ConversationCleanupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConversationCleanupService.class);
+
+    private final ConversationService conversationService;
+    private final ChatMemory chatMemory;
+    private final MemoryRepository memoryRepository;
+    private final Optional<JdbcChatMemoryRepository> persistedChatMemory;
+    private final long timeoutMinutes;
+    private final Counter expired;
+    private final Counter orphaned;
+
+    public ConversationCleanupService(ConversationService conversationService,
+                                      ChatMemory chatMemory,
+                                      MemoryRepository memoryRepository,
+                                      Optional<JdbcChatMemoryRepository> persistedChatMemory,
+                                      @Value("${testgen.conversation.conversation-timeout-minutes:30}") long timeoutMinutes,
+                                      MeterRegistry meterRegistry) {
+        this.conversationService = conversationService;
+        this.chatMemory = chatMemory;
+        this.memoryRepository = memoryRepository;
+        this.persistedChatMemory = persistedChatMemory;
+        this.timeoutMinutes = timeoutMinutes;
+        this.expired = Counter.builder("testgen.conversation.expired").register(meterRegistry);
+        this.orphaned = Counter.builder("testgen.conversation.orphaned-memory").register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${testgen.conversation.cleanup-interval-hours:24}",
+               initialDelayString = "${testgen.conversation.cleanup-interval-hours:24}",
+               timeUnit = TimeUnit.HOURS)
+    public void cleanupExpiredConversations() {
+        List<ConversationContext> removed = conversationService.cleanupInactiveConversations();
+        for (ConversationContext context : removed) {
+            try {
+                chatMemory.clear(context.getConversationId());
+                if (context.getSessionId() != null) {
+                    memoryRepository.deleteBySessionId(context.getSessionId());
+                }
+            } catch (Exception e) {
+                logger.warn("Failed to release memory of expired conversation: {}", context.getConversationId(), e);
+            }
+        }
+
+        expired.increment(removed.size());
+        if (!removed.isEmpty()) {
+            logger.info("Expired {} inactive conversations", removed.size());
+        }
+
+        persistedChatMemory.ifPresent(this::deleteOrphanedChatMemory);
+    }
+
+    // Persisted messages outlive the in-memory tracking, so rows no tracked conversation owns are swept by age.
+    private void deleteOrphanedChatMemory(JdbcChatMemoryRepository repository) {
+        try {
+            int deleted = repository.deleteIdleConversations(LocalDateTime.now().minusMinutes(timeoutMinutes),
+                    conversationService::isTracked);
+            orphaned.increment(deleted);
+            if (deleted > 0) {
+                logger.info("Queued deletion of stored chat memory for {} untracked idle conversations", deleted);
+            }
+        } catch (Exception e) {
+            logger.warn("Failed to delete orphaned chat memory", e);
+        }
+    }
+}
@@ -1,51 +1,92 @@
 package com.univade.ai.application.service;
 
 import com.univade.ai.domain.model.ConversationContext;
+import com.univade.ai.domain.model.ConversationStatus;
 import com.univade.ai.domain.model.ConversationSummary;
+import com.univade.ai.domain.model.PromptContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Queue;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Service
 public class ConversationService {
 
     private static final Logger logger = LoggerFactory.getLogger(ConversationService.class);
     private final Map<String, ConversationContext> conversations = new ConcurrentHashMap<>();
-    private final Map<String, List<String>> userConversations = new ConcurrentHashMap<>();
-    private static final long DEFAULT_CONVERSATION_TIMEOUT_MINUTES = 30;
-    private static final int MAX_CONVERSATIONS_PER_USER = 20;
+    private final Map<String, UserConversations> userConversations = new ConcurrentHashMap<>();
+    private final DelayQueue<ExpiryEntry> expiryIndex = new DelayQueue<>();
+    private final Queue<ConversationContext> evictedConversations = new ConcurrentLinkedQueue<>();
+    private final AtomicLong activeCount = new AtomicLong();
+    private final AtomicLong inactiveCount = new AtomicLong();
+
+    private final long conversationTimeoutMs;
+    private final int maxConversationsPerUser;
+
+    public ConversationService(@Value("${testgen.conversation.conversation-timeout-minutes:30}") long timeoutMinutes,
+                               @Value("${testgen.conversation.max-conversations-per-user:20}") int maxConversationsPerUser) {
+        this.conversationTimeoutMs = TimeUnit.MINUTES.toMillis(timeoutMinutes);
+        this.maxConversationsPerUser = Math.max(1, maxConversationsPerUser);
+    }
 
     public String startConversation(String userId) {
         return startConversation(userId, null);
     }
 
     public String startConversation(String userId, String sessionId) {
+        String owner = userId != null ? userId : PromptContext.DEFAULT_USER_ID;
         String conversationId = UUID.randomUUID().toString();
-        
-        ConversationContext context = new ConversationContext(conversationId, userId, sessionId);
-        context.addMetadata("startedBy", userId);
+
+        ConversationContext context = new ConversationContext(conversationId, owner, sessionId);
+        context.addMetadata("startedBy", owner);
         context.addMetadata("sessionId", sessionId);
 
         conversations.put(conversationId, context);
-        userConversations.computeIfAbsent(userId, k -> new java.util.ArrayList<>()).add(conversationId);
-        cleanupUserConversations(userId);
+        activeCount.incrementAndGet();
+        expiryIndex.add(new ExpiryEntry(conversationId, context.getLastInteractionMillis() + conversationTimeoutMs));
+
+        // The ring hands back the user's oldest conversation once it is full. Adding inside compute keeps
+        // a concurrent sweep from dropping the ring as empty between looking it up and adding to it.
+        String[] pushedOut = new String[1];
+        userConversations.compute(owner, (key, ring) -> {
+            UserConversations target = ring != null ? ring : new UserConversations(maxConversationsPerUser);
+            pushedOut[0] = target.add(conversationId);
+            return target;
+        });
+        if (!conversations.containsKey(conversationId)) {
+            // A sweep removed it before it reached the ring; don't leave its id holding a slot.
+            forget(owner, conversationId);
+        }
+        String evictedId = pushedOut[0];
+        if (evictedId != null) {
+            ConversationContext evicted = conversations.get(evictedId);
+            if (evicted != null && removeConversation(evicted)) {
+                evictedConversations.add(evicted);
+                logger.info("Removed old conversation: {} for user: {}", evictedId, owner);
+            }
+        }
 
-        logger.info("Started new conversation: {} for user: {}", conversationId, userId);
+        logger.info("Started new conversation: {} for user: {}", conversationId, owner);
         return conversationId;
     }
 
     public void endConversation(String conversationId) {
         ConversationContext context = conversations.get(conversationId);
         if (context != null) {
-            context.markCompleted();
+            updateCounts(context.markCompleted(), ConversationStatus.COMPLETED);
             logger.info("Ended conversation: {}", conversationId);
         }
     }
@@ -53,40 +94,51 @@ public class ConversationService {
     public Optional<ConversationContext> getConversationContext(String conversationId) {
         ConversationContext context = conversations.get(conversationId);
         if (context != null) {
-            context.markActive();
+            updateCounts(context.markActive(), ConversationStatus.ACTIVE);
         }
         return Optional.ofNullable(context);
     }
 
     public List<ConversationContext> getUserConversations(String userId) {
-        List<String> conversationIds = userConversations.get(userId);
-        if (conversationIds == null) {
+        UserConversations ring = userConversations.get(userId);
+        if (ring == null) {
             return List.of();
         }
-        
-        return conversationIds.stream()
-                .map(conversations::get)
-                .filter(context -> context != null)
-                .collect(Collectors.toList());
+
+        List<ConversationContext> contexts = new ArrayList<>();
+        for (String conversationId : ring.snapshot()) {
+            ConversationContext context = conversations.get(conversationId);
+            if (context != null) {
+                contexts.add(context);
+            }
+        }
+        return contexts;
     }
 
     public void updateConversationMetadata(String conversationId, Map<String, Object> metadata) {
         ConversationContext context = conversations.get(conversationId);
         if (context != null) {
             metadata.forEach(context::addMetadata);
-            context.markActive();
+            updateCounts(context.markActive(), ConversationStatus.ACTIVE);
             logger.debug("Updated metadata for conversation: {}", conversationId);
         }
     }
 
-    public ConversationSummary summarizeConversation(String conversationId) {
+    /**
+     * Records a rolled-forward summary of the conversation. A new summary object replaces the previous
+     * one, so readers never see it half updated.
+     */
+    public ConversationSummary updateSummary(String conversationId, String summaryText) {
         ConversationContext context = conversations.get(conversationId);
         if (context == null) {
             return null;
         }
 
-        ConversationSummary summary = new ConversationSummary(conversationId,
-                "Conversation summary for " + conversationId);
+        ConversationSummary previous = context.getSummary();
+        ConversationSummary summary = new ConversationSummary(conversationId, summaryText);
+        if (previous != null) {
+            summary.setCreatedAt(previous.getCreatedAt());
+        }
         summary.setTotalMessages(context.getMessageCount());
         summary.setTotalTokens(context.getTotalTokens());
 
@@ -94,48 +146,60 @@ public class ConversationService {
         return summary;
     }
 
+    /** Whether the conversation is still tracked, without counting the lookup as activity. */
+    public boolean isTracked(String conversationId) {
+        return conversations.containsKey(conversationId);
+    }
+
     public boolean isConversationActive(String conversationId) {
         ConversationContext context = conversations.get(conversationId);
         return context != null && context.isActive();
     }
 
     public long getActiveConversationCount() {
-        return conversations.values().stream()
-                .filter(ConversationContext::isActive)
-                .count();
+        return activeCount.get();
     }
 
-    public void cleanupInactiveConversations() {
-        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(DEFAULT_CONVERSATION_TIMEOUT_MINUTES);
+    public long getInactiveConversationCount() {
+        return inactiveCount.get();
+    }
 
-        List<String> toRemove = conversations.entrySet().stream()
-                .filter(entry -> entry.getValue().getLastInteractionAt().isBefore(cutoff))
-                .map(Map.Entry::getKey)
-                .collect(Collectors.toList());
+    /**
+     * Removes conversations idle for longer than the timeout, plus any pushed out by the per-user
+     * limit since the last sweep, and returns them so their chat memory and prompt sessions can be
+     * dropped too. Only index entries whose deadline has passed are visited; one that was touched
+     * since it was indexed goes back in with its new deadline.
+     */
+    public List<ConversationContext> cleanupInactiveConversations() {
+        List<ConversationContext> removed = new ArrayList<>();
+        ConversationContext evicted;
+        while ((evicted = evictedConversations.poll()) != null) {
+            removed.add(evicted);
+        }
 
-        toRemove.forEach(conversationId -> {
-            ConversationContext context = conversations.remove(conversationId);
-            if (context != null) {
-                List<String> userConvs = userConversations.get(context.getUserId());
-                if (userConvs != null) {
-                    userConvs.remove(conversationId);
-                }
-                logger.info("Cleaned up inactive conversation: {}", conversationId);
+        long now = System.currentTimeMillis();
+        ExpiryEntry entry;
+        while ((entry = expiryIndex.poll()) != null) {
+            ConversationContext context = conversations.get(entry.conversationId);
+            if (context == null) {
+                continue;
+            }
+
+            long deadline = context.getLastInteractionMillis() + conversationTimeoutMs;
+            if (deadline > now) {
+                expiryIndex.add(new ExpiryEntry(entry.conversationId, deadline));
+                continue;
             }
-        });
-    }
 
-    private void cleanupUserConversations(String userId) {
-        List<String> userConvs = userConversations.get(userId);
-        if (userConvs != null && userConvs.size() > MAX_CONVERSATIONS_PER_USER) {
-            int toRemove = userConvs.size() - MAX_CONVERSATIONS_PER_USER;
-            for (int i = 0; i < toRemove; i++) {
-                String oldConversationId = userConvs.remove(0);
-                conversations.remove(oldConversationId);
-                logger.info("Removed old conversation: {} for user: {}", oldConversationId, userId);
+            if (removeConversation(context)) {
+                forget(context.getUserId(), entry.conversationId);
+                removed.add(context);
+                logger.info("Cleaned up inactive conversation: {}", entry.conversationId);
             }
         }
+        return removed;
     }
+
     public void incrementMessageCount(String conversationId) {
         ConversationContext context = conversations.get(conversationId);
         if (context != null) {
@@ -149,4 +213,116 @@ public class ConversationService {
             context.addTokens(tokens);
         }
     }
+
+    /** Drops the id from the user's ring, and the ring itself once it is empty. */
+    private void forget(String userId, String conversationId) {
+        userConversations.computeIfPresent(userId, (key, ring) -> ring.remove(conversationId) ? null : ring);
+    }
+
+    int getTrackedUsers() {
+        return userConversations.size();
+    }
+
+    private boolean removeConversation(ConversationContext context) {
+        if (!conversations.remove(context.getConversationId(), context)) {
+            return false;
+        }
+        // Archiving is final, so a request racing with the removal cannot count the conversation again.
+        updateCounts(context.markArchived(), ConversationStatus.ARCHIVED);
+        return true;
+    }
+
+    private void updateCounts(ConversationStatus previous, ConversationStatus next) {
+        if (previous == ConversationStatus.ARCHIVED || previous == next) {
+            return;
+        }
+        boolean wasActive = previous == ConversationStatus.ACTIVE;
+        boolean isActive = next == ConversationStatus.ACTIVE;
+        boolean tracked = next != ConversationStatus.ARCHIVED;
+
+        if (wasActive) {
+            activeCount.decrementAndGet();
+        } else {
+            inactiveCount.decrementAndGet();
+        }
+        if (tracked) {
+            if (isActive) {
+                activeCount.incrementAndGet();
+            } else {
+                inactiveCount.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * A user's most recent conversation ids in a fixed-capacity ring: adding to a full ring overwrites
+     * and returns the oldest id in constant time.
+     */
+    private static final class UserConversations {
+        private final String[] ids;
+        private int head;
+        private int size;
+
+        private UserConversations(int capacity) {
+            this.ids = new String[capacity];
+        }
+
+        synchronized String add(String conversationId) {
+            int tail = (head + size) % ids.length;
+            if (size < ids.length) {
+                ids[tail] = conversationId;
+                size++;
+                return null;
+            }
+            String evicted = ids[head];
+            ids[head] = conversationId;
+            head = (head + 1) % ids.length;
+            return evicted;
+        }
+
+        /** Removes the id if present and returns whether the ring is empty afterwards. */
+        synchronized boolean remove(String conversationId) {
+            for (int i = 0; i < size; i++) {
+                int index = (head + i) % ids.length;
+                if (conversationId.equals(ids[index])) {
+                    // Close the gap by shifting the newer ids back one slot.
+                    for (int j = i; j < size - 1; j++) {
+                        ids[(head + j) % ids.length] = ids[(head + j + 1) % ids.length];
+                    }
+                    ids[(head + size - 1) % ids.length] = null;
+                    size--;
+                    break;
+                }
+            }
+            return size == 0;
+        }
+
+        synchronized List<String> snapshot() {
+            List<String> snapshot = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                snapshot.add(ids[(head + i) % ids.length]);
+            }
+            return snapshot;
+        }
+    }
+
+    private static final class ExpiryEntry implements Delayed {
+        private final String conversationId;
+        private final long deadlineMillis;
+
+        private ExpiryEntry(String conversationId, long deadlineMillis) {
+            this.conversationId = conversationId;
+            this.deadlineMillis = deadlineMillis;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(deadlineMillis - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(deadlineMillis, ((ExpiryEntry) other).deadlineMillis);
+        }
+    }
 }
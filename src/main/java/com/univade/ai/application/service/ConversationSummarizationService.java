@@ -0,0 +1,171 @@
+package com.univade.ai.application.service;
+
+import com.univade.ai.infrastructure.ai.ConversationSummarizer;
+import com.univade.ai.infrastructure.ai.ModelRouter;
+import com.univade.ai.infrastructure.ai.TokenEstimator;
+import com.univade.ai.infrastructure.persistence.CompactingChatMemoryRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.SystemMessage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Keeps long conversations cheap to continue. Once a conversation's chat memory passes
+ * {@code auto-summarize-threshold} tokens, everything but the most recent messages is folded into a
+ * running summary that replaces those messages, so later turns send the summary plus recent turns
+ * instead of the whole history. Summaries are produced on a background pool, never on the request path,
+ * and the tokens they use are charged to the conversation's user like any other call.
+ */
+@Service
+public class ConversationSummarizationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConversationSummarizationService.class);
+
+    private final CompactingChatMemoryRepository chatMemoryRepository;
+    private final ConversationSummarizer summarizer;
+    private final ConversationService conversationService;
+    private final TokenQuotaService tokenQuotaService;
+    private final TokenEstimator tokenEstimator;
+    private final ModelRouter modelRouter;
+    private final int thresholdTokens;
+    private final int keepRecentMessages;
+    private final int summaryMaxTokens;
+
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+    private final ThreadPoolExecutor executor;
+    private final Counter summaries;
+    private final Counter failures;
+    private final Counter foldedMessages;
+
+    public ConversationSummarizationService(CompactingChatMemoryRepository chatMemoryRepository,
+                                            ConversationSummarizer summarizer,
+                                            ConversationService conversationService,
+                                            TokenQuotaService tokenQuotaService,
+                                            TokenEstimator tokenEstimator,
+                                            ModelRouter modelRouter,
+                                            MeterRegistry meterRegistry,
+                                            @Value("${testgen.conversation.auto-summarize-threshold:6000}") int thresholdTokens,
+                                            @Value("${testgen.conversation.summary.keep-recent-messages:6}") int keepRecentMessages,
+                                            @Value("${testgen.conversation.summary.max-tokens:1000}") int summaryMaxTokens,
+                                            @Value("${testgen.conversation.summary.max-concurrency:2}") int maxConcurrency,
+                                            @Value("${testgen.conversation.summary.queue-capacity:1000}") int queueCapacity) {
+        this.chatMemoryRepository = chatMemoryRepository;
+        this.summarizer = summarizer;
+        this.conversationService = conversationService;
+        this.tokenQuotaService = tokenQuotaService;
+        this.tokenEstimator = tokenEstimator;
+        this.modelRouter = modelRouter;
+        this.thresholdTokens = thresholdTokens;
+        this.keepRecentMessages = Math.max(0, keepRecentMessages);
+        this.summaryMaxTokens = summaryMaxTokens;
+
+        int threads = Math.max(1, maxConcurrency);
+        AtomicInteger threadCounter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(Math.max(1, queueCapacity)), runnable -> {
+                    Thread thread = new Thread(runnable, "conversation-summarizer-" + threadCounter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.executor.allowCoreThreadTimeOut(true);
+
+        this.summaries = Counter.builder("testgen.conversation.summaries").tag("outcome", "success").register(meterRegistry);
+        this.failures = Counter.builder("testgen.conversation.summaries").tag("outcome", "failure").register(meterRegistry);
+        this.foldedMessages = Counter.builder("testgen.conversation.summaries.folded-messages").register(meterRegistry);
+    }
+
+    /**
+     * Queues a summary check for the conversation unless one is already pending. Returns immediately;
+     * when the queue is full the check is skipped and simply happens again after the next turn.
+     */
+    public void summarizeIfNeeded(String conversationId, String userId) {
+        if (thresholdTokens <= 0 || conversationId == null || !pending.add(conversationId)) {
+            return;
+        }
+
+        try {
+            executor.execute(() -> {
+                try {
+                    summarize(conversationId, userId);
+                } catch (Exception e) {
+                    failures.increment();
+                    logger.warn("Failed to summarize conversation: {}", conversationId, e);
+                } finally {
+                    pending.remove(conversationId);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            pending.remove(conversationId);
+            logger.debug("Summary queue full, skipping conversation: {}", conversationId);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    boolean summarize(String conversationId, String userId) {
+        List<Message> history = chatMemoryRepository.findByConversationId(conversationId);
+        int historyTokens = history.stream().mapToInt(message -> tokenEstimator.count(message.getText())).sum();
+        if (historyTokens <= thresholdTokens || history.size() <= keepRecentMessages) {
+            return false;
+        }
+
+        int split = history.size() - keepRecentMessages;
+        List<Message> folded = history.subList(0, split);
+        String previousSummary = null;
+        List<Message> turns = new ArrayList<>(split);
+        for (Message message : folded) {
+            if (ConversationSummarizer.isSummary(message)) {
+                previousSummary = message.getText().substring(ConversationSummarizer.SUMMARY_PREFIX.length());
+            } else {
+                turns.add(message);
+            }
+        }
+        if (turns.isEmpty()) {
+            return false;
+        }
+
+        ConversationSummarizer.Summary summary =
+                summarizer.summarize(previousSummary, turns, modelRouter.summaryRoute(summaryMaxTokens));
+        if (summary.usage() != null) {
+            tokenQuotaService.charge(userId, conversationId, summary.usage().getTotalTokens());
+        }
+        if (summary.text() == null) {
+            failures.increment();
+            logger.warn("Empty summary returned for conversation: {}", conversationId);
+            return false;
+        }
+
+        // Turns appended while the model was busy are kept; if the folded part itself changed, the
+        // conversation was trimmed or cleared meanwhile and the next turn starts over.
+        List<Message> replacement = List.of(new SystemMessage(ConversationSummarizer.SUMMARY_PREFIX + summary.text()));
+        if (!chatMemoryRepository.replaceIfUnchanged(conversationId, folded, replacement)) {
+            logger.debug("Conversation {} changed while being summarized, skipping", conversationId);
+            return false;
+        }
+        conversationService.updateSummary(conversationId, summary.text());
+
+        summaries.increment();
+        foldedMessages.increment(turns.size());
+        logger.info("Folded {} messages of conversation {} into its summary ({} history tokens)",
+                turns.size(), conversationId, historyTokens);
+        return true;
+    }
+}
@@ -0,0 +1,207 @@
+package com.univade.ai.application.service;
+
+import com.univade.ai.domain.exception.GenerationRejectedException;
+import com.univade.ai.domain.model.GenerationJob;
+import com.univade.ai.domain.model.JobStatus;
+import com.univade.ai.domain.model.PromptContext;
+import com.univade.ai.domain.model.TestGenerationResult;
+import com.univade.ai.domain.repository.GenerationJobRepository;
+import com.univade.ai.domain.value.RequestPriority;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Service
+public class GenerationJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(GenerationJobService.class);
+
+    private final GenerationJobRepository jobRepository;
+    private final TestGenerationService testGenerationService;
+    private final int workerCount;
+    private final long pollIntervalMs;
+    private final int maxAttempts;
+
+    private final Semaphore workAvailable = new Semaphore(0);
+    private final Map<String, CompletableFuture<GenerationJob>> completions = new ConcurrentHashMap<>();
+    private volatile boolean running;
+    private ExecutorService workers;
+
+    public GenerationJobService(GenerationJobRepository jobRepository,
+                                TestGenerationService testGenerationService,
+                                MeterRegistry meterRegistry,
+                                @Value("${testgen.jobs.workers:4}") int workerCount,
+                                @Value("${testgen.jobs.poll-interval-ms:2000}") long pollIntervalMs,
+                                @Value("${testgen.jobs.max-attempts:3}") int maxAttempts) {
+        this.jobRepository = jobRepository;
+        this.testGenerationService = testGenerationService;
+        this.workerCount = workerCount;
+        this.pollIntervalMs = pollIntervalMs;
+        this.maxAttempts = maxAttempts;
+
+        Gauge.builder("testgen.jobs.queued", this, service -> service.jobRepository.countByStatus(JobStatus.QUEUED))
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startWorkers() {
+        int requeued = jobRepository.requeueRunning();
+        if (requeued > 0) {
+            logger.info("Re-queued {} generation jobs that were running at shutdown", requeued);
+        }
+
+        running = true;
+        AtomicInteger threadCounter = new AtomicInteger();
+        workers = Executors.newFixedThreadPool(workerCount, runnable -> {
+            Thread thread = new Thread(runnable, "generation-job-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < workerCount; i++) {
+            workers.execute(this::drainQueue);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        if (workers != null) {
+            workers.shutdownNow();
+        }
+    }
+
+    public GenerationJob submit(String userInput, String classSourceCode, String sessionId, String conversationId,
+                               String userId, RequestPriority priority) {
+        if (userInput == null || userInput.trim().isEmpty()) {
+            throw new IllegalArgumentException("User input cannot be null or empty");
+        }
+
+        GenerationJob job = new GenerationJob(UUID.randomUUID().toString(), sessionId, conversationId,
+                userInput, classSourceCode, userId, priority != null ? priority : RequestPriority.BULK);
+        jobRepository.save(job);
+        workAvailable.release();
+        logger.debug("Queued generation job: {}", job.getId());
+        return job;
+    }
+
+    public Optional<GenerationJob> getJob(String jobId) {
+        return jobRepository.findById(jobId);
+    }
+
+    public CompletableFuture<GenerationJob> awaitCompletion(String jobId) {
+        CompletableFuture<GenerationJob> completion = completions.computeIfAbsent(jobId, id -> new CompletableFuture<>());
+        // Re-read after registering so a job finishing in between is not missed.
+        jobRepository.findById(jobId)
+                .filter(job -> job.getStatus().isTerminal())
+                .ifPresent(job -> {
+                    completions.remove(jobId, completion);
+                    completion.complete(job);
+                });
+        return completion;
+    }
+
+    private void drainQueue() {
+        while (running && !Thread.currentThread().isInterrupted()) {
+            try {
+                Optional<GenerationJob> claimed = jobRepository.claimNext();
+                if (claimed.isPresent()) {
+                    process(claimed.get());
+                } else {
+                    workAvailable.tryAcquire(pollIntervalMs, TimeUnit.MILLISECONDS);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                logger.error("Generation job worker failed, retrying after poll interval", e);
+                sleepQuietly();
+            }
+        }
+    }
+
+    private void process(GenerationJob job) {
+        if (job.getAttempts() > maxAttempts) {
+            logger.warn("Giving up on generation job {} after {} attempts", job.getId(), job.getAttempts() - 1);
+            jobRepository.fail(job.getId(), "Job abandoned after " + (job.getAttempts() - 1) + " attempts");
+            notifyCompletion(job.getId());
+            return;
+        }
+
+        try {
+            TestGenerationResult result = testGenerationService.generateTestsWithMemory(buildContext(job));
+            if (Thread.currentThread().isInterrupted()) {
+                // Shutting down: leave the job RUNNING so it is re-queued on the next start.
+                return;
+            }
+            jobRepository.complete(job.getId(), result);
+        } catch (GenerationRejectedException e) {
+            if (e.getRetryAfterMs() > 0) {
+                // Shed or over quota: the job is still worth running, just not yet. It stays queued until
+                // the Retry-After delay has passed, and the attempt is not counted.
+                logger.info("Generation job {} was rejected ({}), retrying in {} ms",
+                        job.getId(), e.getMessage(), e.getRetryAfterMs());
+                jobRepository.requeue(job.getId(), LocalDateTime.now().plus(Duration.ofMillis(e.getRetryAfterMs())));
+                return;
+            }
+            logger.warn("Generation job {} was rejected: {}", job.getId(), e.getMessage());
+            jobRepository.fail(job.getId(), e.getMessage());
+        } catch (Exception e) {
+            logger.error("Generation job failed: {}", job.getId(), e);
+            jobRepository.fail(job.getId(), "Failed to generate tests: " + e.getMessage());
+        }
+        notifyCompletion(job.getId());
+    }
+
+    private PromptContext buildContext(GenerationJob job) {
+        if (job.isContinuingConversation()) {
+            PromptContext context = new PromptContext(job.getSessionId(), job.getConversationId(),
+                    job.getUserInput(), job.getClassSourceCode());
+            context.setUseConversationMemory(true);
+            context.setUserId(job.getUserId());
+            context.setPriority(job.getPriority());
+            return context;
+        }
+
+        PromptContext context = testGenerationService.buildConversationContext(
+                job.getUserInput(), job.getClassSourceCode(), true);
+        if (job.getSessionId() != null) {
+            context.setSessionId(job.getSessionId());
+        }
+        context.setUserId(job.getUserId());
+        context.setPriority(job.getPriority());
+        return context;
+    }
+
+    private void notifyCompletion(String jobId) {
+        CompletableFuture<GenerationJob> completion = completions.remove(jobId);
+        if (completion != null) {
+            jobRepository.findById(jobId).ifPresent(completion::complete);
+        }
+    }
+
+    private void sleepQuietly() {
+        try {
+            Thread.sleep(pollIntervalMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
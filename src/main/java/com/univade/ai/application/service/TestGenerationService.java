@@ -1,23 +1,42 @@
 package com.univade.ai.application.service;
 
+import com.univade.ai.domain.exception.LlmUnavailableException;
+import com.univade.ai.domain.exception.GenerationRejectedException;
 import com.univade.ai.domain.model.ConversationContext;
 import com.univade.ai.domain.model.ConversationMessage;
+import com.univade.ai.domain.model.GenerationEstimate;
+import com.univade.ai.domain.model.MethodGroup;
+import com.univade.ai.domain.model.ModelRoute;
 import com.univade.ai.domain.model.PromptContext;
 import com.univade.ai.domain.model.TestGenerationResult;
 import com.univade.ai.domain.repository.MemoryRepository;
 import com.univade.ai.domain.service.PromptRefiner;
 import com.univade.ai.domain.service.TestResultProcessor;
+import com.univade.ai.domain.value.RequestPriority;
+import com.univade.ai.infrastructure.ai.ModelRouter;
 import com.univade.ai.infrastructure.ai.OpenAiClient;
+import com.univade.ai.infrastructure.cache.StaleResultCache;
+import com.univade.ai.infrastructure.concurrent.BoundedBatchExecutor;
+import com.univade.ai.infrastructure.concurrent.FairRequestScheduler;
+import com.univade.ai.infrastructure.concurrent.SingleFlight;
 import com.univade.ai.infrastructure.file.TestFileManager;
+import com.univade.ai.infrastructure.metrics.PipelineMetrics;
+import com.univade.ai.infrastructure.metrics.PipelineMetrics.Stage;
+import com.univade.ai.infrastructure.parser.MethodGroupSplitter;
+import com.univade.ai.infrastructure.parser.TestClassMerger;
 import com.univade.ai.infrastructure.prompt.PromptLoader;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
 
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
 
 @Service
 public class TestGenerationService {
@@ -31,6 +50,18 @@ public class TestGenerationService {
     private final TestFileManager testFileManager;
     private final TestResultProcessor testResultProcessor;
     private final ConversationService conversationService;
+    private final BoundedBatchExecutor batchExecutor;
+    private final BoundedBatchExecutor methodGroupExecutor;
+    private final TokenBudgetService tokenBudgetService;
+    private final ModelRouter modelRouter;
+    private final MethodGroupSplitter methodGroupSplitter;
+    private final TestClassMerger testClassMerger;
+    private final FairRequestScheduler requestScheduler;
+    private final StaleResultCache staleResultCache;
+    private final PipelineMetrics pipelineMetrics;
+    private final TokenQuotaService tokenQuotaService;
+    private final ConversationSummarizationService summarizationService;
+    private final SingleFlight<TestGenerationResult> inFlightGenerations = new SingleFlight<>();
 
     public TestGenerationService(OpenAiClient openAiClient,
                                PromptLoader promptLoader,
@@ -38,7 +69,18 @@ public class TestGenerationService {
                                MemoryRepository memoryRepository,
                                TestFileManager testFileManager,
                                TestResultProcessor testResultProcessor,
-                               ConversationService conversationService) {
+                               ConversationService conversationService,
+                               @Qualifier("batchExecutor") BoundedBatchExecutor batchExecutor,
+                               @Qualifier("methodGroupExecutor") BoundedBatchExecutor methodGroupExecutor,
+                               TokenBudgetService tokenBudgetService,
+                               ModelRouter modelRouter,
+                               MethodGroupSplitter methodGroupSplitter,
+                               TestClassMerger testClassMerger,
+                               FairRequestScheduler requestScheduler,
+                               StaleResultCache staleResultCache,
+                               PipelineMetrics pipelineMetrics,
+                               TokenQuotaService tokenQuotaService,
+                               ConversationSummarizationService summarizationService) {
         this.openAiClient = openAiClient;
         this.promptLoader = promptLoader;
         this.promptRefiner = promptRefiner;
@@ -46,25 +88,36 @@ public class TestGenerationService {
         this.testFileManager = testFileManager;
         this.testResultProcessor = testResultProcessor;
         this.conversationService = conversationService;
+        this.batchExecutor = batchExecutor;
+        this.methodGroupExecutor = methodGroupExecutor;
+        this.tokenBudgetService = tokenBudgetService;
+        this.modelRouter = modelRouter;
+        this.methodGroupSplitter = methodGroupSplitter;
+        this.testClassMerger = testClassMerger;
+        this.requestScheduler = requestScheduler;
+        this.staleResultCache = staleResultCache;
+        this.pipelineMetrics = pipelineMetrics;
+        this.tokenQuotaService = tokenQuotaService;
+        this.summarizationService = summarizationService;
     }
 
     public TestGenerationResult generateTests(PromptContext context) {
+        PipelineMetrics.Trace trace = pipelineMetrics.startTrace();
         try {
-            if (context.getSessionId() == null || context.getSessionId().trim().isEmpty()) {
-                context.setSessionId(UUID.randomUUID().toString());
-            }
-
-            memoryRepository.save(context.getSessionId(), context);
+            trace.time(Stage.CONTEXT_BUILD, () -> {
+                if (context.getSessionId() == null || context.getSessionId().trim().isEmpty()) {
+                    context.setSessionId(UUID.randomUUID().toString());
+                }
+                memoryRepository.save(context.getSessionId(), context);
+            });
 
             String systemPrompt = promptLoader.loadSystemPrompt();
-            String userPrompt = promptRefiner.buildUserPrompt(context);
+            String userPrompt = trace.time(Stage.PROMPT_BUILD, () -> promptRefiner.buildUserPrompt(context));
+            TestGenerationResult result = generateShared(context, systemPrompt, userPrompt, trace);
 
-            TestGenerationResult result = openAiClient.generateTests(systemPrompt, userPrompt);
-            result.setSessionId(context.getSessionId());
-
-            if ("SUCCESS".equals(result.getStatus()) && testResultProcessor.isValidTestResult(result)) {
+            if ("SUCCESS".equals(result.getStatus()) && !result.isStale() && isValidTestResult(trace, result)) {
                 try {
-                    testFileManager.saveGeneratedTest(result);
+                    saveGeneratedTest(trace, result);
                 } catch (Exception e) {
                     logger.warn("Failed to save test file for session: {}", context.getSessionId(), e);
                 }
@@ -72,24 +125,67 @@ public class TestGenerationService {
 
             return result;
 
+        } catch (GenerationRejectedException e) {
+            throw e;
         } catch (Exception e) {
             logger.error("Error generating tests", e);
             TestGenerationResult errorResult = new TestGenerationResult(context.getSessionId());
             errorResult.setStatus("ERROR");
             errorResult.setErrorMessage("Failed to generate tests: " + e.getMessage());
             return errorResult;
+        } finally {
+            trace.finish();
+        }
+    }
+
+    public Flux<String> streamTests(PromptContext context) {
+        if (context.getSessionId() == null || context.getSessionId().trim().isEmpty()) {
+            context.setSessionId(UUID.randomUUID().toString());
         }
+
+        memoryRepository.save(context.getSessionId(), context);
+
+        String systemPrompt = promptLoader.loadSystemPrompt();
+        String userPrompt = promptRefiner.buildUserPrompt(context);
+        GenerationEstimate estimate = tokenBudgetService.enforceBudget(systemPrompt, userPrompt, context.getSessionId());
+
+        ModelRoute route = modelRouter.route(context.getClassSourceCode());
+
+        // The streamed content carries no usage metadata. A stream that never reached the model (shed,
+        // circuit open, or cancelled while queued) is refunded; otherwise the prompt estimate plus the
+        // tokens actually streamed back is charged.
+        return Flux.defer(() -> {
+            TokenQuotaService.Reservation reservation =
+                    tokenQuotaService.reserve(context.getUserId(), estimate.getTotalTokens(), context.getSessionId());
+            AtomicBoolean sent = new AtomicBoolean();
+            AtomicLong streamedTokens = new AtomicLong();
+            return requestScheduler.execute(context.getUserId(), context.getPriority(),
+                    openAiClient.streamTestSource(systemPrompt, userPrompt, route)
+                            .doOnSubscribe(subscription -> sent.set(true))
+                            .doOnError(GenerationRejectedException.class, e -> sent.set(false))
+                            .doOnNext(chunk -> streamedTokens.addAndGet(tokenBudgetService.countTokens(chunk))))
+                    .doFinally(signal -> tokenQuotaService.settle(reservation, context.getConversationId(),
+                            sent.get() ? estimate.getInputTokens() + streamedTokens.get() : 0));
+        });
     }
 
     public List<TestGenerationResult> generateMultipleTests(List<PromptContext> contexts) {
-        return contexts.stream()
-                .map(this::generateTests)
-                .collect(Collectors.toList());
+        contexts.stream()
+                .filter(context -> context.getPriority() == RequestPriority.STANDARD)
+                .forEach(context -> context.setPriority(RequestPriority.BULK));
+        return batchExecutor.executeAll(contexts, this::generateTests, (context, failure) -> {
+            TestGenerationResult errorResult = new TestGenerationResult(context.getSessionId());
+            errorResult.setStatus("ERROR");
+            errorResult.setErrorMessage("Failed to generate tests: " + failure.getMessage());
+            return errorResult;
+        });
     }
 
     public TestGenerationResult refineExistingTests(String sessionId, String refinementInstructions) {
+        PipelineMetrics.Trace trace = pipelineMetrics.startTrace();
         try {
-            Optional<PromptContext> contextOpt = memoryRepository.findBySessionId(sessionId);
+            Optional<PromptContext> contextOpt = trace.time(Stage.MEMORY_LOOKUP,
+                    () -> memoryRepository.findBySessionId(sessionId));
             if (contextOpt.isEmpty()) {
                 TestGenerationResult errorResult = new TestGenerationResult(sessionId);
                 errorResult.setStatus("ERROR");
@@ -99,14 +195,19 @@ public class TestGenerationService {
 
             PromptContext context = contextOpt.get();
             String systemPrompt = promptLoader.loadSystemPrompt();
-            String refinementPrompt = promptRefiner.refinePrompt(context, refinementInstructions);
-
-            TestGenerationResult result = openAiClient.refineTests(systemPrompt, refinementPrompt);
+            String refinementPrompt = trace.time(Stage.PROMPT_BUILD,
+                    () -> promptRefiner.refinePrompt(context, refinementInstructions));
+            GenerationEstimate estimate = tokenBudgetService.enforceBudget(systemPrompt, refinementPrompt, sessionId);
+            ModelRoute route = modelRouter.route(context.getClassSourceCode());
+            trace.route(route);
+
+            TestGenerationResult result = callThroughCache(context, RequestPriority.INTERACTIVE, estimate, route,
+                    systemPrompt, refinementPrompt, () -> openAiClient.refineTests(systemPrompt, refinementPrompt, route));
             result.setSessionId(sessionId);
 
-            if ("SUCCESS".equals(result.getStatus()) && testResultProcessor.isValidTestResult(result)) {
+            if ("SUCCESS".equals(result.getStatus()) && isValidTestResult(trace, result)) {
                 try {
-                    testFileManager.saveGeneratedTest(result);
+                    saveGeneratedTest(trace, result);
                 } catch (Exception e) {
                     logger.warn("Failed to save refined test file for session: {}", sessionId, e);
                 }
@@ -114,13 +215,131 @@ public class TestGenerationService {
 
             return result;
 
+        } catch (GenerationRejectedException e) {
+            throw e;
         } catch (Exception e) {
             logger.error("Error refining tests for session: {}", sessionId, e);
             TestGenerationResult errorResult = new TestGenerationResult(sessionId);
             errorResult.setStatus("ERROR");
             errorResult.setErrorMessage("Failed to refine tests: " + e.getMessage());
             return errorResult;
+        } finally {
+            trace.finish();
+        }
+    }
+
+    /**
+     * Generates without conversation memory. Identical prompts in flight at the same time share one
+     * generation, and classes with enough methods fan out into method groups generated in parallel.
+     */
+    private TestGenerationResult generateShared(PromptContext context, String systemPrompt, String userPrompt,
+                                                PipelineMetrics.Trace trace) {
+        List<MethodGroup> methodGroups = methodGroupSplitter.split(context.getClassSourceCode());
+
+        Supplier<TestGenerationResult> generation;
+        if (methodGroups.size() > 1) {
+            generation = () -> generateByMethodGroups(context, systemPrompt, methodGroups, trace);
+        } else {
+            GenerationEstimate estimate = tokenBudgetService.enforceBudget(systemPrompt, userPrompt, context.getSessionId());
+            ModelRoute route = modelRouter.route(context.getClassSourceCode());
+            trace.route(route);
+            generation = () -> callThroughCache(context, context.getPriority(), estimate, route, systemPrompt,
+                    userPrompt, () -> openAiClient.generateTests(systemPrompt, userPrompt, route));
+        }
+
+        Supplier<TestGenerationResult> guarded = generation;
+        SingleFlight.Call<TestGenerationResult> call = inFlightGenerations.execute(normalizePrompt(userPrompt),
+                () -> withStaleFallback(context, guarded));
+        TestGenerationResult result = call.shared()
+                ? call.value().copyForSession(context.getSessionId())
+                : call.value();
+        if (call.shared()) {
+            logger.debug("Coalesced identical in-flight generation for session: {}", context.getSessionId());
+        }
+        result.setSessionId(context.getSessionId());
+        return result;
+    }
+
+    private TestGenerationResult generateByMethodGroups(PromptContext context, String systemPrompt,
+                                                        List<MethodGroup> methodGroups, PipelineMetrics.Trace trace) {
+        logger.debug("Generating tests for {} method groups in parallel for session: {}",
+                methodGroups.size(), context.getSessionId());
+
+        List<TestGenerationResult> parts = methodGroupExecutor.executeAll(methodGroups, group -> {
+            String groupPrompt = promptRefiner.buildMethodGroupPrompt(context, group);
+            GenerationEstimate estimate = tokenBudgetService.enforceBudget(systemPrompt, groupPrompt, context.getSessionId());
+            ModelRoute route = modelRouter.route(group.getSourceCode());
+            trace.route(route);
+            return callThroughCache(context, context.getPriority(), estimate, route, systemPrompt, groupPrompt,
+                    () -> openAiClient.generateTests(systemPrompt, groupPrompt, route));
+        }, (group, failure) -> {
+            // A rejected group means the request is over quota or capacity; the caller gets that
+            // rejection and its Retry-After rather than a class with the group silently missing.
+            if (failure instanceof GenerationRejectedException rejected) {
+                throw rejected;
+            }
+            TestGenerationResult errorResult = new TestGenerationResult(context.getSessionId());
+            errorResult.setStatus("ERROR");
+            errorResult.setErrorMessage("Failed to generate tests for " + group.getMethodNames() + ": "
+                    + failure.getMessage());
+            return errorResult;
+        });
+
+        TestGenerationResult merged = testClassMerger.merge(methodGroups, parts);
+        if ("SUCCESS".equals(merged.getStatus()) && merged.getErrorMessage() != null) {
+            logger.warn("Partial method group result for session {}: {}", context.getSessionId(), merged.getErrorMessage());
+        }
+        return merged;
+    }
+
+    /**
+     * Answers a cached response straight away, without a quota reservation or a scheduler slot. On a miss
+     * the call is admitted as usual; the client looks the cache up once more after admission, in case an
+     * identical request filled it while this one was queued.
+     */
+    private TestGenerationResult callThroughCache(PromptContext context, RequestPriority priority,
+                                                  GenerationEstimate estimate, ModelRoute route, String systemPrompt,
+                                                  String prompt, Supplier<TestGenerationResult> modelCall) {
+        Optional<TestGenerationResult> cached = openAiClient.cachedResult(systemPrompt, prompt, route);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+        return tokenQuotaService.execute(context, estimate.getTotalTokens(),
+                () -> requestScheduler.execute(context.getUserId(), priority,
+                        modelCall));
+    }
+
+    private TestGenerationResult withStaleFallback(PromptContext context, Supplier<TestGenerationResult> call) {
+        TestGenerationResult result;
+        try {
+            result = call.get();
+        } catch (LlmUnavailableException e) {
+            logger.warn("AI service unavailable for session {}, looking for a stale result", context.getSessionId());
+            return staleResultCache.lastGood(context.getClassSourceCode(), context.getSessionId())
+                    .orElseThrow(() -> e);
+        }
+
+        // A partial fan-out result is returned but never kept as the last good one.
+        if ("SUCCESS".equals(result.getStatus()) && result.getErrorMessage() == null) {
+            staleResultCache.remember(context.getClassSourceCode(), result);
         }
+        return result;
+    }
+
+    private boolean isValidTestResult(PipelineMetrics.Trace trace, TestGenerationResult result) {
+        return trace.time(Stage.VALIDATION, () -> testResultProcessor.isValidTestResult(result));
+    }
+
+    private void saveGeneratedTest(PipelineMetrics.Trace trace, TestGenerationResult result) {
+        trace.time(Stage.FILE_WRITE, () -> testFileManager.saveGeneratedTest(result));
+    }
+
+    private String normalizePrompt(String prompt) {
+        return prompt.strip().replaceAll("\\s+", " ");
+    }
+
+    public GenerationEstimate estimate(PromptContext context) {
+        return tokenBudgetService.estimate(context);
     }
 
     public PromptContext buildContext(String userInput) {
@@ -140,36 +359,55 @@ public class TestGenerationService {
     }
 
     public TestGenerationResult generateTestsWithMemory(PromptContext context) {
+        PipelineMetrics.Trace trace = pipelineMetrics.startTrace();
         try {
-            if (context.getSessionId() == null || context.getSessionId().trim().isEmpty()) {
-                context.setSessionId(UUID.randomUUID().toString());
-            }
+            boolean isNewConversation = trace.time(Stage.CONTEXT_BUILD, () -> {
+                if (context.getSessionId() == null || context.getSessionId().trim().isEmpty()) {
+                    context.setSessionId(UUID.randomUUID().toString());
+                }
 
-            boolean isNewConversation = false;
-            if (context.getConversationId() == null && context.isUseConversationMemory()) {
-                String conversationId = conversationService.startConversation("default-user", context.getSessionId());
-                context.setConversationId(conversationId);
-                isNewConversation = true;
-            }
+                boolean started = false;
+                if (context.getConversationId() == null && context.isUseConversationMemory()) {
+                    String conversationId = conversationService.startConversation(context.getUserId(), context.getSessionId());
+                    context.setConversationId(conversationId);
+                    started = true;
+                }
 
-            memoryRepository.save(context.getSessionId(), context);
+                memoryRepository.save(context.getSessionId(), context);
+                return started;
+            });
 
             String systemPrompt = promptLoader.loadSystemPrompt();
-            String userPrompt = promptRefiner.buildUserPrompt(context);
-
+            String userPrompt = trace.time(Stage.PROMPT_BUILD, () -> promptRefiner.buildUserPrompt(context));
             TestGenerationResult result;
-            if (context.shouldUseConversationMemory()) {
-                result = openAiClient.generateTestsWithMemory(systemPrompt, userPrompt, context.getConversationId());
+            if (context.shouldUseConversationMemory() && !isNewConversation) {
+                GenerationEstimate estimate = tokenBudgetService.enforceBudget(systemPrompt, userPrompt, context.getSessionId());
+                ModelRoute route = modelRouter.route(context.getClassSourceCode());
+                trace.route(route);
+                result = withStaleFallback(context, () -> tokenQuotaService.execute(context, estimate.getTotalTokens(),
+                        () -> requestScheduler.execute(context.getUserId(), context.getPriority(),
+                                () -> openAiClient.generateTestsWithMemory(
+                                        systemPrompt, userPrompt, context.getConversationId(), route))));
+            } else {
+                // A conversation that was just started has no history, so its first turn is the same call
+                // as a stateless generation and is shared with identical requests; the exchange is then
+                // recorded in this conversation's memory for the turns that follow.
+                result = generateShared(context, systemPrompt, userPrompt, trace);
+                if (isNewConversation && "SUCCESS".equals(result.getStatus()) && result.getTestClass() != null) {
+                    openAiClient.rememberExchange(context.getConversationId(), userPrompt,
+                            result.getTestClass().getSourceCode());
+                }
+            }
 
+            if (context.shouldUseConversationMemory()) {
                 conversationService.incrementMessageCount(context.getConversationId());
+                summarizationService.summarizeIfNeeded(context.getConversationId(), context.getUserId());
 
                 context.addToHistory(ConversationMessage.userMessage(context.getConversationId(), userPrompt));
                 if (result.getGeneratedTest() != null) {
                     context.addToHistory(ConversationMessage.assistantMessage(context.getConversationId(),
                             "Generated test class: " + result.getTestClass().getClassName()));
                 }
-            } else {
-                result = openAiClient.generateTests(systemPrompt, userPrompt);
             }
 
             result.setSessionId(context.getSessionId());
@@ -178,9 +416,9 @@ public class TestGenerationService {
             }
             result.setNewConversation(isNewConversation);
 
-            if ("SUCCESS".equals(result.getStatus()) && testResultProcessor.isValidTestResult(result)) {
+            if ("SUCCESS".equals(result.getStatus()) && !result.isStale() && isValidTestResult(trace, result)) {
                 try {
-                    testFileManager.saveGeneratedTest(result);
+                    saveGeneratedTest(trace, result);
                 } catch (Exception e) {
                     logger.warn("Failed to save test file for session: {}", context.getSessionId(), e);
                 }
@@ -188,12 +426,16 @@ public class TestGenerationService {
 
             return result;
 
+        } catch (GenerationRejectedException e) {
+            throw e;
         } catch (Exception e) {
             logger.error("Error generating tests with memory", e);
             TestGenerationResult errorResult = new TestGenerationResult(context.getSessionId());
             errorResult.setStatus("ERROR");
             errorResult.setErrorMessage("Failed to generate tests: " + e.getMessage());
             return errorResult;
+        } finally {
+            trace.finish();
         }
     }
 
@@ -211,9 +453,13 @@ public class TestGenerationService {
             PromptContext promptContext = new PromptContext(conversationContext.getSessionId(),
                     conversationId, userInput, null);
             promptContext.setUseConversationMemory(true);
+            promptContext.setUserId(conversationContext.getUserId());
+            promptContext.setPriority(RequestPriority.INTERACTIVE);
 
             return generateTestsWithMemory(promptContext);
 
+        } catch (GenerationRejectedException e) {
+            throw e;
         } catch (Exception e) {
             logger.error("Error continuing conversation: {}", conversationId, e);
             TestGenerationResult errorResult = new TestGenerationResult();
@@ -224,8 +470,10 @@ public class TestGenerationService {
     }
 
     public TestGenerationResult refineTestsWithMemory(String conversationId, String refinementInstructions) {
+        PipelineMetrics.Trace trace = pipelineMetrics.startTrace();
         try {
-            Optional<ConversationContext> contextOpt = conversationService.getConversationContext(conversationId);
+            Optional<ConversationContext> contextOpt = trace.time(Stage.MEMORY_LOOKUP,
+                    () -> conversationService.getConversationContext(conversationId));
             if (contextOpt.isEmpty()) {
                 TestGenerationResult errorResult = new TestGenerationResult();
                 errorResult.setStatus("ERROR");
@@ -235,7 +483,8 @@ public class TestGenerationService {
 
             ConversationContext conversationContext = contextOpt.get();
 
-            Optional<PromptContext> promptContextOpt = memoryRepository.findBySessionId(conversationContext.getSessionId());
+            Optional<PromptContext> promptContextOpt = trace.time(Stage.MEMORY_LOOKUP,
+                    () -> memoryRepository.findBySessionId(conversationContext.getSessionId()));
             if (promptContextOpt.isEmpty()) {
                 TestGenerationResult errorResult = new TestGenerationResult();
                 errorResult.setStatus("ERROR");
@@ -245,14 +494,22 @@ public class TestGenerationService {
 
             PromptContext context = promptContextOpt.get();
             String systemPrompt = promptLoader.loadSystemPrompt();
-            String refinementPrompt = promptRefiner.refinePrompt(context, refinementInstructions);
-
-            TestGenerationResult result = openAiClient.refineTestsWithMemory(systemPrompt, refinementPrompt, conversationId);
+            String refinementPrompt = trace.time(Stage.PROMPT_BUILD,
+                    () -> promptRefiner.refinePrompt(context, refinementInstructions));
+            GenerationEstimate estimate = tokenBudgetService.enforceBudget(systemPrompt, refinementPrompt,
+                    conversationContext.getSessionId());
+            ModelRoute route = modelRouter.route(context.getClassSourceCode());
+            trace.route(route);
+
+            TestGenerationResult result = tokenQuotaService.execute(context, estimate.getTotalTokens(),
+                    () -> requestScheduler.execute(conversationContext.getUserId(), RequestPriority.INTERACTIVE,
+                            () -> openAiClient.refineTestsWithMemory(systemPrompt, refinementPrompt, conversationId, route)));
             result.setSessionId(conversationContext.getSessionId());
             result.setConversationId(conversationId);
 
             // Track conversation metrics
             conversationService.incrementMessageCount(conversationId);
+            summarizationService.summarizeIfNeeded(conversationId, conversationContext.getUserId());
 
             context.addToHistory(ConversationMessage.userMessage(conversationId, refinementInstructions));
             if (result.getGeneratedTest() != null) {
@@ -260,9 +517,9 @@ public class TestGenerationService {
                         "Refined test class: " + result.getTestClass().getClassName()));
             }
 
-            if ("SUCCESS".equals(result.getStatus()) && testResultProcessor.isValidTestResult(result)) {
+            if ("SUCCESS".equals(result.getStatus()) && isValidTestResult(trace, result)) {
                 try {
-                    testFileManager.saveGeneratedTest(result);
+                    saveGeneratedTest(trace, result);
                 } catch (Exception e) {
                     logger.warn("Failed to save refined test file for conversation: {}", conversationId, e);
                 }
@@ -270,12 +527,16 @@ public class TestGenerationService {
 
             return result;
 
+        } catch (GenerationRejectedException e) {
+            throw e;
         } catch (Exception e) {
             logger.error("Error refining tests with memory for conversation: {}", conversationId, e);
             TestGenerationResult errorResult = new TestGenerationResult();
             errorResult.setStatus("ERROR");
             errorResult.setErrorMessage("Failed to refine tests: " + e.getMessage());
             return errorResult;
+        } finally {
+            trace.finish();
         }
     }
 
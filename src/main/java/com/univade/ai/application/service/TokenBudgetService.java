@@ -0,0 +1,95 @@
+package com.univade.ai.application.service;
+
+import com.univade.ai.domain.exception.TokenBudgetExceededException;
+import com.univade.ai.domain.model.GenerationEstimate;
+import com.univade.ai.domain.model.PromptContext;
+import com.univade.ai.domain.service.PromptRefiner;
+import com.univade.ai.domain.service.SourceCompactor;
+import com.univade.ai.infrastructure.ai.TokenEstimator;
+import com.univade.ai.infrastructure.prompt.PromptLoader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+@Service
+public class TokenBudgetService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenBudgetService.class);
+
+    private final TokenEstimator tokenEstimator;
+    private final PromptLoader promptLoader;
+    private final PromptRefiner promptRefiner;
+    private final SourceCompactor sourceCompactor;
+
+    @Value("${testgen.budget.max-input-tokens:60000}")
+    private int maxInputTokens;
+
+    @Value("${testgen.budget.max-total-tokens:80000}")
+    private int maxTotalTokens;
+
+    @Value("${spring.ai.openai.chat.options.max-tokens:8000}")
+    private int maxOutputTokens;
+
+    @Value("${testgen.estimate.output-ratio:2.5}")
+    private double outputRatio;
+
+    @Value("${testgen.estimate.min-output-tokens:1500}")
+    private int minOutputTokens;
+
+    @Value("${testgen.estimate.first-token-latency-ms:800}")
+    private long firstTokenLatencyMs;
+
+    @Value("${testgen.estimate.output-tokens-per-second:60}")
+    private double outputTokensPerSecond;
+
+    public TokenBudgetService(TokenEstimator tokenEstimator,
+                              PromptLoader promptLoader,
+                              PromptRefiner promptRefiner,
+                              SourceCompactor sourceCompactor) {
+        this.tokenEstimator = tokenEstimator;
+        this.promptLoader = promptLoader;
+        this.promptRefiner = promptRefiner;
+        this.sourceCompactor = sourceCompactor;
+    }
+
+    public GenerationEstimate estimate(PromptContext context) {
+        GenerationEstimate estimate = estimate(promptLoader.loadSystemPrompt(), promptRefiner.buildUserPrompt(context));
+        if (context.getClassSourceCode() != null && !context.getClassSourceCode().isBlank()) {
+            estimate.setCompactionReport(sourceCompactor.report(context.getClassSourceCode()));
+        }
+        return estimate;
+    }
+
+    public GenerationEstimate estimate(String systemPrompt, String userPrompt) {
+        GenerationEstimate estimate = new GenerationEstimate();
+        estimate.setSystemPromptTokens(tokenEstimator.countSystemPrompt(systemPrompt));
+        estimate.setUserPromptTokens(tokenEstimator.count(userPrompt));
+
+        int outputTokens = (int) Math.min(maxOutputTokens,
+                Math.max(minOutputTokens, estimate.getUserPromptTokens() * outputRatio));
+        estimate.setEstimatedOutputTokens(outputTokens);
+        estimate.setEstimatedLatencyMs(firstTokenLatencyMs + (long) (outputTokens * 1000 / outputTokensPerSecond));
+        estimate.setMaxInputTokens(maxInputTokens);
+        estimate.setMaxTotalTokens(maxTotalTokens);
+        return estimate;
+    }
+
+    public int countTokens(String text) {
+        return tokenEstimator.count(text);
+    }
+
+    public GenerationEstimate enforceBudget(String systemPrompt, String userPrompt, String sessionId) {
+        GenerationEstimate estimate = estimate(systemPrompt, userPrompt);
+        if (!estimate.isWithinBudget()) {
+            logger.warn("Rejecting request for session {}: {} input / {} total tokens exceeds budget of {} / {}",
+                    sessionId, estimate.getInputTokens(), estimate.getTotalTokens(), maxInputTokens, maxTotalTokens);
+            throw new TokenBudgetExceededException("Request exceeds token budget: " + estimate.getInputTokens()
+                    + " input tokens (max " + maxInputTokens + "), " + estimate.getTotalTokens()
+                    + " estimated total tokens (max " + maxTotalTokens + ")", sessionId);
+        }
+        logger.debug("Estimated {} input and {} output tokens for session: {}",
+                estimate.getInputTokens(), estimate.getEstimatedOutputTokens(), sessionId);
+        return estimate;
+    }
+}
@@ -0,0 +1,354 @@
+package com.univade.ai.application.service;
+
+import com.univade.ai.domain.exception.TokenQuotaExceededException;
+import com.univade.ai.domain.model.PromptContext;
+import com.univade.ai.domain.model.TestGenerationResult;
+import com.univade.ai.domain.model.TokenUsage;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+@Service
+public class TokenQuotaService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenQuotaService.class);
+
+    private final ConversationService conversationService;
+    private final boolean enabled;
+    private final long windowMs;
+    private final long bucketMs;
+    private final int bucketCount;
+    private final long defaultLimit;
+    private final long maxWaitMs;
+    private final Map<String, Long> userLimits;
+    private final Clock clock;
+
+    private final Map<String, UsageWindow> windows = new ConcurrentHashMap<>();
+    private final AtomicLong globalTotal = new AtomicLong();
+    private final Counter rejections;
+    private final Counter waits;
+    private final Counter evictions;
+
+    @Autowired
+    public TokenQuotaService(ConversationService conversationService,
+                             MeterRegistry meterRegistry,
+                             @Value("${testgen.quota.enabled:true}") boolean enabled,
+                             @Value("${testgen.quota.window-minutes:60}") long windowMinutes,
+                             @Value("${testgen.quota.buckets:60}") int buckets,
+                             @Value("${testgen.quota.tokens-per-user:1000000}") long defaultLimit,
+                             @Value("${testgen.quota.user-limits:}") String userLimits,
+                             @Value("${testgen.quota.max-wait-ms:0}") long maxWaitMs) {
+        this(conversationService, meterRegistry, enabled, windowMinutes, buckets, defaultLimit, userLimits, maxWaitMs,
+                Clock.systemUTC());
+    }
+
+    TokenQuotaService(ConversationService conversationService, MeterRegistry meterRegistry, boolean enabled,
+                      long windowMinutes, int buckets, long defaultLimit, String userLimits, long maxWaitMs,
+                      Clock clock) {
+        this.conversationService = conversationService;
+        this.clock = clock;
+        this.enabled = enabled;
+        this.windowMs = TimeUnit.MINUTES.toMillis(Math.max(1, windowMinutes));
+        this.bucketCount = Math.max(1, buckets);
+        this.bucketMs = Math.max(1, this.windowMs / this.bucketCount);
+        this.defaultLimit = defaultLimit;
+        this.maxWaitMs = Math.max(0, maxWaitMs);
+        this.userLimits = parseLimits(userLimits);
+
+        this.rejections = Counter.builder("testgen.quota.rejections").register(meterRegistry);
+        this.waits = Counter.builder("testgen.quota.waits").register(meterRegistry);
+        this.evictions = Counter.builder("testgen.quota.evictions").register(meterRegistry);
+        Gauge.builder("testgen.quota.tokens.total", globalTotal, AtomicLong::get)
+                .baseUnit("tokens")
+                .register(meterRegistry);
+        Gauge.builder("testgen.quota.users", windows, Map::size).register(meterRegistry);
+    }
+
+    /**
+     * Reserves the estimated tokens against the user's rolling window, waits up to {@code max-wait-ms}
+     * for room, then runs the call and settles the reservation against the usage the model reported.
+     */
+    public TestGenerationResult execute(PromptContext context, long estimatedTokens,
+                                        Supplier<TestGenerationResult> call) {
+        Reservation reservation = reserve(context.getUserId(), estimatedTokens, context.getSessionId());
+        TokenUsage usage = null;
+        try {
+            TestGenerationResult result = call.get();
+            usage = result != null ? result.getTokenUsage() : null;
+            return result;
+        } finally {
+            settle(reservation, context.getConversationId(), usage != null ? usage.getTotalTokens() : 0);
+        }
+    }
+
+    /**
+     * Charges the estimate to the user's current bucket, waiting up to {@code max-wait-ms} for room.
+     * The returned reservation must be {@linkplain #settle settled} once the actual usage is known.
+     */
+    public Reservation reserve(String userId, long estimatedTokens, String sessionId) {
+        String user = userId(userId);
+        if (!enabled) {
+            return new Reservation(null, 0, estimatedTokens);
+        }
+
+        long limit = limitFor(user);
+        if (estimatedTokens > limit) {
+            rejections.increment();
+            throw new TokenQuotaExceededException("Request needs about " + estimatedTokens
+                    + " tokens, more than the quota of " + limit + " tokens per window", user, sessionId, windowMs);
+        }
+
+        long deadline = clock.millis() + maxWaitMs;
+        boolean waited = false;
+        while (true) {
+            UsageWindow window = window(user);
+            long now = clock.millis();
+            long retryAfterMs = window.tryReserve(estimatedTokens, limit, now);
+            if (retryAfterMs == 0) {
+                return new Reservation(window, bucketStart(now), estimatedTokens);
+            }
+            if (retryAfterMs == UsageWindow.RETIRED) {
+                continue;
+            }
+
+            long remaining = deadline - clock.millis();
+            if (retryAfterMs > remaining) {
+                rejections.increment();
+                logger.warn("Rejecting request for user {}: token quota of {} per {} minutes used up",
+                        user, limit, TimeUnit.MILLISECONDS.toMinutes(windowMs));
+                throw new TokenQuotaExceededException("Token quota of " + limit + " tokens per "
+                        + TimeUnit.MILLISECONDS.toMinutes(windowMs) + " minutes exceeded for user " + user,
+                        user, sessionId, retryAfterMs);
+            }
+
+            if (!waited) {
+                waits.increment();
+                waited = true;
+            }
+            try {
+                TimeUnit.MILLISECONDS.sleep(retryAfterMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new TokenQuotaExceededException("Interrupted while waiting for token quota",
+                        user, sessionId, retryAfterMs);
+            }
+        }
+    }
+
+    /**
+     * Replaces the reserved estimate with the actual usage in the bucket the estimate was charged to,
+     * so a call that spans a bucket boundary does not move tokens between buckets. Once that bucket
+     * has left the window the estimate no longer counts and there is nothing to correct.
+     */
+    public void settle(Reservation reservation, String conversationId, long actualTokens) {
+        if (reservation.window != null) {
+            reservation.window.adjust(reservation.bucketStart, actualTokens - reservation.tokens);
+        }
+        record(conversationId, actualTokens);
+    }
+
+    /** Charges usage that had no reservation, such as a background summary, to the current bucket. */
+    public void charge(String userId, String conversationId, long tokens) {
+        String user = userId(userId);
+        if (enabled) {
+            long now = clock.millis();
+            while (!window(user).add(tokens, now)) {
+                // Retired by the idle sweep in the meantime; the next lookup creates a fresh window.
+            }
+        }
+        record(conversationId, tokens);
+    }
+
+    private void record(String conversationId, long actualTokens) {
+        if (actualTokens <= 0) {
+            return;
+        }
+
+        globalTotal.addAndGet(actualTokens);
+        if (conversationId != null) {
+            conversationService.addTokens(conversationId, (int) Math.min(Integer.MAX_VALUE, actualTokens));
+        }
+    }
+
+    public long getWindowTokens(String userId) {
+        UsageWindow window = windows.get(userId(userId));
+        return window != null ? window.used(clock.millis()) : 0;
+    }
+
+    public long getGlobalTokens() {
+        return globalTotal.get();
+    }
+
+    /**
+     * Drops the windows of users with no usage left inside the window, so memory follows the users
+     * active in the last window rather than every user id ever seen.
+     */
+    @Scheduled(fixedDelayString = "${testgen.quota.sweep-interval-ms:60000}",
+               initialDelayString = "${testgen.quota.sweep-interval-ms:60000}")
+    public int evictIdleWindows() {
+        long now = clock.millis();
+        int evicted = 0;
+        for (Map.Entry<String, UsageWindow> entry : windows.entrySet()) {
+            if (entry.getValue().retireIfIdle(now) && windows.remove(entry.getKey(), entry.getValue())) {
+                evicted++;
+            }
+        }
+        evictions.increment(evicted);
+        if (evicted > 0) {
+            logger.debug("Evicted {} idle token quota windows", evicted);
+        }
+        return evicted;
+    }
+
+    int getTrackedUsers() {
+        return windows.size();
+    }
+
+    private UsageWindow window(String userId) {
+        return windows.computeIfAbsent(userId, key -> new UsageWindow());
+    }
+
+    private long bucketStart(long now) {
+        return now - Math.floorMod(now, bucketMs);
+    }
+
+    private long limitFor(String userId) {
+        return userLimits.getOrDefault(userId, defaultLimit);
+    }
+
+    private String userId(String userId) {
+        return userId != null ? userId : PromptContext.DEFAULT_USER_ID;
+    }
+
+    private static Map<String, Long> parseLimits(String limits) {
+        Map<String, Long> parsed = new HashMap<>();
+        if (limits == null || limits.isBlank()) {
+            return parsed;
+        }
+        for (String entry : limits.split(",")) {
+            String[] parts = entry.trim().split(":");
+            if (parts.length == 2) {
+                parsed.put(parts[0].trim(), Long.parseLong(parts[1].trim()));
+            }
+        }
+        return parsed;
+    }
+
+    /** Tokens reserved in one bucket of one user's window, to be settled against the actual usage. */
+    public static final class Reservation {
+        private final UsageWindow window;
+        private final long bucketStart;
+        private final long tokens;
+
+        private Reservation(UsageWindow window, long bucketStart, long tokens) {
+            this.window = window;
+            this.bucketStart = bucketStart;
+            this.tokens = tokens;
+        }
+    }
+
+    /**
+     * Token usage over the last window, kept in fixed time buckets so each check is O(buckets)
+     * regardless of how many calls the user made.
+     */
+    private final class UsageWindow {
+        /** Returned by {@link #tryReserve} once the window was evicted; the caller looks it up again. */
+        static final long RETIRED = -1;
+
+        private final long[] bucketStarts = new long[bucketCount];
+        private final long[] bucketTokens = new long[bucketCount];
+        private boolean retired;
+
+        synchronized long tryReserve(long tokens, long limit, long now) {
+            if (retired) {
+                return RETIRED;
+            }
+            long used = used(now);
+            if (used + tokens <= limit) {
+                add(tokens, now);
+                return 0;
+            }
+
+            // Walk buckets oldest first until enough tokens would have aged out of the window.
+            long excess = used + tokens - limit;
+            long cutoff = now - windowMs;
+            int[] live = IntStream.range(0, bucketCount)
+                    .filter(i -> bucketStarts[i] > cutoff)
+                    .boxed()
+                    .sorted(Comparator.comparingLong(i -> bucketStarts[i]))
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+            long freed = 0;
+            for (int index : live) {
+                freed += bucketTokens[index];
+                if (freed >= excess) {
+                    return Math.max(1, bucketStarts[index] + windowMs - now + 1);
+                }
+            }
+            return windowMs;
+        }
+
+        synchronized boolean add(long tokens, long now) {
+            if (retired) {
+                return false;
+            }
+            long start = bucketStart(now);
+            int index = index(start);
+            if (bucketStarts[index] != start) {
+                bucketStarts[index] = start;
+                bucketTokens[index] = 0;
+            }
+            bucketTokens[index] += tokens;
+            return true;
+        }
+
+        synchronized void adjust(long start, long tokens) {
+            int index = index(start);
+            if (!retired && bucketStarts[index] == start) {
+                bucketTokens[index] += tokens;
+            }
+        }
+
+        private int index(long start) {
+            return (int) Math.floorMod(start / bucketMs, (long) bucketCount);
+        }
+
+        synchronized boolean retireIfIdle(long now) {
+            long cutoff = now - windowMs;
+            for (long bucketStart : bucketStarts) {
+                if (bucketStart > cutoff) {
+                    return false;
+                }
+            }
+            retired = true;
+            return true;
+        }
+
+        synchronized long used(long now) {
+            long cutoff = now - windowMs;
+            long used = 0;
+            for (int i = 0; i < bucketCount; i++) {
+                if (bucketStarts[i] > cutoff) {
+                    used += bucketTokens[i];
+                }
+            }
+            return Math.max(0, used);
+        }
+    }
+}
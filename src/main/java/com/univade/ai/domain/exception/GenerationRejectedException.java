@@ -0,0 +1,26 @@
+package com.univade.ai.domain.exception;
+
+/**
+ * A request turned away before reaching the model: over its token budget or quota, or shed because
+ * the service or the model endpoint is at capacity. These propagate to the web layer instead of being
+ * turned into an ERROR result, so callers get a status they can act on.
+ */
+public abstract class GenerationRejectedException extends TestGenerationException {
+
+    private final long retryAfterMs;
+
+    protected GenerationRejectedException(String message, String sessionId, long retryAfterMs) {
+        super(message, sessionId);
+        this.retryAfterMs = retryAfterMs;
+    }
+
+    protected GenerationRejectedException(String message, Throwable cause, long retryAfterMs) {
+        super(message, cause);
+        this.retryAfterMs = retryAfterMs;
+    }
+
+    /** How long the caller should wait before retrying, or 0 when retrying will not help. */
+    public long getRetryAfterMs() {
+        return retryAfterMs;
+    }
+}
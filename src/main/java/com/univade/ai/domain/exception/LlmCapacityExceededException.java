@@ -0,0 +1,14 @@
+package com.univade.ai.domain.exception;
+
+public class LlmCapacityExceededException extends GenerationRejectedException {
+
+    private static final long DEFAULT_RETRY_AFTER_MS = 5000;
+
+    public LlmCapacityExceededException(String message) {
+        super(message, (String) null, DEFAULT_RETRY_AFTER_MS);
+    }
+
+    public LlmCapacityExceededException(String message, Throwable cause) {
+        super(message, cause, DEFAULT_RETRY_AFTER_MS);
+    }
+}
@@ -0,0 +1,8 @@
+package com.univade.ai.domain.exception;
+
+public class LlmUnavailableException extends GenerationRejectedException {
+
+    public LlmUnavailableException(String message, long retryAfterMs) {
+        super(message, (String) null, retryAfterMs);
+    }
+}
@@ -0,0 +1,8 @@
+package com.univade.ai.domain.exception;
+
+public class TokenBudgetExceededException extends GenerationRejectedException {
+
+    public TokenBudgetExceededException(String message, String sessionId) {
+        super(message, sessionId, 0);
+    }
+}
@@ -0,0 +1,15 @@
+package com.univade.ai.domain.exception;
+
+public class TokenQuotaExceededException extends GenerationRejectedException {
+
+    private final String userId;
+
+    public TokenQuotaExceededException(String message, String userId, String sessionId, long retryAfterMs) {
+        super(message, sessionId, retryAfterMs);
+        this.userId = userId;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+}
@@ -0,0 +1,49 @@
+package com.univade.ai.domain.model;
+
+import com.univade.ai.domain.value.TargetLayer;
+
+public class ClassComplexity {
+    private String className;
+    private TargetLayer targetLayer;
+    private int methodCount;
+    private int cyclomaticComplexity;
+    private int dependencyCount;
+    private boolean parsed;
+
+    public ClassComplexity() {}
+
+    public static ClassComplexity unknown() {
+        ClassComplexity complexity = new ClassComplexity();
+        complexity.setParsed(false);
+        return complexity;
+    }
+
+    public String getClassName() { return className; }
+    public void setClassName(String className) { this.className = className; }
+
+    public TargetLayer getTargetLayer() { return targetLayer; }
+    public void setTargetLayer(TargetLayer targetLayer) { this.targetLayer = targetLayer; }
+
+    public int getMethodCount() { return methodCount; }
+    public void setMethodCount(int methodCount) { this.methodCount = methodCount; }
+
+    public int getCyclomaticComplexity() { return cyclomaticComplexity; }
+    public void setCyclomaticComplexity(int cyclomaticComplexity) { this.cyclomaticComplexity = cyclomaticComplexity; }
+
+    public int getDependencyCount() { return dependencyCount; }
+    public void setDependencyCount(int dependencyCount) { this.dependencyCount = dependencyCount; }
+
+    public boolean isParsed() { return parsed; }
+    public void setParsed(boolean parsed) { this.parsed = parsed; }
+
+    @Override
+    public String toString() {
+        return "ClassComplexity{" +
+                "className='" + className + '\'' +
+                ", targetLayer=" + targetLayer +
+                ", methodCount=" + methodCount +
+                ", cyclomaticComplexity=" + cyclomaticComplexity +
+                ", dependencyCount=" + dependencyCount +
+                '}';
+    }
+}
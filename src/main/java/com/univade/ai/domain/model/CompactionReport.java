@@ -0,0 +1,35 @@
+package com.univade.ai.domain.model;
+
+import com.univade.ai.domain.value.CompactionLevel;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+public class CompactionReport {
+    private int originalTokens;
+    private final Map<CompactionLevel, Integer> tokensByLevel = new EnumMap<>(CompactionLevel.class);
+
+    public CompactionReport(int originalTokens) {
+        this.originalTokens = originalTokens;
+        this.tokensByLevel.put(CompactionLevel.NONE, originalTokens);
+    }
+
+    public void recordLevel(CompactionLevel level, int tokens) {
+        tokensByLevel.put(level, tokens);
+    }
+
+    public int getOriginalTokens() { return originalTokens; }
+
+    public Map<CompactionLevel, Integer> getTokensByLevel() { return tokensByLevel; }
+
+    public int getSavedTokens(CompactionLevel level) {
+        Integer tokens = tokensByLevel.get(level);
+        return tokens != null ? originalTokens - tokens : 0;
+    }
+
+    public Map<CompactionLevel, Integer> getSavedTokensByLevel() {
+        Map<CompactionLevel, Integer> saved = new EnumMap<>(CompactionLevel.class);
+        tokensByLevel.forEach((level, tokens) -> saved.put(level, originalTokens - tokens));
+        return saved;
+    }
+}
@@ -1,8 +1,11 @@
 package com.univade.ai.domain.model;
 
 import java.time.LocalDateTime;
-import java.util.HashMap;
+import java.time.ZoneId;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 public class ConversationContext {
     
@@ -11,19 +14,18 @@ public class ConversationContext {
     private String sessionId;
     private LocalDateTime startedAt;
     private LocalDateTime lastInteractionAt;
-    private ConversationStatus status;
+    private volatile long lastInteractionMillis;
+    private final AtomicReference<ConversationStatus> status = new AtomicReference<>(ConversationStatus.ACTIVE);
     private Map<String, Object> metadata;
-    private ConversationSummary summary;
-    private int messageCount;
-    private int totalTokens;
+    private volatile ConversationSummary summary;
+    private final AtomicInteger messageCount = new AtomicInteger();
+    private final AtomicInteger totalTokens = new AtomicInteger();
 
     public ConversationContext() {
-        this.metadata = new HashMap<>();
-        this.status = ConversationStatus.ACTIVE;
+        this.metadata = new ConcurrentHashMap<>();
         this.startedAt = LocalDateTime.now();
         this.lastInteractionAt = LocalDateTime.now();
-        this.messageCount = 0;
-        this.totalTokens = 0;
+        this.lastInteractionMillis = System.currentTimeMillis();
     }
 
     public ConversationContext(String conversationId, String userId, String sessionId) {
@@ -33,43 +35,63 @@ public class ConversationContext {
         this.sessionId = sessionId;
     }
 
-    
-    public void markActive() {
-        this.status = ConversationStatus.ACTIVE;
-        this.lastInteractionAt = LocalDateTime.now();
+    /**
+     * Status changes return the previous status so callers can keep counts per status without
+     * rescanning. An archived conversation stays archived.
+     */
+    public ConversationStatus markActive() {
+        touch();
+        return transitionTo(ConversationStatus.ACTIVE);
     }
 
-    
-    public void markInactive() {
-        this.status = ConversationStatus.INACTIVE;
+    public ConversationStatus markInactive() {
+        return transitionTo(ConversationStatus.INACTIVE);
     }
 
-    
-    public void markCompleted() {
-        this.status = ConversationStatus.COMPLETED;
+    public ConversationStatus markCompleted() {
+        return transitionTo(ConversationStatus.COMPLETED);
+    }
+
+    public ConversationStatus markArchived() {
+        return status.getAndSet(ConversationStatus.ARCHIVED);
+    }
+
+    private ConversationStatus transitionTo(ConversationStatus next) {
+        while (true) {
+            ConversationStatus current = status.get();
+            if (current == ConversationStatus.ARCHIVED || status.compareAndSet(current, next)) {
+                return current;
+            }
+        }
     }
 
-   
     public void addMetadata(String key, Object value) {
-        this.metadata.put(key, value);
+        if (value == null) {
+            this.metadata.remove(key);
+        } else {
+            this.metadata.put(key, value);
+        }
     }
 
-    public void incrementMessageCount() {
-        this.messageCount++;
-        this.lastInteractionAt = LocalDateTime.now();
+    public int incrementMessageCount() {
+        touch();
+        return this.messageCount.incrementAndGet();
     }
 
-   
-    public void addTokens(int tokens) {
-        this.totalTokens += tokens;
+    public int addTokens(int tokens) {
+        return this.totalTokens.addAndGet(tokens);
     }
 
-    
     public boolean isActive() {
-        return ConversationStatus.ACTIVE.equals(this.status);
+        return ConversationStatus.ACTIVE.equals(this.status.get());
     }
 
     
+    private void touch() {
+        this.lastInteractionAt = LocalDateTime.now();
+        this.lastInteractionMillis = System.currentTimeMillis();
+    }
+
     public boolean isInactiveFor(long inactiveThresholdMinutes) {
         return lastInteractionAt.isBefore(LocalDateTime.now().minusMinutes(inactiveThresholdMinutes));
     }
@@ -112,14 +134,19 @@ public class ConversationContext {
 
     public void setLastInteractionAt(LocalDateTime lastInteractionAt) {
         this.lastInteractionAt = lastInteractionAt;
+        this.lastInteractionMillis = lastInteractionAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    public long getLastInteractionMillis() {
+        return lastInteractionMillis;
     }
 
     public ConversationStatus getStatus() {
-        return status;
+        return status.get();
     }
 
     public void setStatus(ConversationStatus status) {
-        this.status = status;
+        this.status.set(status);
     }
 
     public Map<String, Object> getMetadata() {
@@ -127,7 +154,7 @@ public class ConversationContext {
     }
 
     public void setMetadata(Map<String, Object> metadata) {
-        this.metadata = metadata;
+        this.metadata = metadata != null ? new ConcurrentHashMap<>(metadata) : new ConcurrentHashMap<>();
     }
 
     public ConversationSummary getSummary() {
@@ -139,19 +166,19 @@ public class ConversationContext {
     }
 
     public int getMessageCount() {
-        return messageCount;
+        return messageCount.get();
     }
 
     public void setMessageCount(int messageCount) {
-        this.messageCount = messageCount;
+        this.messageCount.set(messageCount);
     }
 
     public int getTotalTokens() {
-        return totalTokens;
+        return totalTokens.get();
     }
 
     public void setTotalTokens(int totalTokens) {
-        this.totalTokens = totalTokens;
+        this.totalTokens.set(totalTokens);
     }
 
     @Override
@@ -160,9 +187,9 @@ public class ConversationContext {
                 "conversationId='" + conversationId + '\'' +
                 ", userId='" + userId + '\'' +
                 ", sessionId='" + sessionId + '\'' +
-                ", status=" + status +
-                ", messageCount=" + messageCount +
-                ", totalTokens=" + totalTokens +
+                ", status=" + status.get() +
+                ", messageCount=" + messageCount.get() +
+                ", totalTokens=" + totalTokens.get() +
                 ", startedAt=" + startedAt +
                 ", lastInteractionAt=" + lastInteractionAt +
                 '}';
@@ -0,0 +1,46 @@
+package com.univade.ai.domain.model;
+
+public class GenerationEstimate {
+    private int systemPromptTokens;
+    private int userPromptTokens;
+    private int estimatedOutputTokens;
+    private long estimatedLatencyMs;
+    private int maxInputTokens;
+    private int maxTotalTokens;
+    private CompactionReport compactionReport;
+
+    public GenerationEstimate() {}
+
+    public int getSystemPromptTokens() { return systemPromptTokens; }
+    public void setSystemPromptTokens(int systemPromptTokens) { this.systemPromptTokens = systemPromptTokens; }
+
+    public int getUserPromptTokens() { return userPromptTokens; }
+    public void setUserPromptTokens(int userPromptTokens) { this.userPromptTokens = userPromptTokens; }
+
+    public int getEstimatedOutputTokens() { return estimatedOutputTokens; }
+    public void setEstimatedOutputTokens(int estimatedOutputTokens) { this.estimatedOutputTokens = estimatedOutputTokens; }
+
+    public long getEstimatedLatencyMs() { return estimatedLatencyMs; }
+    public void setEstimatedLatencyMs(long estimatedLatencyMs) { this.estimatedLatencyMs = estimatedLatencyMs; }
+
+    public int getMaxInputTokens() { return maxInputTokens; }
+    public void setMaxInputTokens(int maxInputTokens) { this.maxInputTokens = maxInputTokens; }
+
+    public int getMaxTotalTokens() { return maxTotalTokens; }
+    public void setMaxTotalTokens(int maxTotalTokens) { this.maxTotalTokens = maxTotalTokens; }
+
+    public CompactionReport getCompactionReport() { return compactionReport; }
+    public void setCompactionReport(CompactionReport compactionReport) { this.compactionReport = compactionReport; }
+
+    public int getInputTokens() {
+        return systemPromptTokens + userPromptTokens;
+    }
+
+    public int getTotalTokens() {
+        return getInputTokens() + estimatedOutputTokens;
+    }
+
+    public boolean isWithinBudget() {
+        return getInputTokens() <= maxInputTokens && getTotalTokens() <= maxTotalTokens;
+    }
+}
@@ -0,0 +1,87 @@
+package com.univade.ai.domain.model;
+
+import com.univade.ai.domain.value.RequestPriority;
+
+import java.time.LocalDateTime;
+
+public class GenerationJob {
+    private String id;
+    private JobStatus status;
+    private String sessionId;
+    private String conversationId;
+    private String userInput;
+    private String classSourceCode;
+    private String userId;
+    private RequestPriority priority;
+    private TestGenerationResult result;
+    private String errorMessage;
+    private int attempts;
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private LocalDateTime notBefore;
+
+    public GenerationJob() {}
+
+    public GenerationJob(String id, String sessionId, String conversationId, String userInput, String classSourceCode,
+                         String userId, RequestPriority priority) {
+        this.id = id;
+        this.status = JobStatus.QUEUED;
+        this.sessionId = sessionId;
+        this.conversationId = conversationId;
+        this.userInput = userInput;
+        this.classSourceCode = classSourceCode;
+        this.userId = userId;
+        this.priority = priority;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public JobStatus getStatus() { return status; }
+    public void setStatus(JobStatus status) { this.status = status; }
+
+    public String getSessionId() { return sessionId; }
+    public void setSessionId(String sessionId) { this.sessionId = sessionId; }
+
+    public String getConversationId() { return conversationId; }
+    public void setConversationId(String conversationId) { this.conversationId = conversationId; }
+
+    public String getUserInput() { return userInput; }
+    public void setUserInput(String userInput) { this.userInput = userInput; }
+
+    public String getClassSourceCode() { return classSourceCode; }
+    public void setClassSourceCode(String classSourceCode) { this.classSourceCode = classSourceCode; }
+
+    public String getUserId() { return userId; }
+    public void setUserId(String userId) { this.userId = userId; }
+
+    public RequestPriority getPriority() { return priority; }
+    public void setPriority(RequestPriority priority) { this.priority = priority; }
+
+    public TestGenerationResult getResult() { return result; }
+    public void setResult(TestGenerationResult result) { this.result = result; }
+
+    public String getErrorMessage() { return errorMessage; }
+    public void setErrorMessage(String errorMessage) { this.errorMessage = errorMessage; }
+
+    public int getAttempts() { return attempts; }
+    public void setAttempts(int attempts) { this.attempts = attempts; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public void setStartedAt(LocalDateTime startedAt) { this.startedAt = startedAt; }
+
+    public LocalDateTime getFinishedAt() { return finishedAt; }
+    public void setFinishedAt(LocalDateTime finishedAt) { this.finishedAt = finishedAt; }
+
+    public LocalDateTime getNotBefore() { return notBefore; }
+    public void setNotBefore(LocalDateTime notBefore) { this.notBefore = notBefore; }
+
+    public boolean isContinuingConversation() {
+        return conversationId != null && !conversationId.trim().isEmpty();
+    }
+}
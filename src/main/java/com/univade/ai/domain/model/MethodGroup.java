@@ -0,0 +1,27 @@
+package com.univade.ai.domain.model;
+
+import java.util.List;
+
+public class MethodGroup {
+    private final int index;
+    private final List<String> methodNames;
+    private final String sourceCode;
+
+    public MethodGroup(int index, List<String> methodNames, String sourceCode) {
+        this.index = index;
+        this.methodNames = List.copyOf(methodNames);
+        this.sourceCode = sourceCode;
+    }
+
+    public int getIndex() { return index; }
+    public List<String> getMethodNames() { return methodNames; }
+    public String getSourceCode() { return sourceCode; }
+
+    @Override
+    public String toString() {
+        return "MethodGroup{" +
+                "index=" + index +
+                ", methodNames=" + methodNames +
+                '}';
+    }
+}
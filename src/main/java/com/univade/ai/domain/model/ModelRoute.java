@@ -0,0 +1,36 @@
+package com.univade.ai.domain.model;
+
+import com.univade.ai.domain.value.TargetLayer;
+
+public class ModelRoute {
+    private final String tier;
+    private final String model;
+    private final int maxTokens;
+    private final int score;
+    private final TargetLayer targetLayer;
+
+    public ModelRoute(String tier, String model, int maxTokens, int score, TargetLayer targetLayer) {
+        this.tier = tier;
+        this.model = model;
+        this.maxTokens = maxTokens;
+        this.score = score;
+        this.targetLayer = targetLayer;
+    }
+
+    public String getTier() { return tier; }
+    public String getModel() { return model; }
+    public int getMaxTokens() { return maxTokens; }
+    public int getScore() { return score; }
+    public TargetLayer getTargetLayer() { return targetLayer; }
+
+    @Override
+    public String toString() {
+        return "ModelRoute{" +
+                "tier='" + tier + '\'' +
+                ", model='" + model + '\'' +
+                ", maxTokens=" + maxTokens +
+                ", score=" + score +
+                ", targetLayer=" + targetLayer +
+                '}';
+    }
+}
@@ -1,10 +1,14 @@
 package com.univade.ai.domain.model;
 
+import com.univade.ai.domain.value.RequestPriority;
+
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
 public class PromptContext {
+    public static final String DEFAULT_USER_ID = "default-user";
+
     private String sessionId;
     private String conversationId;
     private String userInput;
@@ -13,10 +17,14 @@ public class PromptContext {
     private List<ConversationMessage> conversationHistory;
     private ConversationSummary summary;
     private boolean useConversationMemory;
+    private String userId;
+    private RequestPriority priority;
 
     public PromptContext() {
         this.conversationHistory = new ArrayList<>();
         this.useConversationMemory = false;
+        this.userId = DEFAULT_USER_ID;
+        this.priority = RequestPriority.STANDARD;
     }
 
     public PromptContext(String sessionId, String userInput) {
@@ -104,6 +112,23 @@ public class PromptContext {
     public void setUseConversationMemory(boolean useConversationMemory) {
         this.useConversationMemory = useConversationMemory;
     }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId != null && !userId.trim().isEmpty() ? userId : DEFAULT_USER_ID;
+    }
+
+    public RequestPriority getPriority() {
+        return priority;
+    }
+
+    public void setPriority(RequestPriority priority) {
+        this.priority = priority != null ? priority : RequestPriority.STANDARD;
+    }
+
     public void addToHistory(ConversationMessage message) {
         if (this.conversationHistory == null) {
             this.conversationHistory = new ArrayList<>();
@@ -137,6 +162,8 @@ public class PromptContext {
         return "PromptContext{" +
                 "sessionId='" + sessionId + '\'' +
                 ", conversationId='" + conversationId + '\'' +
+                ", userId='" + userId + '\'' +
+                ", priority=" + priority +
                 ", useConversationMemory=" + useConversationMemory +
                 ", historySize=" + getConversationHistorySize() +
                 ", hasClassSourceCode=" + (classSourceCode != null && !classSourceCode.trim().isEmpty()) +
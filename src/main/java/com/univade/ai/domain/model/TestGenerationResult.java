@@ -1,5 +1,6 @@
 package com.univade.ai.domain.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import java.time.LocalDateTime;
@@ -20,6 +21,9 @@ public class TestGenerationResult {
     private LocalDateTime generatedAt;
     private String status;
     private String errorMessage;
+    private boolean stale;
+    @JsonIgnore
+    private TokenUsage tokenUsage;
 
     public TestGenerationResult() {
         this.generatedAt = LocalDateTime.now();
@@ -62,10 +66,32 @@ public class TestGenerationResult {
     public String getErrorMessage() { return errorMessage; }
     public void setErrorMessage(String errorMessage) { this.errorMessage = errorMessage; }
 
+    public boolean isStale() { return stale; }
+    public void setStale(boolean stale) { this.stale = stale; }
+
+    public TokenUsage getTokenUsage() { return tokenUsage; }
+    public void setTokenUsage(TokenUsage tokenUsage) { this.tokenUsage = tokenUsage; }
+
     public String getGeneratedTest() {
         return testClass != null ? testClass.getSourceCode() : null;
     }
 
+    public TestGenerationResult copyForSession(String sessionId) {
+        TestGenerationResult copy = new TestGenerationResult(sessionId);
+        copy.setConversationId(conversationId);
+        copy.setNewConversation(newConversation);
+        copy.setMetadata(metadata);
+        copy.setTestClass(testClass);
+        copy.setTestSummary(testSummary);
+        copy.setQualityChecklist(qualityChecklist);
+        copy.setGeneratedAt(generatedAt);
+        copy.setStatus(status);
+        copy.setErrorMessage(errorMessage);
+        copy.setStale(stale);
+        copy.setTokenUsage(tokenUsage);
+        return copy;
+    }
+
 
     @JsonIgnoreProperties(ignoreUnknown = true)
     public static class TestMetadata {
@@ -0,0 +1,43 @@
+package com.univade.ai.domain.model;
+
+public class TokenUsage {
+    private String model;
+    private int promptTokens;
+    private int completionTokens;
+    private int cachedPromptTokens;
+
+    public TokenUsage() {}
+
+    public TokenUsage(String model, int promptTokens, int completionTokens, int cachedPromptTokens) {
+        this.model = model;
+        this.promptTokens = promptTokens;
+        this.completionTokens = completionTokens;
+        this.cachedPromptTokens = cachedPromptTokens;
+    }
+
+    public String getModel() { return model; }
+    public void setModel(String model) { this.model = model; }
+
+    public int getPromptTokens() { return promptTokens; }
+    public void setPromptTokens(int promptTokens) { this.promptTokens = promptTokens; }
+
+    public int getCompletionTokens() { return completionTokens; }
+    public void setCompletionTokens(int completionTokens) { this.completionTokens = completionTokens; }
+
+    public int getCachedPromptTokens() { return cachedPromptTokens; }
+    public void setCachedPromptTokens(int cachedPromptTokens) { this.cachedPromptTokens = cachedPromptTokens; }
+
+    public int getTotalTokens() {
+        return promptTokens + completionTokens;
+    }
+
+    @Override
+    public String toString() {
+        return "TokenUsage{" +
+                "model='" + model + '\'' +
+                ", promptTokens=" + promptTokens +
+                ", cachedPromptTokens=" + cachedPromptTokens +
+                ", completionTokens=" + completionTokens +
+                '}';
+    }
+}
@@ -0,0 +1,19 @@
+package com.univade.ai.domain.repository;
+
+import com.univade.ai.domain.model.GenerationJob;
+import com.univade.ai.domain.model.JobStatus;
+import com.univade.ai.domain.model.TestGenerationResult;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface GenerationJobRepository {
+    void save(GenerationJob job);
+    Optional<GenerationJob> findById(String jobId);
+    Optional<GenerationJob> claimNext();
+    void complete(String jobId, TestGenerationResult result);
+    void fail(String jobId, String errorMessage);
+    void requeue(String jobId, LocalDateTime notBefore);
+    int requeueRunning();
+    int countByStatus(JobStatus status);
+}
@@ -1,47 +1,67 @@
 package com.univade.ai.domain.service;
 
+import com.univade.ai.domain.model.MethodGroup;
 import com.univade.ai.domain.model.PromptContext;
+import com.univade.ai.domain.value.CompactionLevel;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 @Service
 public class PromptRefiner {
 
+    private final SourceCompactor sourceCompactor;
+    private final CompactionLevel compactionLevel;
+
+    public PromptRefiner(SourceCompactor sourceCompactor,
+                         @Value("${testgen.prompt.compaction-level:STRIP_COMMENTS}") CompactionLevel compactionLevel) {
+        this.sourceCompactor = sourceCompactor;
+        this.compactionLevel = compactionLevel;
+    }
+
     public String buildUserPrompt(PromptContext context) {
         StringBuilder prompt = new StringBuilder();
         prompt.append("User Request: ").append(context.getUserInput()).append("\n\n");
 
         if (hasSourceCode(context)) {
             prompt.append("Class Source Code to Test:\n```java\n")
-                  .append(context.getClassSourceCode())
-                  .append("\n```\n\n")
-                  .append("Generate comprehensive unit tests for the provided class source code based on the user request. ");
-        } else {
-            prompt.append("Generate comprehensive unit tests based on this request. ")
-                  .append("Determine the appropriate component type and ");
+                  .append(compactSource(context))
+                  .append("\n```\n");
         }
 
-        prompt.append("Create production-ready tests using JUnit 5, Mockito, and AssertJ. ")
-              .append("Follow the JSON response format specified in the system prompt.");
+        return prompt.toString();
+    }
 
+    public String buildMethodGroupPrompt(PromptContext context, MethodGroup group) {
+        StringBuilder prompt = new StringBuilder();
+        prompt.append("User Request: ").append(context.getUserInput()).append("\n\n");
+        prompt.append("Only write tests for these methods: ")
+              .append(String.join(", ", group.getMethodNames()))
+              .append(". The remaining public methods were left out of the source below and are tested separately.\n\n");
+        prompt.append("Class Source Code to Test:\n```java\n")
+              .append(sourceCompactor.compact(group.getSourceCode(), compactionLevel))
+              .append("\n```\n");
         return prompt.toString();
     }
 
     public String refinePrompt(PromptContext context, String refinementInstructions) {
         StringBuilder prompt = new StringBuilder();
-        prompt.append("Refine the previously generated tests based on this feedback: ")
-              .append(refinementInstructions).append("\n\n")
-              .append("Original request: ").append(context.getUserInput()).append("\n\n");
+        prompt.append("Original request: ").append(context.getUserInput()).append("\n\n");
 
         if (hasSourceCode(context)) {
             prompt.append("Original Class Source Code:\n```java\n")
-                  .append(context.getClassSourceCode())
+                  .append(compactSource(context))
                   .append("\n```\n\n");
         }
 
-        prompt.append("Maintain the same JSON response format.");
+        prompt.append("Refine the previously generated tests based on this feedback: ")
+              .append(refinementInstructions).append("\n");
         return prompt.toString();
     }
 
+    private String compactSource(PromptContext context) {
+        return sourceCompactor.compact(context.getClassSourceCode(), compactionLevel);
+    }
+
     private boolean hasSourceCode(PromptContext context) {
         return context.getClassSourceCode() != null && !context.getClassSourceCode().trim().isEmpty();
     }
@@ -0,0 +1,16 @@
+package com.univade.ai.domain.service;
+
+import com.univade.ai.domain.model.CompactionReport;
+import com.univade.ai.domain.value.CompactionLevel;
+
+/**
+ * Shrinks class source before it goes into a prompt, keeping what the model needs to write tests.
+ */
+public interface SourceCompactor {
+
+    /** Returns the source compacted to {@code level}, or unchanged when it cannot be parsed. */
+    String compact(String source, CompactionLevel level);
+
+    /** Returns the token count of the source at every compaction level. */
+    CompactionReport report(String source);
+}
@@ -0,0 +1,8 @@
+package com.univade.ai.domain.value;
+
+public enum CompactionLevel {
+    NONE,
+    STRIP_COMMENTS,
+    COLLAPSE_PRIVATE,
+    COLLAPSE_PRIVATE_AND_TRIVIAL
+}
@@ -0,0 +1,15 @@
+package com.univade.ai.domain.value;
+
+public enum RequestPriority {
+    INTERACTIVE,
+    STANDARD,
+    BULK;
+
+    /**
+     * Applies a client-requested priority with this priority as the ceiling: a client may lower its
+     * requests but never raise them above what the endpoint grants.
+     */
+    public RequestPriority lowerTo(RequestPriority requested) {
+        return requested != null && requested.ordinal() > ordinal() ? requested : this;
+    }
+}
@@ -0,0 +1,118 @@
+package com.univade.ai.infrastructure.ai;
+
+import com.univade.ai.domain.model.ModelRoute;
+import com.univade.ai.domain.model.TokenUsage;
+import com.univade.ai.infrastructure.metrics.PipelineMetrics;
+import com.univade.ai.infrastructure.prompt.PromptLoader;
+import com.univade.ai.infrastructure.resilience.AdaptiveConcurrencyLimiter;
+import com.univade.ai.infrastructure.resilience.LlmCircuitBreaker;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.MessageType;
+import org.springframework.ai.chat.metadata.Usage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.openai.OpenAiChatOptions;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Folds older conversation turns into a short running summary. Uses its own {@link ChatClient} without
+ * the chat memory advisor, so summarizing a conversation never writes into any conversation's memory.
+ */
+@Component
+public class ConversationSummarizer {
+
+    /** Marks the system message that carries a conversation's summary in chat memory. */
+    public static final String SUMMARY_PREFIX = "Summary of the earlier conversation:\n";
+
+    private static final String SUMMARY_PROMPT_PATH = "prompts/conversation_summary_prompt.md";
+
+    private final ChatClient chatClient;
+    private final PromptLoader promptLoader;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final LlmCircuitBreaker circuitBreaker;
+    private final PipelineMetrics pipelineMetrics;
+    private volatile String systemPrompt;
+
+    public ConversationSummarizer(ChatModel chatModel,
+                                  PromptLoader promptLoader,
+                                  AdaptiveConcurrencyLimiter concurrencyLimiter,
+                                  LlmCircuitBreaker circuitBreaker,
+                                  PipelineMetrics pipelineMetrics) {
+        this.chatClient = ChatClient.builder(chatModel).build();
+        this.promptLoader = promptLoader;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.circuitBreaker = circuitBreaker;
+        this.pipelineMetrics = pipelineMetrics;
+    }
+
+    public static boolean isSummary(Message message) {
+        return message.getMessageType() == MessageType.SYSTEM
+                && message.getText() != null
+                && message.getText().startsWith(SUMMARY_PREFIX);
+    }
+
+    /**
+     * Summarizes {@code previousSummary} (may be null) and {@code turns}. The summary text is null when
+     * the model returned nothing usable; the usage is null when the model reported none.
+     */
+    public Summary summarize(String previousSummary, List<Message> turns, ModelRoute route) {
+        String transcript = transcript(previousSummary, turns);
+        ChatResponse response = concurrencyLimiter.execute(() -> circuitBreaker.execute(() ->
+                pipelineMetrics.time(PipelineMetrics.Stage.LLM_CALL, route, () -> chatClient.prompt()
+                        .system(systemPrompt())
+                        .user(transcript)
+                        .options(OpenAiChatOptions.builder()
+                                .model(route.getModel())
+                                .maxTokens(route.getMaxTokens())
+                                .build())
+                        .call()
+                        .chatResponse())));
+        if (response == null) {
+            return new Summary(null, null);
+        }
+
+        TokenUsage tokenUsage = null;
+        if (response.getMetadata() != null && response.getMetadata().getUsage() != null) {
+            Usage usage = response.getMetadata().getUsage();
+            tokenUsage = new TokenUsage(response.getMetadata().getModel(),
+                    usage.getPromptTokens() != null ? usage.getPromptTokens() : 0,
+                    usage.getCompletionTokens() != null ? usage.getCompletionTokens() : 0,
+                    0);
+            pipelineMetrics.recordTokens(route, tokenUsage);
+        }
+
+        String text = response.getResult() != null && response.getResult().getOutput() != null
+                ? response.getResult().getOutput().getText()
+                : null;
+        return new Summary(text == null || text.isBlank() ? null : text.strip(), tokenUsage);
+    }
+
+    private String transcript(String previousSummary, List<Message> turns) {
+        StringBuilder transcript = new StringBuilder();
+        if (previousSummary != null && !previousSummary.isBlank()) {
+            transcript.append("## Existing summary\n").append(previousSummary.strip()).append("\n\n");
+        }
+        transcript.append("## New turns\n");
+        for (Message turn : turns) {
+            transcript.append(turn.getMessageType().name()).append(": ")
+                    .append(turn.getText() != null ? turn.getText().strip() : "")
+                    .append("\n\n");
+        }
+        return transcript.toString();
+    }
+
+    private String systemPrompt() {
+        String prompt = systemPrompt;
+        if (prompt == null) {
+            prompt = promptLoader.loadPromptFromResource(SUMMARY_PROMPT_PATH);
+            systemPrompt = prompt;
+        }
+        return prompt;
+    }
+
+    public record Summary(String text, TokenUsage usage) {
+    }
+}
@@ -0,0 +1,132 @@
+package com.univade.ai.infrastructure.ai;
+
+import com.univade.ai.domain.model.ClassComplexity;
+import com.univade.ai.domain.model.ModelRoute;
+import com.univade.ai.domain.value.TargetLayer;
+import com.univade.ai.infrastructure.parser.ClassComplexityAnalyzer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+@Component
+public class ModelRouter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ModelRouter.class);
+
+    public static final String FAST_TIER = "fast";
+    public static final String DEFAULT_TIER = "default";
+
+    private final ClassComplexityAnalyzer complexityAnalyzer;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final String fastModel;
+    private final int fastMaxTokens;
+    private final int fastMaxScore;
+    private final String defaultModel;
+    private final int defaultMaxTokens;
+    private final Map<String, Counter> decisionCounters = new ConcurrentHashMap<>();
+    private final Map<String, Timer> latencyTimers = new ConcurrentHashMap<>();
+
+    public ModelRouter(ClassComplexityAnalyzer complexityAnalyzer,
+                       MeterRegistry meterRegistry,
+                       @Value("${testgen.routing.enabled:true}") boolean enabled,
+                       @Value("${testgen.routing.fast.model:gpt-4o-mini}") String fastModel,
+                       @Value("${testgen.routing.fast.max-tokens:4000}") int fastMaxTokens,
+                       @Value("${testgen.routing.fast.max-score:12}") int fastMaxScore,
+                       @Value("${spring.ai.openai.chat.options.model:gpt-4o}") String defaultModel,
+                       @Value("${spring.ai.openai.chat.options.max-tokens:8000}") int defaultMaxTokens) {
+        this.complexityAnalyzer = complexityAnalyzer;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.fastModel = fastModel;
+        this.fastMaxTokens = fastMaxTokens;
+        this.fastMaxScore = fastMaxScore;
+        this.defaultModel = defaultModel;
+        this.defaultMaxTokens = defaultMaxTokens;
+    }
+
+    public ModelRoute route(String classSourceCode) {
+        if (!enabled || classSourceCode == null || classSourceCode.isBlank()) {
+            return record(new ModelRoute(DEFAULT_TIER, defaultModel, defaultMaxTokens, -1, null), null);
+        }
+
+        ClassComplexity complexity = complexityAnalyzer.analyze(classSourceCode);
+        if (!complexity.isParsed()) {
+            return record(new ModelRoute(DEFAULT_TIER, defaultModel, defaultMaxTokens, -1, null), complexity);
+        }
+
+        int score = score(complexity);
+        ModelRoute route = score <= fastMaxScore
+                ? new ModelRoute(FAST_TIER, fastModel, fastMaxTokens, score, complexity.getTargetLayer())
+                : new ModelRoute(DEFAULT_TIER, defaultModel, defaultMaxTokens, score, complexity.getTargetLayer());
+        return record(route, complexity);
+    }
+
+    public ModelRoute summaryRoute(int maxTokens) {
+        return enabled
+                ? new ModelRoute(FAST_TIER, fastModel, maxTokens, -1, null)
+                : new ModelRoute(DEFAULT_TIER, defaultModel, maxTokens, -1, null);
+    }
+
+    /**
+     * Records the model call's latency under the route's tier. Callers wrap only the call itself, so
+     * queueing for admission and cache hits stay out of the per-tier latency.
+     */
+    public <T> T timed(ModelRoute route, Supplier<T> call) {
+        return latencyTimer(route).record(call);
+    }
+
+    public <T> Flux<T> timed(ModelRoute route, Flux<T> stream) {
+        return Flux.defer(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            return stream.doFinally(signal -> sample.stop(latencyTimer(route)));
+        });
+    }
+
+    int score(ClassComplexity complexity) {
+        int extraBranches = Math.max(0, complexity.getCyclomaticComplexity() - complexity.getMethodCount());
+        return complexity.getMethodCount()
+                + extraBranches * 2
+                + complexity.getDependencyCount() * 2
+                + layerWeight(complexity.getTargetLayer());
+    }
+
+    private int layerWeight(TargetLayer layer) {
+        if (layer == null) {
+            return 0;
+        }
+        return switch (layer) {
+            case DTO -> 0;
+            case ENTITY -> 1;
+            case REPOSITORY -> 2;
+            case CONTROLLER -> 4;
+            case SERVICE -> 6;
+        };
+    }
+
+    private Timer latencyTimer(ModelRoute route) {
+        String tier = route != null ? route.getTier() : DEFAULT_TIER;
+        return latencyTimers.computeIfAbsent(tier, key -> Timer.builder("testgen.llm.routing.latency")
+                .tag("tier", key)
+                .register(meterRegistry));
+    }
+
+    private ModelRoute record(ModelRoute route, ClassComplexity complexity) {
+        decisionCounters.computeIfAbsent(route.getTier(), tier -> Counter.builder("testgen.llm.routing.decisions")
+                .tag("tier", tier)
+                .register(meterRegistry))
+                .increment();
+        logger.debug("Routing request to {} tier ({}, score {}): {}",
+                route.getTier(), route.getModel(), route.getScore(), complexity);
+        return route;
+    }
+}
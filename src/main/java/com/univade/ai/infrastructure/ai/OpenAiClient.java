@@ -1,12 +1,40 @@
 package com.univade.ai.infrastructure.ai;
 
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.univade.ai.domain.exception.GenerationRejectedException;
+import com.univade.ai.domain.model.ModelRoute;
 import com.univade.ai.domain.model.TestGenerationResult;
+import com.univade.ai.domain.model.TokenUsage;
+import com.univade.ai.infrastructure.cache.LlmResponseCache;
+import com.univade.ai.infrastructure.metrics.PipelineMetrics;
+import com.univade.ai.infrastructure.resilience.AdaptiveConcurrencyLimiter;
+import com.univade.ai.infrastructure.resilience.HedgedRequestExecutor;
+import com.univade.ai.infrastructure.resilience.LlmCircuitBreaker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.client.advisor.MessageChatMemoryAdvisor;
+import org.springframework.ai.chat.memory.ChatMemory;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.ai.chat.metadata.Usage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.openai.OpenAiChatOptions;
+import org.springframework.ai.openai.api.OpenAiApi;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
 
 @Component
 public class OpenAiClient {
@@ -14,139 +42,274 @@ public class OpenAiClient {
     private static final Logger logger = LoggerFactory.getLogger(OpenAiClient.class);
 
     private final ChatClient chatClient;
-    private final ObjectMapper objectMapper;
+    private final ChatMemory chatMemory;
+    private final MessageChatMemoryAdvisor memoryAdvisor;
+    private final ObjectReader resultReader;
+    private final LlmResponseCache responseCache;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final HedgedRequestExecutor hedgedExecutor;
+    private final LlmCircuitBreaker circuitBreaker;
+    private final PipelineMetrics pipelineMetrics;
+    private final ModelRouter modelRouter;
+    private final String modelOptions;
+    private final Counter promptTokens;
+    private final Counter cachedPromptTokens;
+    private final Counter completionTokens;
 
     public OpenAiClient(ChatClient chatClient,
-                       ObjectMapper objectMapper) {
+                       ChatMemory chatMemory,
+                       ObjectMapper objectMapper,
+                       LlmResponseCache responseCache,
+                       AdaptiveConcurrencyLimiter concurrencyLimiter,
+                       HedgedRequestExecutor hedgedExecutor,
+                       LlmCircuitBreaker circuitBreaker,
+                       PipelineMetrics pipelineMetrics,
+                       ModelRouter modelRouter,
+                       MeterRegistry meterRegistry,
+                       @Value("${spring.ai.openai.chat.options.model:gpt-4o}") String model,
+                       @Value("${spring.ai.openai.chat.options.temperature:0.1}") String temperature,
+                       @Value("${spring.ai.openai.chat.options.max-tokens:8000}") String maxTokens) {
         this.chatClient = chatClient;
-        this.objectMapper = objectMapper;
+        this.chatMemory = chatMemory;
+        this.memoryAdvisor = MessageChatMemoryAdvisor.builder(chatMemory).build();
+        this.resultReader = objectMapper.readerFor(TestGenerationResult.class);
+        this.responseCache = responseCache;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.hedgedExecutor = hedgedExecutor;
+        this.circuitBreaker = circuitBreaker;
+        this.pipelineMetrics = pipelineMetrics;
+        this.modelRouter = modelRouter;
+        this.modelOptions = "model=" + model + ";temperature=" + temperature + ";maxTokens=" + maxTokens;
+        this.promptTokens = Counter.builder("testgen.llm.tokens").tag("type", "prompt").register(meterRegistry);
+        this.cachedPromptTokens = Counter.builder("testgen.llm.tokens").tag("type", "cached-prompt").register(meterRegistry);
+        this.completionTokens = Counter.builder("testgen.llm.tokens").tag("type", "completion").register(meterRegistry);
     }
 
-    public TestGenerationResult generateTests(String systemPrompt, String userPrompt) {
+    public TestGenerationResult generateTests(String systemPrompt, String userPrompt, ModelRoute route) {
         try {
-            String response = chatClient.prompt()
-                .system(systemPrompt)
-                .user(userPrompt)
-                .call()
-                .content();
-
-            if (response == null || response.trim().isEmpty()) {
-                return createErrorResult("Empty response from AI");
-            }
-
-            return parseAiResponse(response);
-
+            return callWithCache(systemPrompt, userPrompt, route);
+        } catch (GenerationRejectedException e) {
+            throw e;
         } catch (Exception e) {
             logger.error("Error generating tests with AI", e);
             return createErrorResult("Failed to generate tests: " + e.getMessage());
         }
     }
 
-    public TestGenerationResult refineTests(String systemPrompt, String refinementPrompt) {
-        try {
-            String response = chatClient.prompt()
-                .system(systemPrompt)
-                .user(refinementPrompt)
-                .call()
-                .content();
-
-            if (response == null || response.trim().isEmpty()) {
-                return createErrorResult("Empty response from AI");
-            }
-
-            return parseAiResponse(response);
+    public Flux<String> streamTestSource(String systemPrompt, String userPrompt, ModelRoute route) {
+        return circuitBreaker.execute(Flux.defer(() -> {
+            SourceCodeStreamDecoder decoder = new SourceCodeStreamDecoder();
+            return modelRouter.timed(route, prompt(systemPrompt, userPrompt, route)
+                .stream()
+                .content())
+                .map(decoder::decode)
+                .takeUntil(decoded -> decoder.isSourceComplete() || decoder.isFinished())
+                .filter(decoded -> !decoded.isEmpty());
+        })).doOnError(e -> logger.error("Error streaming tests from AI", e));
+    }
 
+    public TestGenerationResult refineTests(String systemPrompt, String refinementPrompt, ModelRoute route) {
+        try {
+            return callWithCache(systemPrompt, refinementPrompt, route);
+        } catch (GenerationRejectedException e) {
+            throw e;
         } catch (Exception e) {
             logger.error("Error refining tests with AI", e);
             return createErrorResult("Failed to refine tests: " + e.getMessage());
         }
     }
 
-    public TestGenerationResult generateTestsWithMemory(String systemPrompt, String userPrompt, String conversationId) {
+    public TestGenerationResult generateTestsWithMemory(String systemPrompt, String userPrompt, String conversationId,
+                                                        ModelRoute route) {
         try {
-            String response = chatClient.prompt()
-                .system(systemPrompt)
-                .user(userPrompt)
-                .advisors(advisorSpec -> advisorSpec.param("conversationId", conversationId))
-                .call()
-                .content();
-
-            if (response == null || response.trim().isEmpty()) {
-                return createErrorResult("Empty response from AI");
-            }
-
-            return parseAiResponse(response);
+            return toResult(callModel(systemPrompt, userPrompt, conversationId, route), route);
 
+        } catch (GenerationRejectedException e) {
+            throw e;
         } catch (Exception e) {
             logger.error("Error generating tests with memory for conversation: {}", conversationId, e);
             return createErrorResult("Failed to generate tests: " + e.getMessage());
         }
     }
 
-    public TestGenerationResult refineTestsWithMemory(String systemPrompt, String refinementPrompt, String conversationId) {
+    public TestGenerationResult refineTestsWithMemory(String systemPrompt, String refinementPrompt, String conversationId,
+                                                      ModelRoute route) {
         try {
-            String response = chatClient.prompt()
-                .system(systemPrompt)
-                .user(refinementPrompt)
-                .advisors(advisorSpec -> advisorSpec.param("conversationId", conversationId))
-                .call()
-                .content();
-
-            if (response == null || response.trim().isEmpty()) {
-                return createErrorResult("Empty response from AI");
-            }
-
-            return parseAiResponse(response);
+            return toResult(callModel(systemPrompt, refinementPrompt, conversationId, route), route);
 
+        } catch (GenerationRejectedException e) {
+            throw e;
         } catch (Exception e) {
             logger.error("Error refining tests with memory for conversation: {}", conversationId, e);
             return createErrorResult("Failed to refine tests: " + e.getMessage());
         }
     }
 
-    private TestGenerationResult parseAiResponse(String response) {
-        try {
-            String jsonResponse = extractJsonFromResponse(response);
+    /**
+     * Records a turn that was generated without memory as the opening exchange of a conversation, so
+     * follow-ups in that conversation see it like any turn made through the memory advisor.
+     */
+    public void rememberExchange(String conversationId, String userPrompt, String reply) {
+        if (conversationId == null || reply == null) {
+            return;
+        }
+        chatMemory.add(conversationId, List.of(new UserMessage(userPrompt), new AssistantMessage(reply)));
+    }
 
-            if (jsonResponse == null) {
-                return createErrorResult("Invalid response format from AI");
-            }
+    /**
+     * Looks up a cached response without calling the model, so callers can answer cache hits before
+     * reserving quota or waiting for a generation slot.
+     */
+    public Optional<TestGenerationResult> cachedResult(String systemPrompt, String userPrompt, ModelRoute route) {
+        return cached(cacheKey(systemPrompt, userPrompt, route), route);
+    }
 
-            return objectMapper.readValue(jsonResponse, TestGenerationResult.class);
+    private TestGenerationResult callWithCache(String systemPrompt, String userPrompt, ModelRoute route) {
+        String cacheKey = cacheKey(systemPrompt, userPrompt, route);
+        Optional<TestGenerationResult> cached = cached(cacheKey, route);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
 
-        } catch (JsonProcessingException e) {
-            logger.error("Error parsing AI response JSON", e);
-            return createErrorResult("Failed to parse AI response: " + e.getMessage());
+        ModelReply reply = callModel(systemPrompt, userPrompt, null, route);
+        TestGenerationResult result = toResult(reply, route);
+        if ("SUCCESS".equals(result.getStatus())) {
+            responseCache.put(cacheKey, reply.content());
         }
+        return result;
     }
 
-    private String extractJsonFromResponse(String response) {
-        int jsonStart = response.indexOf("{");
-        if (jsonStart == -1) {
-            return null;
+    private String cacheKey(String systemPrompt, String userPrompt, ModelRoute route) {
+        String options = route != null
+                ? modelOptions + ";route=" + route.getModel() + "/" + route.getMaxTokens()
+                : modelOptions;
+        return responseCache.key(systemPrompt, userPrompt, options);
+    }
+
+    private Optional<TestGenerationResult> cached(String cacheKey, ModelRoute route) {
+        return responseCache.get(cacheKey).map(content -> {
+            logger.debug("Serving AI response from cache: {}", cacheKey);
+            return pipelineMetrics.time(PipelineMetrics.Stage.PARSE, route, () -> parseAiResponse(content));
+        });
+    }
+
+    private ModelReply callModel(String systemPrompt, String userPrompt, String conversationId, ModelRoute route) {
+        // The breaker sits inside the limiter so its slow-call clock covers the model call only, not
+        // local queueing for a permit or the hedge delay; the hedge latency sample is taken there too.
+        String tier = route != null ? route.getTier() : ModelRouter.DEFAULT_TIER;
+        Supplier<ModelReply> attempt = () -> concurrencyLimiter.execute(() -> circuitBreaker.execute(() ->
+                hedgedExecutor.timed(tier, () -> {
+                    ChatClient.ChatClientRequestSpec request = prompt(systemPrompt, userPrompt, route);
+                    if (conversationId != null) {
+                        request = request.advisors(memoryAdvisor)
+                                .advisors(advisorSpec -> advisorSpec.param(ChatMemory.CONVERSATION_ID, conversationId));
+                    }
+                    ChatClient.CallResponseSpec call = request.call();
+                    ChatResponse response = modelRouter.timed(route,
+                            () -> pipelineMetrics.time(PipelineMetrics.Stage.LLM_CALL, route, call::chatResponse));
+                    ModelReply reply = new ModelReply(extractContent(response), extractUsage(response));
+                    recordUsage(reply.usage(), route);
+                    return reply;
+                })));
+
+        // Memory-backed calls are not hedged: both attempts would append to the same conversation.
+        return conversationId == null ? hedgedExecutor.execute(tier, attempt) : attempt.get();
+    }
+
+    private ChatClient.ChatClientRequestSpec prompt(String systemPrompt, String userPrompt, ModelRoute route) {
+        ChatClient.ChatClientRequestSpec request = chatClient.prompt()
+            .system(systemPrompt)
+            .user(userPrompt);
+        if (route != null) {
+            request = request.options(OpenAiChatOptions.builder()
+                .model(route.getModel())
+                .maxTokens(route.getMaxTokens())
+                .build());
         }
+        return request;
+    }
 
-        int braceCount = 0;
-        int jsonEnd = -1;
+    private TestGenerationResult toResult(ModelReply reply, ModelRoute route) {
+        if (reply.content() == null || reply.content().trim().isEmpty()) {
+            return createErrorResult("Empty response from AI");
+        }
 
-        for (int i = jsonStart; i < response.length(); i++) {
-            char c = response.charAt(i);
-            if (c == '{') {
-                braceCount++;
-            } else if (c == '}') {
-                braceCount--;
-                if (braceCount == 0) {
-                    jsonEnd = i;
-                    break;
-                }
-            }
+        TestGenerationResult result = pipelineMetrics.time(PipelineMetrics.Stage.PARSE, route,
+                () -> parseAiResponse(reply.content()));
+        result.setTokenUsage(reply.usage());
+        return result;
+    }
+
+    private String extractContent(ChatResponse response) {
+        if (response == null || response.getResult() == null || response.getResult().getOutput() == null) {
+            return null;
         }
+        return response.getResult().getOutput().getText();
+    }
 
-        if (jsonEnd == -1) {
+    private TokenUsage extractUsage(ChatResponse response) {
+        if (response == null || response.getMetadata() == null || response.getMetadata().getUsage() == null) {
             return null;
         }
 
-        return response.substring(jsonStart, jsonEnd + 1);
+        Usage usage = response.getMetadata().getUsage();
+        int cachedTokens = 0;
+        if (usage.getNativeUsage() instanceof OpenAiApi.Usage nativeUsage
+                && nativeUsage.promptTokensDetails() != null
+                && nativeUsage.promptTokensDetails().cachedTokens() != null) {
+            cachedTokens = nativeUsage.promptTokensDetails().cachedTokens();
+        }
+        return new TokenUsage(response.getMetadata().getModel(),
+                usage.getPromptTokens() != null ? usage.getPromptTokens() : 0,
+                usage.getCompletionTokens() != null ? usage.getCompletionTokens() : 0,
+                cachedTokens);
+    }
+
+    private void recordUsage(TokenUsage usage, ModelRoute route) {
+        if (usage == null) {
+            return;
+        }
+        pipelineMetrics.recordTokens(route, usage);
+        promptTokens.increment(usage.getPromptTokens());
+        cachedPromptTokens.increment(usage.getCachedPromptTokens());
+        completionTokens.increment(usage.getCompletionTokens());
+        logger.debug("AI call used {}", usage);
+    }
+
+    TestGenerationResult parseAiResponse(String response) {
+        int jsonStart = findJsonStart(response);
+        if (jsonStart == -1) {
+            return createErrorResult("Invalid response format from AI");
+        }
+
+        try (StringReader reader = new StringReader(response)) {
+            reader.skip(jsonStart);
+            try (JsonParser parser = resultReader.createParser(reader)) {
+                TestGenerationResult result = resultReader.readValue(parser);
+                return result != null ? result : createErrorResult("Invalid response format from AI");
+            }
+        } catch (JsonProcessingException e) {
+            logger.error("Error parsing AI response JSON", e);
+            return createErrorResult("Failed to parse AI response: " + e.getOriginalMessage());
+        } catch (IOException e) {
+            logger.error("Error reading AI response", e);
+            return createErrorResult("Failed to parse AI response: " + e.getMessage());
+        }
+    }
+
+    private int findJsonStart(String response) {
+        int candidate = response.indexOf('{');
+        while (candidate != -1) {
+            int next = candidate + 1;
+            while (next < response.length() && Character.isWhitespace(response.charAt(next))) {
+                next++;
+            }
+            if (next < response.length() && (response.charAt(next) == '"' || response.charAt(next) == '}')) {
+                return candidate;
+            }
+            candidate = response.indexOf('{', next);
+        }
+        return -1;
     }
 
     private TestGenerationResult createErrorResult(String errorMessage) {
@@ -155,4 +318,7 @@ public class OpenAiClient {
         result.setErrorMessage(errorMessage);
         return result;
     }
+
+    private record ModelReply(String content, TokenUsage usage) {
+    }
 }
@@ -0,0 +1,152 @@
+package com.univade.ai.infrastructure.ai;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+public class SourceCodeStreamDecoder {
+
+    private static final String TARGET_PARENT = "test_class";
+    private static final String TARGET_FIELD = "source_code";
+    private static final int MAX_KEY_LENGTH = 64;
+
+    private final Deque<Container> containers = new ArrayDeque<>();
+    private final StringBuilder key = new StringBuilder();
+    private String pendingKey;
+    private boolean started;
+    private boolean finished;
+    private boolean inString;
+    private boolean readingKey;
+    private boolean expectingKey;
+    private boolean escaped;
+    private boolean emitting;
+    private boolean sourceComplete;
+    private int unicodeRemaining;
+    private int unicodeValue;
+
+    public String decode(String chunk) {
+        if (chunk == null || chunk.isEmpty() || finished) {
+            return "";
+        }
+
+        StringBuilder out = new StringBuilder();
+        for (int i = 0; i < chunk.length(); i++) {
+            char c = chunk.charAt(i);
+            if (!started) {
+                if (c == '{') {
+                    started = true;
+                    containers.push(new Container(true, null));
+                    expectingKey = true;
+                }
+            } else if (inString) {
+                consumeStringChar(c, out);
+            } else {
+                consumeStructuralChar(c);
+            }
+            if (finished) {
+                break;
+            }
+        }
+        return out.toString();
+    }
+
+    public boolean isSourceComplete() {
+        return sourceComplete;
+    }
+
+    public boolean isFinished() {
+        return finished;
+    }
+
+    private void consumeStringChar(char c, StringBuilder out) {
+        if (unicodeRemaining > 0) {
+            unicodeValue = (unicodeValue << 4) | Character.digit(c, 16);
+            if (--unicodeRemaining == 0) {
+                append((char) unicodeValue, out);
+            }
+        } else if (escaped) {
+            escaped = false;
+            switch (c) {
+                case 'n' -> append('\n', out);
+                case 't' -> append('\t', out);
+                case 'r' -> append('\r', out);
+                case 'b' -> append('\b', out);
+                case 'f' -> append('\f', out);
+                case 'u' -> {
+                    unicodeRemaining = 4;
+                    unicodeValue = 0;
+                }
+                default -> append(c, out);
+            }
+        } else if (c == '\\') {
+            escaped = true;
+        } else if (c == '"') {
+            inString = false;
+            if (readingKey) {
+                readingKey = false;
+                pendingKey = key.toString();
+            } else if (emitting) {
+                emitting = false;
+                sourceComplete = true;
+            }
+        } else {
+            append(c, out);
+        }
+    }
+
+    private void consumeStructuralChar(char c) {
+        Container top = containers.peek();
+        switch (c) {
+            case '"' -> {
+                inString = true;
+                if (top != null && top.object && expectingKey) {
+                    readingKey = true;
+                    key.setLength(0);
+                } else {
+                    emitting = top != null && top.object
+                            && TARGET_FIELD.equals(pendingKey)
+                            && TARGET_PARENT.equals(top.key);
+                }
+            }
+            case ':' -> expectingKey = false;
+            case ',' -> {
+                if (top != null && top.object) {
+                    expectingKey = true;
+                    pendingKey = null;
+                }
+            }
+            case '{' -> {
+                containers.push(new Container(true, pendingKey));
+                expectingKey = true;
+                pendingKey = null;
+            }
+            case '[' -> {
+                containers.push(new Container(false, pendingKey));
+                pendingKey = null;
+            }
+            case '}', ']' -> {
+                if (!containers.isEmpty()) {
+                    containers.pop();
+                }
+                pendingKey = null;
+                if (containers.isEmpty()) {
+                    finished = true;
+                }
+            }
+            default -> {
+            }
+        }
+    }
+
+    private void append(char c, StringBuilder out) {
+        if (readingKey) {
+            if (key.length() < MAX_KEY_LENGTH) {
+                key.append(c);
+            }
+        } else if (emitting) {
+            out.append(c);
+        }
+    }
+
+    private record Container(boolean object, String key) {
+    }
+}
@@ -0,0 +1,65 @@
+package com.univade.ai.infrastructure.ai;
+
+import org.springframework.ai.chat.client.ChatClientRequest;
+import org.springframework.ai.chat.client.ChatClientResponse;
+import org.springframework.ai.chat.client.advisor.api.AdvisorChain;
+import org.springframework.ai.chat.client.advisor.api.BaseAdvisor;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.MessageType;
+import org.springframework.ai.chat.prompt.Prompt;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class StablePrefixAdvisor implements BaseAdvisor {
+
+    private final int order;
+
+    public StablePrefixAdvisor(int order) {
+        this.order = order;
+    }
+
+    @Override
+    public ChatClientRequest before(ChatClientRequest chatClientRequest, AdvisorChain advisorChain) {
+        List<Message> instructions = chatClientRequest.prompt().getInstructions();
+        List<Message> ordered = new ArrayList<>(instructions.size());
+        for (Message message : instructions) {
+            if (message.getMessageType() == MessageType.SYSTEM && !ConversationSummarizer.isSummary(message)) {
+                ordered.add(message);
+            }
+        }
+        // A conversation summary changes whenever it is rolled forward, so it goes after the shared system prompt.
+        for (Message message : instructions) {
+            if (ConversationSummarizer.isSummary(message)) {
+                ordered.add(message);
+            }
+        }
+        for (Message message : instructions) {
+            if (message.getMessageType() != MessageType.SYSTEM) {
+                ordered.add(message);
+            }
+        }
+
+        if (ordered.equals(instructions)) {
+            return chatClientRequest;
+        }
+        return chatClientRequest.mutate()
+                .prompt(new Prompt(ordered, chatClientRequest.prompt().getOptions()))
+                .build();
+    }
+
+    @Override
+    public ChatClientResponse after(ChatClientResponse chatClientResponse, AdvisorChain advisorChain) {
+        return chatClientResponse;
+    }
+
+    @Override
+    public int getOrder() {
+        return order;
+    }
+
+    @Override
+    public String getName() {
+        return StablePrefixAdvisor.class.getSimpleName();
+    }
+}
@@ -0,0 +1,34 @@
+package com.univade.ai.infrastructure.ai;
+
+import com.knuddels.jtokkit.api.EncodingType;
+import org.springframework.ai.tokenizer.JTokkitTokenCountEstimator;
+import org.springframework.ai.tokenizer.TokenCountEstimator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+@Component
+public class TokenEstimator {
+
+    private final TokenCountEstimator delegate;
+    private volatile String lastSystemPrompt;
+    private volatile int lastSystemPromptTokens;
+
+    public TokenEstimator(@Value("${testgen.tokens.encoding:O200K_BASE}") EncodingType encoding) {
+        this.delegate = new JTokkitTokenCountEstimator(encoding);
+    }
+
+    public int count(String text) {
+        if (text == null || text.isEmpty()) {
+            return 0;
+        }
+        return delegate.estimate(text);
+    }
+
+    public int countSystemPrompt(String systemPrompt) {
+        if (systemPrompt != lastSystemPrompt) {
+            lastSystemPromptTokens = count(systemPrompt);
+            lastSystemPrompt = systemPrompt;
+        }
+        return lastSystemPromptTokens;
+    }
+}
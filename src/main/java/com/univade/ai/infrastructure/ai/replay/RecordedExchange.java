@@ -0,0 +1,34 @@
+package com.univade.ai.infrastructure.ai.replay;
+
+public class RecordedExchange {
+    private String key;
+    private String model;
+    private String promptPreview;
+    private String response;
+    private int promptTokens;
+    private int completionTokens;
+    private String recordedAt;
+
+    public RecordedExchange() {}
+
+    public String getKey() { return key; }
+    public void setKey(String key) { this.key = key; }
+
+    public String getModel() { return model; }
+    public void setModel(String model) { this.model = model; }
+
+    public String getPromptPreview() { return promptPreview; }
+    public void setPromptPreview(String promptPreview) { this.promptPreview = promptPreview; }
+
+    public String getResponse() { return response; }
+    public void setResponse(String response) { this.response = response; }
+
+    public int getPromptTokens() { return promptTokens; }
+    public void setPromptTokens(int promptTokens) { this.promptTokens = promptTokens; }
+
+    public int getCompletionTokens() { return completionTokens; }
+    public void setCompletionTokens(int completionTokens) { this.completionTokens = completionTokens; }
+
+    public String getRecordedAt() { return recordedAt; }
+    public void setRecordedAt(String recordedAt) { this.recordedAt = recordedAt; }
+}
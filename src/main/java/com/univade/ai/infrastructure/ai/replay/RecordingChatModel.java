@@ -0,0 +1,97 @@
+package com.univade.ai.infrastructure.ai.replay;
+
+import com.univade.ai.infrastructure.ai.SourceCodeStreamDecoder;
+import org.springframework.ai.chat.metadata.Usage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.prompt.ChatOptions;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.openai.OpenAiChatModel;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.SignalType;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicReference;
+
+@Component
+@Primary
+@Profile("record")
+public class RecordingChatModel implements ChatModel {
+
+    private final OpenAiChatModel delegate;
+    private final ReplayCorpus corpus;
+
+    public RecordingChatModel(OpenAiChatModel delegate, ReplayCorpus corpus) {
+        this.delegate = delegate;
+        this.corpus = corpus;
+    }
+
+    @Override
+    public ChatResponse call(Prompt prompt) {
+        ChatResponse response = delegate.call(prompt);
+        String text = response != null && response.getResult() != null && response.getResult().getOutput() != null
+                ? response.getResult().getOutput().getText()
+                : null;
+        if (text != null) {
+            record(prompt, text, response);
+        }
+        return response;
+    }
+
+    /**
+     * Records the streamed reply once the stream ends. The streaming client cancels as soon as the test
+     * source is complete, so a cancelled stream is recorded too when its text already holds the whole
+     * source, unless a complete exchange for the same prompt is on record.
+     */
+    @Override
+    public Flux<ChatResponse> stream(Prompt prompt) {
+        return Flux.defer(() -> {
+            StringBuilder text = new StringBuilder();
+            SourceCodeStreamDecoder decoder = new SourceCodeStreamDecoder();
+            AtomicReference<ChatResponse> last = new AtomicReference<>();
+            return delegate.stream(prompt)
+                    .doOnNext(chunk -> {
+                        if (chunk.getResult() != null && chunk.getResult().getOutput() != null
+                                && chunk.getResult().getOutput().getText() != null) {
+                            text.append(chunk.getResult().getOutput().getText());
+                            decoder.decode(chunk.getResult().getOutput().getText());
+                        }
+                        last.set(chunk);
+                    })
+                    .doFinally(signal -> {
+                        boolean complete = signal == SignalType.ON_COMPLETE
+                                || signal == SignalType.CANCEL
+                                        && (decoder.isSourceComplete() || decoder.isFinished())
+                                        && corpus.find(ReplayCorpus.key(prompt)).isEmpty();
+                        if (complete) {
+                            record(prompt, text.toString(), last.get());
+                        }
+                    });
+        });
+    }
+
+    @Override
+    public ChatOptions getDefaultOptions() {
+        return delegate.getDefaultOptions();
+    }
+
+    private void record(Prompt prompt, String text, ChatResponse response) {
+        RecordedExchange exchange = new RecordedExchange();
+        exchange.setKey(ReplayCorpus.key(prompt));
+        exchange.setPromptPreview(ReplayCorpus.preview(prompt));
+        exchange.setResponse(text);
+        exchange.setRecordedAt(Instant.now().toString());
+        if (response != null && response.getMetadata() != null) {
+            exchange.setModel(response.getMetadata().getModel());
+            Usage usage = response.getMetadata().getUsage();
+            if (usage != null) {
+                exchange.setPromptTokens(usage.getPromptTokens() != null ? usage.getPromptTokens() : 0);
+                exchange.setCompletionTokens(usage.getCompletionTokens() != null ? usage.getCompletionTokens() : 0);
+            }
+        }
+        corpus.save(exchange);
+    }
+}
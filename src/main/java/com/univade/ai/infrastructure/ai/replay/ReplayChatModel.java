@@ -0,0 +1,145 @@
+package com.univade.ai.infrastructure.ai.replay;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.metadata.ChatResponseMetadata;
+import org.springframework.ai.chat.metadata.DefaultUsage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+
+@Component
+@Profile("replay")
+public class ReplayChatModel implements ChatModel {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplayChatModel.class);
+    private static final double Z_99 = 2.3263;
+
+    public enum LatencyDistribution {
+        FIXED,
+        UNIFORM,
+        LOGNORMAL
+    }
+
+    private final ReplayCorpus corpus;
+    private final boolean strict;
+    private final LatencyDistribution distribution;
+    private final long medianMs;
+    private final long p99Ms;
+    private final double errorRate;
+    private final double rateLimitRate;
+    private final long firstChunkMs;
+    private final int chunkChars;
+    private final long chunkIntervalMs;
+
+    public ReplayChatModel(ReplayCorpus corpus,
+                           @Value("${testgen.replay.strict:false}") boolean strict,
+                           @Value("${testgen.replay.latency.distribution:LOGNORMAL}") LatencyDistribution distribution,
+                           @Value("${testgen.replay.latency.median-ms:6000}") long medianMs,
+                           @Value("${testgen.replay.latency.p99-ms:25000}") long p99Ms,
+                           @Value("${testgen.replay.error-rate:0.0}") double errorRate,
+                           @Value("${testgen.replay.rate-limit-rate:0.0}") double rateLimitRate,
+                           @Value("${testgen.replay.stream.first-chunk-ms:800}") long firstChunkMs,
+                           @Value("${testgen.replay.stream.chunk-chars:16}") int chunkChars,
+                           @Value("${testgen.replay.stream.chunk-interval-ms:20}") long chunkIntervalMs) {
+        this.corpus = corpus;
+        this.strict = strict;
+        this.distribution = distribution;
+        this.medianMs = medianMs;
+        this.p99Ms = Math.max(p99Ms, medianMs);
+        this.errorRate = errorRate;
+        this.rateLimitRate = rateLimitRate;
+        this.firstChunkMs = firstChunkMs;
+        this.chunkChars = Math.max(1, chunkChars);
+        this.chunkIntervalMs = chunkIntervalMs;
+        logger.info("Replay chat model active with {} recorded exchanges", corpus.size());
+    }
+
+    @Override
+    public ChatResponse call(Prompt prompt) {
+        RecordedExchange exchange = select(prompt);
+        sleep(sampleLatencyMs());
+        injectFailure();
+        return toResponse(exchange.getResponse(), exchange);
+    }
+
+    @Override
+    public Flux<ChatResponse> stream(Prompt prompt) {
+        return Flux.defer(() -> {
+            RecordedExchange exchange = select(prompt);
+            injectFailure();
+
+            List<String> chunks = new ArrayList<>();
+            String response = exchange.getResponse();
+            for (int start = 0; start < response.length(); start += chunkChars) {
+                chunks.add(response.substring(start, Math.min(start + chunkChars, response.length())));
+            }
+            Flux<ChatResponse> body = Flux.fromIterable(chunks)
+                    .delayElements(Duration.ofMillis(chunkIntervalMs))
+                    .map(chunk -> toResponse(chunk, null));
+            return body.concatWith(Flux.just(toResponse("", exchange)))
+                    .delaySubscription(Duration.ofMillis(firstChunkMs));
+        });
+    }
+
+    private RecordedExchange select(Prompt prompt) {
+        String key = ReplayCorpus.key(prompt);
+        return corpus.find(key)
+                .or(() -> strict ? Optional.empty() : corpus.next())
+                .orElseThrow(() -> new IllegalStateException(corpus.size() == 0
+                        ? "Replay corpus is empty"
+                        : "No recorded exchange for prompt " + key));
+    }
+
+    private void injectFailure() {
+        double roll = ThreadLocalRandom.current().nextDouble();
+        if (roll < rateLimitRate) {
+            throw new IllegalStateException("429 - rate_limit_exceeded: Please try again in 2s (replay)");
+        }
+        if (roll < rateLimitRate + errorRate) {
+            throw new IllegalStateException("500 - Injected replay failure");
+        }
+    }
+
+    private long sampleLatencyMs() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return switch (distribution) {
+            case FIXED -> medianMs;
+            case UNIFORM -> random.nextLong(0, 2 * medianMs + 1);
+            case LOGNORMAL -> {
+                double sigma = medianMs > 0 ? Math.log((double) p99Ms / medianMs) / Z_99 : 0;
+                yield Math.round(medianMs * Math.exp(sigma * random.nextGaussian()));
+            }
+        };
+    }
+
+    private void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while replaying AI response", e);
+        }
+    }
+
+    private ChatResponse toResponse(String text, RecordedExchange exchange) {
+        ChatResponseMetadata.Builder metadata = ChatResponseMetadata.builder();
+        if (exchange != null) {
+            metadata.model(exchange.getModel())
+                    .usage(new DefaultUsage(exchange.getPromptTokens(), exchange.getCompletionTokens()));
+        }
+        return new ChatResponse(List.of(new Generation(new AssistantMessage(text))), metadata.build());
+    }
+}
@@ -0,0 +1,134 @@
+package com.univade.ai.infrastructure.ai.replay;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.MessageType;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+@Component
+@Profile({"replay", "record"})
+public class ReplayCorpus {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplayCorpus.class);
+    private static final String ENTRY_SUFFIX = ".json";
+    private static final int PREVIEW_LENGTH = 200;
+
+    private final Path directory;
+    private final ObjectMapper objectMapper;
+    private final Map<String, RecordedExchange> exchangesByKey = new ConcurrentHashMap<>();
+    private final List<RecordedExchange> exchanges = new CopyOnWriteArrayList<>();
+    private final AtomicInteger cursor = new AtomicInteger();
+
+    public ReplayCorpus(@Value("${testgen.replay.corpus-directory:replay-corpus}") String directory,
+                        ObjectMapper objectMapper) {
+        this.directory = Paths.get(directory);
+        this.objectMapper = objectMapper;
+        load();
+    }
+
+    public static String key(Prompt prompt) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (Message message : prompt.getInstructions()) {
+                digest.update(message.getMessageType().name().getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+                if (message.getText() != null) {
+                    digest.update(message.getText().getBytes(StandardCharsets.UTF_8));
+                }
+                digest.update((byte) 0);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public static String preview(Prompt prompt) {
+        return prompt.getInstructions().stream()
+                .filter(message -> message.getMessageType() == MessageType.USER)
+                .reduce((first, second) -> second)
+                .map(Message::getText)
+                .map(text -> text.length() > PREVIEW_LENGTH ? text.substring(0, PREVIEW_LENGTH) : text)
+                .orElse("");
+    }
+
+    public Optional<RecordedExchange> find(String key) {
+        return Optional.ofNullable(exchangesByKey.get(key));
+    }
+
+    public Optional<RecordedExchange> next() {
+        if (exchanges.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(exchanges.get(Math.floorMod(cursor.getAndIncrement(), exchanges.size())));
+    }
+
+    public int size() {
+        return exchanges.size();
+    }
+
+    public void save(RecordedExchange exchange) {
+        try {
+            Files.createDirectories(directory);
+            Path target = directory.resolve(exchange.getKey() + ENTRY_SUFFIX);
+            Path temp = Files.createTempFile(directory, exchange.getKey(), ".tmp");
+            objectMapper.writerWithDefaultPrettyPrinter().writeValue(temp.toFile(), exchange);
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            if (exchangesByKey.put(exchange.getKey(), exchange) == null) {
+                exchanges.add(exchange);
+            }
+            logger.debug("Recorded AI exchange {}", exchange.getKey());
+        } catch (IOException e) {
+            logger.warn("Failed to record AI exchange {}", exchange.getKey(), e);
+        }
+    }
+
+    private void load() {
+        if (!Files.isDirectory(directory)) {
+            logger.info("Replay corpus directory {} does not exist yet", directory.toAbsolutePath());
+            return;
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(file -> file.getFileName().toString().endsWith(ENTRY_SUFFIX))
+                    .sorted()
+                    .forEach(this::loadEntry);
+        } catch (IOException e) {
+            logger.warn("Failed to read replay corpus from {}", directory.toAbsolutePath(), e);
+        }
+        logger.info("Loaded {} recorded AI exchanges from {}", exchanges.size(), directory.toAbsolutePath());
+    }
+
+    private void loadEntry(Path file) {
+        try {
+            RecordedExchange exchange = objectMapper.readValue(file.toFile(), RecordedExchange.class);
+            if (exchange.getKey() != null && exchange.getResponse() != null) {
+                exchangesByKey.put(exchange.getKey(), exchange);
+                exchanges.add(exchange);
+            }
+        } catch (IOException e) {
+            logger.warn("Skipping unreadable replay entry {}", file, e);
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package com.univade.ai.infrastructure.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+@Component
+public class LlmResponseCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(LlmResponseCache.class);
+    private static final String ENTRY_SUFFIX = ".txt";
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private final boolean enabled;
+    private final int maxEntries;
+    private final Duration ttl;
+    private final boolean diskEnabled;
+    private final Path diskDirectory;
+    private final int maxDiskEntries;
+    private final Map<String, CacheEntry> entries;
+
+    private final Counter memoryHits;
+    private final Counter diskHits;
+    private final Counter misses;
+
+    public LlmResponseCache(@Value("${testgen.cache.enabled:true}") boolean enabled,
+                            @Value("${testgen.cache.max-entries:500}") int maxEntries,
+                            @Value("${testgen.cache.ttl-minutes:1440}") long ttlMinutes,
+                            @Value("${testgen.cache.disk.enabled:false}") boolean diskEnabled,
+                            @Value("${testgen.cache.disk.directory:llm-cache}") String diskDirectory,
+                            @Value("${testgen.cache.disk.max-entries:5000}") int maxDiskEntries,
+                            MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.maxEntries = maxEntries;
+        this.ttl = Duration.ofMinutes(ttlMinutes);
+        this.diskEnabled = diskEnabled;
+        this.diskDirectory = Paths.get(diskDirectory);
+        this.maxDiskEntries = maxDiskEntries;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CacheEntry> eldest) {
+                return size() > LlmResponseCache.this.maxEntries;
+            }
+        };
+
+        this.memoryHits = Counter.builder("testgen.llm.cache.requests")
+                .tag("result", "hit").tag("tier", "memory")
+                .register(meterRegistry);
+        this.diskHits = Counter.builder("testgen.llm.cache.requests")
+                .tag("result", "hit").tag("tier", "disk")
+                .register(meterRegistry);
+        this.misses = Counter.builder("testgen.llm.cache.requests")
+                .tag("result", "miss").tag("tier", "none")
+                .register(meterRegistry);
+        Gauge.builder("testgen.llm.cache.size", this, LlmResponseCache::size)
+                .register(meterRegistry);
+    }
+
+    public String key(String systemPrompt, String userPrompt, String modelOptions) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            update(digest, systemPrompt);
+            update(digest, userPrompt);
+            update(digest, modelOptions);
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public Optional<String> get(String key) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+
+        Instant now = Instant.now();
+        synchronized (entries) {
+            CacheEntry entry = entries.get(key);
+            if (entry != null) {
+                if (entry.expiresAt().isAfter(now)) {
+                    memoryHits.increment();
+                    return Optional.of(entry.response());
+                }
+                entries.remove(key);
+            }
+        }
+
+        Optional<String> fromDisk = readFromDisk(key, now);
+        if (fromDisk.isPresent()) {
+            diskHits.increment();
+            putInMemory(key, fromDisk.get(), now);
+            return fromDisk;
+        }
+
+        misses.increment();
+        return Optional.empty();
+    }
+
+    public void put(String key, String response) {
+        if (!enabled || response == null) {
+            return;
+        }
+
+        putInMemory(key, response, Instant.now());
+        writeToDisk(key, response);
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * Deletes expired disk entries and leftover temp files, then the oldest entries beyond
+     * max-entries, so the disk tier stays bounded the way the in-memory tier is.
+     */
+    @Scheduled(fixedDelayString = "${testgen.cache.disk.sweep-interval-ms:600000}",
+               initialDelayString = "${testgen.cache.disk.sweep-interval-ms:600000}")
+    public int sweepDisk() {
+        if (!diskEnabled || !Files.isDirectory(diskDirectory)) {
+            return 0;
+        }
+
+        Instant expiredBefore = Instant.now().minus(ttl);
+        List<DiskEntry> live = new ArrayList<>();
+        int deleted = 0;
+        try (Stream<Path> files = Files.list(diskDirectory)) {
+            for (Path path : (Iterable<Path>) files::iterator) {
+                String name = path.getFileName().toString();
+                if (!name.endsWith(ENTRY_SUFFIX) && !name.endsWith(TEMP_SUFFIX)) {
+                    continue;
+                }
+                Instant writtenAt = Files.getLastModifiedTime(path).toInstant();
+                if (writtenAt.isBefore(expiredBefore)) {
+                    deleted += delete(path);
+                } else if (name.endsWith(ENTRY_SUFFIX)) {
+                    live.add(new DiskEntry(path, writtenAt));
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to sweep cached responses in {}", diskDirectory, e);
+            return deleted;
+        }
+
+        if (live.size() > maxDiskEntries) {
+            live.sort(Comparator.comparing(DiskEntry::writtenAt));
+            for (DiskEntry entry : live.subList(0, live.size() - maxDiskEntries)) {
+                deleted += delete(entry.path());
+            }
+        }
+        if (deleted > 0) {
+            logger.debug("Deleted {} cached responses from {}", deleted, diskDirectory);
+        }
+        return deleted;
+    }
+
+    private void putInMemory(String key, String response, Instant now) {
+        synchronized (entries) {
+            entries.put(key, new CacheEntry(response, now.plus(ttl)));
+        }
+    }
+
+    private Optional<String> readFromDisk(String key, Instant now) {
+        if (!diskEnabled) {
+            return Optional.empty();
+        }
+
+        Path entryPath = diskDirectory.resolve(key + ENTRY_SUFFIX);
+        try {
+            if (!Files.exists(entryPath)) {
+                return Optional.empty();
+            }
+            Instant writtenAt = Files.getLastModifiedTime(entryPath).toInstant();
+            if (writtenAt.plus(ttl).isBefore(now)) {
+                Files.deleteIfExists(entryPath);
+                return Optional.empty();
+            }
+            return Optional.of(Files.readString(entryPath, StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            logger.warn("Failed to read cached response: {}", entryPath, e);
+            return Optional.empty();
+        }
+    }
+
+    private void writeToDisk(String key, String response) {
+        if (!diskEnabled) {
+            return;
+        }
+
+        try {
+            Files.createDirectories(diskDirectory);
+            Path tempPath = Files.createTempFile(diskDirectory, key, TEMP_SUFFIX);
+            Files.writeString(tempPath, response, StandardCharsets.UTF_8);
+            Files.move(tempPath, diskDirectory.resolve(key + ENTRY_SUFFIX),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            logger.warn("Failed to write cached response for key: {}", key, e);
+        }
+    }
+
+    private int delete(Path path) {
+        try {
+            return Files.deleteIfExists(path) ? 1 : 0;
+        } catch (IOException e) {
+            logger.warn("Failed to delete cached response: {}", path, e);
+            return 0;
+        }
+    }
+
+    private void update(MessageDigest digest, String value) {
+        byte[] bytes = (value != null ? value : "").getBytes(StandardCharsets.UTF_8);
+        digest.update(Integer.toString(bytes.length).getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) ':');
+        digest.update(bytes);
+    }
+
+    private record CacheEntry(String response, Instant expiresAt) {
+    }
+
+    private record DiskEntry(Path path, Instant writtenAt) {
+    }
+}
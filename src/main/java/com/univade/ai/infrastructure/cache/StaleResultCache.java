@@ -0,0 +1,83 @@
+package com.univade.ai.infrastructure.cache;
+
+import com.univade.ai.domain.model.TestGenerationResult;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+@Component
+public class StaleResultCache {
+
+    private final int maxEntries;
+    private final Map<String, TestGenerationResult> lastGoodResults;
+    private final Counter served;
+
+    public StaleResultCache(@Value("${testgen.llm.circuit.stale-cache.max-entries:1000}") int maxEntries,
+                            MeterRegistry meterRegistry) {
+        this.maxEntries = maxEntries;
+        this.lastGoodResults = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, TestGenerationResult> eldest) {
+                return size() > StaleResultCache.this.maxEntries;
+            }
+        };
+        this.served = Counter.builder("testgen.llm.circuit.stale-served").register(meterRegistry);
+    }
+
+    public void remember(String classSourceCode, TestGenerationResult result) {
+        if (classSourceCode == null || classSourceCode.isBlank() || !"SUCCESS".equals(result.getStatus())) {
+            return;
+        }
+        // Keep a detached copy: the caller goes on to stamp its session and conversation on the original.
+        TestGenerationResult detached = detach(result.copyForSession(null));
+        String fingerprint = fingerprint(classSourceCode);
+        synchronized (lastGoodResults) {
+            lastGoodResults.put(fingerprint, detached);
+        }
+    }
+
+    public Optional<TestGenerationResult> lastGood(String classSourceCode, String sessionId) {
+        if (classSourceCode == null || classSourceCode.isBlank()) {
+            return Optional.empty();
+        }
+        TestGenerationResult result;
+        String fingerprint = fingerprint(classSourceCode);
+        synchronized (lastGoodResults) {
+            result = lastGoodResults.get(fingerprint);
+        }
+        if (result == null) {
+            return Optional.empty();
+        }
+
+        served.increment();
+        TestGenerationResult copy = detach(result.copyForSession(sessionId));
+        copy.setStale(true);
+        return Optional.of(copy);
+    }
+
+    private TestGenerationResult detach(TestGenerationResult result) {
+        result.setConversationId(null);
+        result.setNewConversation(false);
+        result.setTokenUsage(null);
+        return result;
+    }
+
+    private String fingerprint(String classSourceCode) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            String normalized = classSourceCode.strip().replaceAll("\\s+", " ");
+            return HexFormat.of().formatHex(digest.digest(normalized.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.univade.ai.infrastructure.concurrent;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+public class BoundedBatchExecutor {
+
+    private static final Logger logger = LoggerFactory.getLogger(BoundedBatchExecutor.class);
+
+    private final ExecutorService workers;
+    private final ScheduledExecutorService timeouts;
+    private final Duration itemTimeout;
+
+    public BoundedBatchExecutor(String name, int maxConcurrency, long itemTimeoutSeconds) {
+        this.workers = Executors.newFixedThreadPool(maxConcurrency, namedThreads(name + "-"));
+        this.timeouts = Executors.newSingleThreadScheduledExecutor(namedThreads(name + "-timeout-"));
+        this.itemTimeout = Duration.ofSeconds(itemTimeoutSeconds);
+    }
+
+    /**
+     * Runs every item and returns their results in order, using {@code fallback} for items that fail or
+     * time out, errors included. If the calling thread is interrupted, the unfinished items are aborted with
+     * the fallback and the interrupt is kept set for the caller. A fallback that throws fails the whole
+     * batch: the unfinished items are aborted and its exception is rethrown here.
+     */
+    public <I, R> List<R> executeAll(List<I> items, Function<I, R> task, BiFunction<I, Throwable, R> fallback) {
+        List<ItemRun<I, R>> runs = new ArrayList<>(items.size());
+        for (I item : items) {
+            runs.add(submit(item, task, fallback));
+        }
+
+        List<R> results = new ArrayList<>(items.size());
+        for (ItemRun<I, R> run : runs) {
+            try {
+                results.add(run.result.get());
+            } catch (InterruptedException e) {
+                InterruptedException interrupted = new InterruptedException("Batch was interrupted");
+                runs.forEach(pending -> pending.abort(interrupted));
+                Thread.currentThread().interrupt();
+                results.add(run.result.join());
+            } catch (ExecutionException e) {
+                CancellationException cancelled = new CancellationException("Batch failed");
+                runs.forEach(pending -> pending.abort(cancelled));
+                throw rethrow(e.getCause());
+            }
+        }
+        return results;
+    }
+
+    private <I, R> ItemRun<I, R> submit(I item, Function<I, R> task, BiFunction<I, Throwable, R> fallback) {
+        ItemRun<I, R> run = new ItemRun<>(item, fallback);
+        try {
+            workers.execute(() -> runItem(run, task));
+        } catch (RejectedExecutionException e) {
+            run.abort(e);
+        }
+        return run;
+    }
+
+    private <I, R> void runItem(ItemRun<I, R> run, Function<I, R> task) {
+        if (!run.start()) {
+            return;
+        }
+        ScheduledFuture<?> timeout = timeouts.schedule(() -> {
+            if (run.abort(new TimeoutException("Timed out after " + itemTimeout.toSeconds() + "s"))) {
+                logger.warn("Batch item timed out after {}s", itemTimeout.toSeconds());
+            }
+        }, itemTimeout.toMillis(), TimeUnit.MILLISECONDS);
+
+        try {
+            run.result.complete(task.apply(run.item));
+        } catch (Throwable failure) {
+            run.fail(failure);
+        } finally {
+            timeout.cancel(false);
+            run.finish();
+        }
+    }
+
+    private static RuntimeException rethrow(Throwable failure) {
+        if (failure instanceof RuntimeException runtimeException) {
+            return runtimeException;
+        }
+        if (failure instanceof Error error) {
+            throw error;
+        }
+        return new CompletionException(failure);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+        timeouts.shutdownNow();
+    }
+
+    private static ThreadFactory namedThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * One item's run. The worker is only interrupted while it is still running this item: start, finish
+     * and abort share a lock, and finish clears any interrupt that got in before it, so an abort racing
+     * with the end of the item can never hit the next item on the same worker.
+     */
+    private static final class ItemRun<I, R> {
+        private final I item;
+        private final BiFunction<I, Throwable, R> fallback;
+        private final CompletableFuture<R> result = new CompletableFuture<>();
+        private Thread worker;
+        private boolean finished;
+
+        private ItemRun(I item, BiFunction<I, Throwable, R> fallback) {
+            this.item = item;
+            this.fallback = fallback;
+        }
+
+        private synchronized boolean start() {
+            if (result.isDone()) {
+                return false;
+            }
+            worker = Thread.currentThread();
+            return true;
+        }
+
+        private void finish() {
+            synchronized (this) {
+                finished = true;
+                worker = null;
+            }
+            Thread.interrupted();
+        }
+
+        /**
+         * Completes the result with the fallback, or with the fallback's own exception if it throws, so
+         * the result is always completed and a caller waiting on it never hangs.
+         */
+        private boolean fail(Throwable cause) {
+            try {
+                return result.complete(fallback.apply(item, cause));
+            } catch (Throwable fallbackFailure) {
+                if (fallbackFailure != cause) {
+                    fallbackFailure.addSuppressed(cause);
+                }
+                return result.completeExceptionally(fallbackFailure);
+            }
+        }
+
+        private boolean abort(Throwable cause) {
+            if (result.isDone() || !fail(cause)) {
+                return false;
+            }
+            synchronized (this) {
+                if (worker != null && !finished) {
+                    worker.interrupt();
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,262 @@
+package com.univade.ai.infrastructure.concurrent;
+
+import com.univade.ai.domain.exception.LlmCapacityExceededException;
+import com.univade.ai.domain.value.RequestPriority;
+import com.univade.ai.infrastructure.resilience.AdaptiveConcurrencyLimiter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+@Component
+public class FairRequestScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(FairRequestScheduler.class);
+
+    private final boolean enabled;
+    private final int maxConcurrent;
+    private final long maxWaitNanos;
+    private final Map<String, Double> userWeights;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<RequestPriority, PriorityQueue<Waiter>> queues = new EnumMap<>(RequestPriority.class);
+    private final Map<RequestPriority, Double> virtualTime = new EnumMap<>(RequestPriority.class);
+    private final Map<RequestPriority, Map<String, Double>> lastFinishTags = new EnumMap<>(RequestPriority.class);
+    private final Map<RequestPriority, Map<String, Integer>> outstanding = new EnumMap<>(RequestPriority.class);
+    private final Map<RequestPriority, Timer> queueWaitTimers = new EnumMap<>(RequestPriority.class);
+    private int inFlight;
+    private long sequence;
+
+    public FairRequestScheduler(@Value("${testgen.scheduler.enabled:true}") boolean enabled,
+                                @Value("${testgen.scheduler.max-concurrent:64}") int maxConcurrent,
+                                @Value("${testgen.scheduler.max-wait-ms:300000}") long maxWaitMs,
+                                @Value("${testgen.scheduler.user-weights:}") String userWeights,
+                                AdaptiveConcurrencyLimiter concurrencyLimiter,
+                                MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.maxConcurrent = Math.max(1, maxConcurrent);
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMs);
+        this.userWeights = parseWeights(userWeights);
+        this.concurrencyLimiter = concurrencyLimiter;
+
+        for (RequestPriority priority : RequestPriority.values()) {
+            queues.put(priority, new PriorityQueue<>(Comparator.comparingDouble(Waiter::tag)
+                    .thenComparingLong(Waiter::sequence)));
+            virtualTime.put(priority, 0.0);
+            lastFinishTags.put(priority, new HashMap<>());
+            outstanding.put(priority, new HashMap<>());
+            queueWaitTimers.put(priority, Timer.builder("testgen.scheduler.queue.wait")
+                    .tag("priority", priority.name().toLowerCase())
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .register(meterRegistry));
+            Gauge.builder("testgen.scheduler.queued", this, scheduler -> scheduler.getQueued(priority))
+                    .tag("priority", priority.name().toLowerCase())
+                    .register(meterRegistry);
+        }
+        Gauge.builder("testgen.scheduler.in-flight", this, FairRequestScheduler::getInFlight)
+                .register(meterRegistry);
+    }
+
+    public <T> T execute(String userId, RequestPriority priority, Supplier<T> call) {
+        if (!enabled) {
+            return call.get();
+        }
+
+        acquire(userId, priority);
+        try {
+            return call.get();
+        } finally {
+            release(userId, priority);
+        }
+    }
+
+    /**
+     * Admits the stream on subscription. Waiting for a slot blocks, so it happens on a bounded-elastic
+     * thread rather than the subscriber's; cancelling while queued interrupts the wait and gives up the
+     * place in the queue.
+     */
+    public <T> Flux<T> execute(String userId, RequestPriority priority, Flux<T> stream) {
+        if (!enabled) {
+            return stream;
+        }
+
+        return Flux.defer(() -> {
+            acquire(userId, priority);
+            return stream.doFinally(signal -> release(userId, priority));
+        }).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getQueued(RequestPriority priority) {
+        lock.lock();
+        try {
+            return queues.get(priority).size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int getTrackedUsers(RequestPriority priority) {
+        lock.lock();
+        try {
+            return lastFinishTags.get(priority).size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void acquire(String userId, RequestPriority priority) {
+        long start = System.nanoTime();
+        lock.lock();
+        try {
+            // Start-time fair queuing: each request's tag advances the user's virtual clock by 1/weight,
+            // so within a priority class users are served in proportion to their weights.
+            Map<String, Double> userTags = lastFinishTags.get(priority);
+            double startTag = Math.max(virtualTime.get(priority), userTags.getOrDefault(userId, 0.0));
+            double finishTag = startTag + 1.0 / userWeights.getOrDefault(userId, 1.0);
+            userTags.put(userId, finishTag);
+            outstanding.get(priority).merge(userId, 1, Integer::sum);
+
+            Waiter waiter = new Waiter(userId, finishTag, sequence++, lock.newCondition());
+            queues.get(priority).add(waiter);
+            dispatch();
+
+            long deadline = start + maxWaitNanos;
+            while (!waiter.granted) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    queues.get(priority).remove(waiter);
+                    complete(userId, priority);
+                    throw new LlmCapacityExceededException("Timed out waiting for a generation slot");
+                }
+                try {
+                    waiter.condition.awaitNanos(remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    if (waiter.granted) {
+                        inFlight--;
+                        dispatch();
+                    } else {
+                        queues.get(priority).remove(waiter);
+                    }
+                    complete(userId, priority);
+                    throw new LlmCapacityExceededException("Interrupted while waiting for a generation slot", e);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        long waited = System.nanoTime() - start;
+        queueWaitTimers.get(priority).record(waited, TimeUnit.NANOSECONDS);
+        if (waited > TimeUnit.SECONDS.toNanos(1)) {
+            logger.debug("{} request for user {} waited {}ms for a generation slot",
+                    priority, userId, TimeUnit.NANOSECONDS.toMillis(waited));
+        }
+    }
+
+    private void release(String userId, RequestPriority priority) {
+        lock.lock();
+        try {
+            inFlight--;
+            complete(userId, priority);
+            dispatch();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Once a user has nothing queued or in flight in a class, their finish tag is dropped: their next
+     * request starts at the class's virtual time, as it would for a new user. This keeps the tag map
+     * bounded by the users with outstanding requests.
+     */
+    private void complete(String userId, RequestPriority priority) {
+        Map<String, Integer> counts = outstanding.get(priority);
+        if (counts.merge(userId, -1, Integer::sum) <= 0) {
+            counts.remove(userId);
+            lastFinishTags.get(priority).remove(userId);
+        }
+    }
+
+    private void dispatch() {
+        // Admit no more than the limiter currently allows, so requests wait here in fair order rather
+        // than in the limiter's FIFO queue; max-concurrent is only an upper bound on top of that.
+        int admissionLimit = Math.min(maxConcurrent, Math.max(1, concurrencyLimiter.getPermitLimit()));
+        while (inFlight < admissionLimit) {
+            Waiter next = null;
+            for (RequestPriority priority : RequestPriority.values()) {
+                PriorityQueue<Waiter> queue = queues.get(priority);
+                if (!queue.isEmpty()) {
+                    next = queue.poll();
+                    virtualTime.put(priority, Math.max(virtualTime.get(priority), next.tag() - 1.0
+                            / userWeights.getOrDefault(next.userId(), 1.0)));
+                    break;
+                }
+            }
+            if (next == null) {
+                return;
+            }
+            next.granted = true;
+            inFlight++;
+            next.condition.signal();
+        }
+    }
+
+    private static Map<String, Double> parseWeights(String weights) {
+        Map<String, Double> parsed = new HashMap<>();
+        if (weights == null || weights.isBlank()) {
+            return parsed;
+        }
+        for (String entry : weights.split(",")) {
+            String[] parts = entry.trim().split(":");
+            if (parts.length == 2) {
+                parsed.put(parts[0].trim(), Math.max(0.01, Double.parseDouble(parts[1].trim())));
+            }
+        }
+        return parsed;
+    }
+
+    private static final class Waiter {
+        private final String userId;
+        private final double tag;
+        private final long sequence;
+        private final Condition condition;
+        private boolean granted;
+
+        private Waiter(String userId, double tag, long sequence, Condition condition) {
+            this.userId = userId;
+            this.tag = tag;
+            this.sequence = sequence;
+            this.condition = condition;
+        }
+
+        private String userId() { return userId; }
+        private double tag() { return tag; }
+        private long sequence() { return sequence; }
+    }
+}
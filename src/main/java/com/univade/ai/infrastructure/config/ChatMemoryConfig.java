@@ -1,19 +1,58 @@
 package com.univade.ai.infrastructure.config;
 
+import com.univade.ai.infrastructure.persistence.BoundedChatMemoryRepository;
+import com.univade.ai.infrastructure.persistence.JdbcChatMemoryRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.ai.chat.memory.ChatMemory;
+import org.springframework.ai.chat.memory.ChatMemoryRepository;
 import org.springframework.ai.chat.memory.MessageWindowChatMemory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
 
 @Configuration
 public class ChatMemoryConfig {
 
+    @Bean
+    @ConditionalOnProperty(name = "testgen.conversation.memory.store", havingValue = "jdbc", matchIfMissing = true)
+    public JdbcChatMemoryRepository chatMemoryRepository(
+            JdbcTemplate jdbcTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${testgen.conversation.memory.hot-cache-max-bytes:16777216}") long hotCacheMaxBytes,
+            @Value("${testgen.conversation.conversation-timeout-minutes:30}") long timeoutMinutes,
+            @Value("${testgen.conversation.memory.write-batch-size:100}") int batchSize,
+            @Value("${testgen.conversation.memory.flush-interval-ms:200}") long flushIntervalMs,
+            @Value("${testgen.conversation.memory.max-write-attempts:5}") int maxWriteAttempts) {
+        BoundedChatMemoryRepository hotCache =
+                new BoundedChatMemoryRepository("hot-cache", hotCacheMaxBytes, timeoutMinutes, meterRegistry);
+        JdbcChatMemoryRepository repository =
+                new JdbcChatMemoryRepository(jdbcTemplate, hotCache, batchSize, flushIntervalMs, maxWriteAttempts,
+                        meterRegistry);
+        Gauge.builder("testgen.memory.pending-writes", repository, JdbcChatMemoryRepository::getPendingWrites)
+                .register(meterRegistry);
+        return repository;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "testgen.conversation.memory.store", havingValue = "heap")
+    public BoundedChatMemoryRepository heapChatMemoryRepository(
+            @Value("${testgen.conversation.memory.max-bytes:67108864}") long maxBytes,
+            @Value("${testgen.conversation.conversation-timeout-minutes:30}") long timeoutMinutes,
+            MeterRegistry meterRegistry) {
+        return new BoundedChatMemoryRepository("heap", maxBytes, timeoutMinutes, meterRegistry);
+    }
+
     @Bean
     @Primary
-    public ChatMemory chatMemory() {
+    public ChatMemory chatMemory(ChatMemoryRepository chatMemoryRepository,
+                                 @Value("${testgen.conversation.max-messages-per-conversation:50}") int maxMessages) {
         return MessageWindowChatMemory.builder()
-                .maxMessages(50)
+                .chatMemoryRepository(chatMemoryRepository)
+                .maxMessages(maxMessages)
                 .build();
     }
 }
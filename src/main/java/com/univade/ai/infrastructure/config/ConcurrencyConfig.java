@@ -0,0 +1,23 @@
+package com.univade.ai.infrastructure.config;
+
+import com.univade.ai.infrastructure.concurrent.BoundedBatchExecutor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class ConcurrencyConfig {
+
+    @Bean
+    public BoundedBatchExecutor batchExecutor(@Value("${testgen.batch.max-concurrency:8}") int maxConcurrency,
+                                              @Value("${testgen.batch.item-timeout-seconds:180}") long itemTimeoutSeconds) {
+        return new BoundedBatchExecutor("batch-generation", maxConcurrency, itemTimeoutSeconds);
+    }
+
+    // Separate pool so a batch item that fans out never waits on its own workers.
+    @Bean
+    public BoundedBatchExecutor methodGroupExecutor(@Value("${testgen.fanout.max-concurrency:8}") int maxConcurrency,
+                                                    @Value("${testgen.fanout.item-timeout-seconds:120}") long itemTimeoutSeconds) {
+        return new BoundedBatchExecutor("method-group", maxConcurrency, itemTimeoutSeconds);
+    }
+}
@@ -3,25 +3,29 @@ package com.univade.ai.infrastructure.config;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.univade.ai.infrastructure.ai.StablePrefixAdvisor;
 import org.springframework.ai.chat.client.ChatClient;
-import org.springframework.ai.chat.client.advisor.MessageChatMemoryAdvisor;
-import org.springframework.ai.chat.memory.ChatMemory;
-import org.springframework.ai.openai.OpenAiChatModel;
+import org.springframework.ai.chat.model.ChatModel;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
+import org.springframework.core.Ordered;
 
 @Configuration
 public class SpringAiConfig {
 
+    /**
+     * The memory advisor is added per request by {@code OpenAiClient} for conversation turns only. As a
+     * default advisor it would give every stateless call the shared "default" conversation's history.
+     */
     @Bean
     @ConditionalOnClass(ChatClient.class)
     @ConditionalOnMissingBean
-    public ChatClient chatClient(OpenAiChatModel chatModel, ChatMemory chatMemory) {
+    public ChatClient chatClient(ChatModel chatModel) {
         return ChatClient.builder(chatModel)
-                .defaultAdvisors(MessageChatMemoryAdvisor.builder(chatMemory).build())
+                .defaultAdvisors(new StablePrefixAdvisor(Ordered.LOWEST_PRECEDENCE - 1000))
                 .build();
     }
 
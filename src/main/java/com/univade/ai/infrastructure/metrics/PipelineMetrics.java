@@ -0,0 +1,171 @@
+package com.univade.ai.infrastructure.metrics;
+
+import com.univade.ai.domain.model.ModelRoute;
+import com.univade.ai.domain.model.TokenUsage;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+@Component
+public class PipelineMetrics {
+
+    public enum Stage {
+        CONTEXT_BUILD("context-build"),
+        PROMPT_BUILD("prompt-build"),
+        MEMORY_LOOKUP("memory-lookup"),
+        LLM_CALL("llm-call"),
+        PARSE("parse"),
+        VALIDATION("validation"),
+        FILE_WRITE("file-write");
+
+        private final String tag;
+
+        Stage(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    private static final String UNKNOWN = "unknown";
+
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final boolean histograms;
+    private final Map<String, Timer> stageTimers = new ConcurrentHashMap<>();
+    private final Map<String, DistributionSummary> tokenSummaries = new ConcurrentHashMap<>();
+
+    public PipelineMetrics(MeterRegistry meterRegistry,
+                           @Value("${testgen.metrics.pipeline.enabled:true}") boolean enabled,
+                           @Value("${testgen.metrics.pipeline.histograms:true}") boolean histograms) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.histograms = histograms;
+    }
+
+    public Trace startTrace() {
+        return new Trace();
+    }
+
+    public <T> T time(Stage stage, ModelRoute route, Supplier<T> step) {
+        if (!enabled) {
+            return step.get();
+        }
+        long start = System.nanoTime();
+        try {
+            return step.get();
+        } finally {
+            record(stage, route, System.nanoTime() - start);
+        }
+    }
+
+    public void record(Stage stage, ModelRoute route, long nanos) {
+        if (!enabled) {
+            return;
+        }
+        String layer = layerTag(route);
+        String model = modelTag(route);
+        stageTimers.computeIfAbsent(stage.tag + '|' + layer + '|' + model, key -> {
+            Timer.Builder builder = Timer.builder("testgen.pipeline.stage")
+                    .tag("stage", stage.tag)
+                    .tag("layer", layer)
+                    .tag("model", model);
+            if (histograms) {
+                builder.publishPercentileHistogram()
+                        .minimumExpectedValue(Duration.ofMillis(1))
+                        .maximumExpectedValue(Duration.ofMinutes(5));
+            }
+            return builder.register(meterRegistry);
+        }).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordTokens(ModelRoute route, TokenUsage usage) {
+        if (!enabled || usage == null) {
+            return;
+        }
+        String layer = layerTag(route);
+        String model = usage.getModel() != null ? usage.getModel() : modelTag(route);
+        tokenSummary("prompt", layer, model).record(usage.getPromptTokens());
+        tokenSummary("completion", layer, model).record(usage.getCompletionTokens());
+    }
+
+    private DistributionSummary tokenSummary(String type, String layer, String model) {
+        return tokenSummaries.computeIfAbsent(type + '|' + layer + '|' + model, key -> {
+            DistributionSummary.Builder builder = DistributionSummary.builder("testgen.llm.tokens.per-call")
+                    .baseUnit("tokens")
+                    .tag("type", type)
+                    .tag("layer", layer)
+                    .tag("model", model);
+            if (histograms) {
+                builder.publishPercentileHistogram()
+                        .minimumExpectedValue(1.0)
+                        .maximumExpectedValue(200_000.0);
+            }
+            return builder.register(meterRegistry);
+        });
+    }
+
+    private String layerTag(ModelRoute route) {
+        return route != null && route.getTargetLayer() != null
+                ? route.getTargetLayer().name().toLowerCase()
+                : UNKNOWN;
+    }
+
+    private String modelTag(ModelRoute route) {
+        return route != null && route.getModel() != null ? route.getModel() : UNKNOWN;
+    }
+
+    /**
+     * Collects stage durations for one request and publishes them on {@link #finish()}, once the route
+     * (and with it the layer and model tags) is known. Stages that never ran are not recorded.
+     */
+    public final class Trace {
+        private final long[] stageNanos = new long[Stage.values().length];
+        private volatile ModelRoute route;
+
+        private Trace() {
+            Arrays.fill(stageNanos, -1);
+        }
+
+        public <T> T time(Stage stage, Supplier<T> step) {
+            if (!enabled) {
+                return step.get();
+            }
+            long start = System.nanoTime();
+            try {
+                return step.get();
+            } finally {
+                long elapsed = System.nanoTime() - start;
+                stageNanos[stage.ordinal()] = Math.max(0, stageNanos[stage.ordinal()]) + elapsed;
+            }
+        }
+
+        public void time(Stage stage, Runnable step) {
+            time(stage, () -> {
+                step.run();
+                return null;
+            });
+        }
+
+        public void route(ModelRoute route) {
+            if (this.route == null) {
+                this.route = route;
+            }
+        }
+
+        public void finish() {
+            for (Stage stage : Stage.values()) {
+                if (stageNanos[stage.ordinal()] >= 0) {
+                    record(stage, route, stageNanos[stage.ordinal()]);
+                }
+            }
+        }
+    }
+}
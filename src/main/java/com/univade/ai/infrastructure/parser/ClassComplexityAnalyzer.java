@@ -0,0 +1,139 @@
+package com.univade.ai.infrastructure.parser;
+
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.body.CallableDeclaration;
+import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
+import com.github.javaparser.ast.body.ConstructorDeclaration;
+import com.github.javaparser.ast.body.FieldDeclaration;
+import com.github.javaparser.ast.body.MethodDeclaration;
+import com.github.javaparser.ast.body.RecordDeclaration;
+import com.github.javaparser.ast.body.TypeDeclaration;
+import com.github.javaparser.ast.expr.BinaryExpr;
+import com.github.javaparser.ast.expr.ConditionalExpr;
+import com.github.javaparser.ast.stmt.CatchClause;
+import com.github.javaparser.ast.stmt.DoStmt;
+import com.github.javaparser.ast.stmt.ForEachStmt;
+import com.github.javaparser.ast.stmt.ForStmt;
+import com.github.javaparser.ast.stmt.IfStmt;
+import com.github.javaparser.ast.stmt.SwitchEntry;
+import com.github.javaparser.ast.stmt.WhileStmt;
+import com.github.javaparser.ast.type.Type;
+import com.univade.ai.domain.model.ClassComplexity;
+import com.univade.ai.domain.value.TargetLayer;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+@Component
+public class ClassComplexityAnalyzer {
+
+    private static final Set<String> VALUE_TYPES = Set.of(
+            "String", "Integer", "Long", "Double", "Float", "Short", "Byte", "Character", "Boolean",
+            "BigDecimal", "BigInteger", "LocalDate", "LocalDateTime", "Instant", "UUID", "Object");
+
+    public ClassComplexity analyze(String source) {
+        Optional<CompilationUnit> parsed = JavaSources.parse(source);
+        if (parsed.isEmpty()) {
+            return ClassComplexity.unknown();
+        }
+
+        Optional<TypeDeclaration<?>> primaryType = JavaSources.primaryType(parsed.get());
+        if (primaryType.isEmpty()) {
+            return ClassComplexity.unknown();
+        }
+
+        TypeDeclaration<?> type = primaryType.get();
+        List<MethodDeclaration> methods = type.getMethods();
+        List<ConstructorDeclaration> constructors = type.getConstructors();
+
+        ClassComplexity complexity = new ClassComplexity();
+        complexity.setParsed(true);
+        complexity.setClassName(type.getNameAsString());
+        complexity.setMethodCount(methods.size());
+        complexity.setCyclomaticComplexity(methods.stream().mapToInt(this::cyclomaticComplexity).sum()
+                + constructors.stream().mapToInt(this::cyclomaticComplexity).sum());
+        complexity.setDependencyCount(countDependencies(type, constructors));
+        complexity.setTargetLayer(detectLayer(type, methods));
+        return complexity;
+    }
+
+    public int cyclomaticComplexity(CallableDeclaration<?> callable) {
+        int complexity = 1;
+        complexity += countDecisions(callable, IfStmt.class);
+        complexity += countDecisions(callable, ForStmt.class);
+        complexity += countDecisions(callable, ForEachStmt.class);
+        complexity += countDecisions(callable, WhileStmt.class);
+        complexity += countDecisions(callable, DoStmt.class);
+        complexity += countDecisions(callable, CatchClause.class);
+        complexity += countDecisions(callable, ConditionalExpr.class);
+        complexity += (int) callable.findAll(SwitchEntry.class).stream()
+                .filter(entry -> !entry.getLabels().isEmpty())
+                .count();
+        complexity += (int) callable.findAll(BinaryExpr.class).stream()
+                .filter(expr -> expr.getOperator() == BinaryExpr.Operator.AND
+                        || expr.getOperator() == BinaryExpr.Operator.OR)
+                .count();
+        return complexity;
+    }
+
+    private int countDecisions(CallableDeclaration<?> callable, Class<? extends Node> nodeType) {
+        return callable.findAll(nodeType).size();
+    }
+
+    private int countDependencies(TypeDeclaration<?> type, List<ConstructorDeclaration> constructors) {
+        Set<String> dependencies = new HashSet<>();
+        for (FieldDeclaration field : type.getFields()) {
+            if (!field.isStatic()) {
+                field.getVariables().forEach(variable -> addDependency(variable.getType(), dependencies));
+            }
+        }
+        for (ConstructorDeclaration constructor : constructors) {
+            constructor.getParameters().forEach(parameter -> addDependency(parameter.getType(), dependencies));
+        }
+        return dependencies.size();
+    }
+
+    private void addDependency(Type type, Set<String> dependencies) {
+        if (type.isPrimitiveType() || type.isArrayType()) {
+            return;
+        }
+        String name = type.isClassOrInterfaceType()
+                ? type.asClassOrInterfaceType().getNameAsString()
+                : type.asString();
+        if (!VALUE_TYPES.contains(name)) {
+            dependencies.add(name);
+        }
+    }
+
+    private TargetLayer detectLayer(TypeDeclaration<?> type, List<MethodDeclaration> methods) {
+        if (type.isAnnotationPresent("RestController") || type.isAnnotationPresent("Controller")) {
+            return TargetLayer.CONTROLLER;
+        }
+        if (type.isAnnotationPresent("Repository") || extendsRepository(type)) {
+            return TargetLayer.REPOSITORY;
+        }
+        if (type.isAnnotationPresent("Entity") || type.isAnnotationPresent("Embeddable")
+                || type.isAnnotationPresent("Table")) {
+            return TargetLayer.ENTITY;
+        }
+        if (type.isAnnotationPresent("Service") || type.isAnnotationPresent("Component")) {
+            return TargetLayer.SERVICE;
+        }
+        if (type instanceof RecordDeclaration || methods.stream().allMatch(JavaSources::isTrivial)) {
+            return TargetLayer.DTO;
+        }
+        return TargetLayer.SERVICE;
+    }
+
+    private boolean extendsRepository(TypeDeclaration<?> type) {
+        if (!(type instanceof ClassOrInterfaceDeclaration declaration) || !declaration.isInterface()) {
+            return false;
+        }
+        return declaration.getExtendedTypes().stream()
+                .anyMatch(extended -> extended.getNameAsString().endsWith("Repository"));
+    }
+}
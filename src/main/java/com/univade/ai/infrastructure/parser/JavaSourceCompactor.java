@@ -0,0 +1,75 @@
+package com.univade.ai.infrastructure.parser;
+
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.body.MethodDeclaration;
+import com.github.javaparser.ast.comments.Comment;
+import com.github.javaparser.ast.comments.LineComment;
+import com.github.javaparser.ast.stmt.BlockStmt;
+import com.univade.ai.domain.model.CompactionReport;
+import com.univade.ai.domain.service.SourceCompactor;
+import com.univade.ai.domain.value.CompactionLevel;
+import com.univade.ai.infrastructure.ai.TokenEstimator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+@Component
+public class JavaSourceCompactor implements SourceCompactor {
+
+    private static final Logger logger = LoggerFactory.getLogger(JavaSourceCompactor.class);
+    private static final String OMITTED_MARKER = " implementation omitted";
+
+    private final TokenEstimator tokenEstimator;
+
+    public JavaSourceCompactor(TokenEstimator tokenEstimator) {
+        this.tokenEstimator = tokenEstimator;
+    }
+
+    @Override
+    public String compact(String source, CompactionLevel level) {
+        if (source == null || source.isBlank() || level == CompactionLevel.NONE) {
+            return source;
+        }
+
+        Optional<CompilationUnit> parsed = JavaSources.parse(source);
+        if (parsed.isEmpty()) {
+            logger.debug("Source could not be parsed, sending it verbatim");
+            return source;
+        }
+
+        CompilationUnit compilationUnit = parsed.get();
+        stripComments(compilationUnit);
+        if (level == CompactionLevel.COLLAPSE_PRIVATE || level == CompactionLevel.COLLAPSE_PRIVATE_AND_TRIVIAL) {
+            boolean includeTrivial = level == CompactionLevel.COLLAPSE_PRIVATE_AND_TRIVIAL;
+            compilationUnit.findAll(MethodDeclaration.class).stream()
+                    .filter(method -> method.getBody().isPresent())
+                    .filter(method -> method.isPrivate() || (includeTrivial && JavaSources.isTrivial(method)))
+                    .forEach(this::collapseBody);
+        }
+        return compilationUnit.toString();
+    }
+
+    @Override
+    public CompactionReport report(String source) {
+        CompactionReport report = new CompactionReport(tokenEstimator.count(source));
+        for (CompactionLevel level : CompactionLevel.values()) {
+            if (level != CompactionLevel.NONE) {
+                report.recordLevel(level, tokenEstimator.count(compact(source, level)));
+            }
+        }
+        return report;
+    }
+
+    private void stripComments(CompilationUnit compilationUnit) {
+        compilationUnit.getAllContainedComments().forEach(Comment::remove);
+        compilationUnit.removeComment();
+    }
+
+    private void collapseBody(MethodDeclaration method) {
+        BlockStmt body = new BlockStmt();
+        body.addOrphanComment(new LineComment(OMITTED_MARKER));
+        method.setBody(body);
+    }
+}
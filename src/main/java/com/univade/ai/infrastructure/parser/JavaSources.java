@@ -0,0 +1,92 @@
+package com.univade.ai.infrastructure.parser;
+
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ParseResult;
+import com.github.javaparser.ParserConfiguration;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.body.MethodDeclaration;
+import com.github.javaparser.ast.body.TypeDeclaration;
+import com.github.javaparser.ast.expr.AssignExpr;
+import com.github.javaparser.ast.expr.Expression;
+import com.github.javaparser.ast.expr.FieldAccessExpr;
+import com.github.javaparser.ast.stmt.ExpressionStmt;
+import com.github.javaparser.ast.stmt.ReturnStmt;
+import com.github.javaparser.ast.stmt.Statement;
+
+import java.util.Optional;
+import java.util.Set;
+
+final class JavaSources {
+
+    private static final Set<String> TRIVIAL_METHOD_NAMES = Set.of("equals", "hashCode", "toString");
+
+    private JavaSources() {
+    }
+
+    static Optional<CompilationUnit> parse(String source) {
+        if (source == null || source.isBlank()) {
+            return Optional.empty();
+        }
+        ParserConfiguration configuration = new ParserConfiguration()
+                .setLanguageLevel(ParserConfiguration.LanguageLevel.JAVA_17);
+        ParseResult<CompilationUnit> result = new JavaParser(configuration).parse(source);
+        return result.isSuccessful() ? result.getResult() : Optional.empty();
+    }
+
+    static Optional<TypeDeclaration<?>> primaryType(CompilationUnit compilationUnit) {
+        return compilationUnit.getPrimaryType()
+                .or(() -> compilationUnit.getTypes().stream().findFirst());
+    }
+
+    /**
+     * True for {@code equals}, {@code hashCode}, {@code toString} and for plain field accessors: a getter
+     * that only returns one of its type's fields, or a setter that only assigns its parameter to one.
+     */
+    static boolean isTrivial(MethodDeclaration method) {
+        String name = method.getNameAsString();
+        if (TRIVIAL_METHOD_NAMES.contains(name)) {
+            return true;
+        }
+        if (method.getBody().isEmpty() || method.getBody().get().getStatements().size() != 1) {
+            return false;
+        }
+
+        Statement statement = method.getBody().get().getStatement(0);
+        if ((hasAccessorPrefix(name, "get") || hasAccessorPrefix(name, "is")) && method.getParameters().isEmpty()) {
+            // return field; or return this.field;
+            return statement instanceof ReturnStmt returnStmt
+                    && returnStmt.getExpression().map(expression -> isOwnField(method, expression)).orElse(false);
+        }
+        if (hasAccessorPrefix(name, "set") && method.getParameters().size() == 1) {
+            // field = parameter; or this.field = parameter;
+            String parameter = method.getParameter(0).getNameAsString();
+            return statement instanceof ExpressionStmt expressionStmt
+                    && expressionStmt.getExpression() instanceof AssignExpr assign
+                    && assign.getOperator() == AssignExpr.Operator.ASSIGN
+                    && isOwnField(method, assign.getTarget())
+                    && assign.getValue().isNameExpr()
+                    && assign.getValue().asNameExpr().getNameAsString().equals(parameter);
+        }
+        return false;
+    }
+
+    private static boolean hasAccessorPrefix(String name, String prefix) {
+        return name.length() > prefix.length()
+                && name.startsWith(prefix)
+                && Character.isUpperCase(name.charAt(prefix.length()));
+    }
+
+    private static boolean isOwnField(MethodDeclaration method, Expression expression) {
+        String fieldName;
+        if (expression.isNameExpr()) {
+            fieldName = expression.asNameExpr().getNameAsString();
+        } else if (expression instanceof FieldAccessExpr fieldAccess && fieldAccess.getScope().isThisExpr()) {
+            fieldName = fieldAccess.getNameAsString();
+        } else {
+            return false;
+        }
+        return method.findAncestor(TypeDeclaration.class)
+                .map(type -> type.getFieldByName(fieldName).isPresent())
+                .orElse(false);
+    }
+}
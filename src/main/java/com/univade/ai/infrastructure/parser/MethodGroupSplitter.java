@@ -0,0 +1,68 @@
+package com.univade.ai.infrastructure.parser;
+
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.body.MethodDeclaration;
+import com.github.javaparser.ast.body.TypeDeclaration;
+import com.univade.ai.domain.model.MethodGroup;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+@Component
+public class MethodGroupSplitter {
+
+    private final boolean enabled;
+    private final int minMethods;
+    private final int methodsPerGroup;
+
+    public MethodGroupSplitter(@Value("${testgen.fanout.enabled:true}") boolean enabled,
+                               @Value("${testgen.fanout.min-methods:8}") int minMethods,
+                               @Value("${testgen.fanout.methods-per-group:4}") int methodsPerGroup) {
+        this.enabled = enabled;
+        this.minMethods = minMethods;
+        this.methodsPerGroup = Math.max(1, methodsPerGroup);
+    }
+
+    public List<MethodGroup> split(String source) {
+        if (!enabled) {
+            return List.of();
+        }
+
+        Optional<CompilationUnit> parsed = JavaSources.parse(source);
+        Optional<TypeDeclaration<?>> primaryType = parsed.flatMap(JavaSources::primaryType);
+        if (primaryType.isEmpty()) {
+            return List.of();
+        }
+
+        // Overloads share a name and stay in the same group.
+        Set<String> methodNames = new LinkedHashSet<>();
+        primaryType.get().getMethods().stream()
+                .filter(method -> !method.isPrivate())
+                .forEach(method -> methodNames.add(method.getNameAsString()));
+        if (methodNames.size() < minMethods) {
+            return List.of();
+        }
+
+        List<String> orderedNames = new ArrayList<>(methodNames);
+        List<MethodGroup> groups = new ArrayList<>();
+        for (int start = 0; start < orderedNames.size(); start += methodsPerGroup) {
+            List<String> groupNames = orderedNames.subList(start, Math.min(start + methodsPerGroup, orderedNames.size()));
+            groups.add(new MethodGroup(groups.size(), groupNames, groupSource(parsed.get(), Set.copyOf(groupNames))));
+        }
+        return groups;
+    }
+
+    private String groupSource(CompilationUnit compilationUnit, Set<String> groupNames) {
+        CompilationUnit copy = compilationUnit.clone();
+        JavaSources.primaryType(copy).ifPresent(type -> type.getMethods().stream()
+                .filter(method -> !method.isPrivate())
+                .filter(method -> !groupNames.contains(method.getNameAsString()))
+                .forEach(MethodDeclaration::remove));
+        return copy.toString();
+    }
+}
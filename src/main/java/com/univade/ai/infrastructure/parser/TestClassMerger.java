@@ -0,0 +1,264 @@
+package com.univade.ai.infrastructure.parser;
+
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.ImportDeclaration;
+import com.github.javaparser.ast.body.BodyDeclaration;
+import com.github.javaparser.ast.body.CallableDeclaration;
+import com.github.javaparser.ast.body.FieldDeclaration;
+import com.github.javaparser.ast.body.MethodDeclaration;
+import com.github.javaparser.ast.body.TypeDeclaration;
+import com.github.javaparser.ast.expr.AnnotationExpr;
+import com.github.javaparser.ast.stmt.BlockStmt;
+import com.github.javaparser.ast.stmt.Statement;
+import com.univade.ai.domain.model.MethodGroup;
+import com.univade.ai.domain.model.TestGenerationResult;
+import com.univade.ai.domain.model.TokenUsage;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+
+@Component
+public class TestClassMerger {
+
+    private static final Set<String> LIFECYCLE_ANNOTATIONS = Set.of("BeforeEach", "AfterEach", "BeforeAll", "AfterAll");
+
+    /**
+     * Merges the per-group results into one test class. Groups that failed or produced nothing parseable are
+     * left out and named in the error message of an otherwise successful result; only when every group fails
+     * is the merged result an error.
+     */
+    public TestGenerationResult merge(List<MethodGroup> groups, List<TestGenerationResult> parts) {
+        List<TestGenerationResult> succeeded = new ArrayList<>(parts.size());
+        List<CompilationUnit> units = new ArrayList<>(parts.size());
+        List<String> failedMethods = new ArrayList<>();
+        String firstFailure = null;
+        for (int i = 0; i < parts.size(); i++) {
+            TestGenerationResult part = parts.get(i);
+            String failure = failureOf(part);
+            Optional<CompilationUnit> unit = failure == null ? JavaSources.parse(part.getGeneratedTest()) : Optional.empty();
+            if (failure == null && (unit.isEmpty() || JavaSources.primaryType(unit.get()).isEmpty())) {
+                failure = "Generated test class could not be parsed for merging";
+            }
+            if (failure != null) {
+                failedMethods.addAll(groups.get(i).getMethodNames());
+                firstFailure = firstFailure != null ? firstFailure : failure;
+                continue;
+            }
+            succeeded.add(part);
+            units.add(unit.get());
+        }
+
+        if (succeeded.isEmpty()) {
+            return createErrorResult("Method group generation failed: " + firstFailure);
+        }
+
+        TestGenerationResult result;
+        if (succeeded.size() == 1) {
+            result = succeeded.get(0);
+        } else {
+            CompilationUnit merged = units.get(0);
+            TypeDeclaration<?> mergedType = JavaSources.primaryType(merged).orElseThrow();
+            for (int i = 1; i < units.size(); i++) {
+                CompilationUnit unit = units.get(i);
+                for (ImportDeclaration importDeclaration : unit.getImports()) {
+                    if (!merged.getImports().contains(importDeclaration)) {
+                        merged.addImport(importDeclaration.clone());
+                    }
+                }
+                mergeMembers(mergedType, JavaSources.primaryType(unit).orElseThrow(), i);
+            }
+            result = buildResult(succeeded, merged.toString());
+        }
+
+        if (!failedMethods.isEmpty()) {
+            result.setErrorMessage("No tests generated for " + failedMethods + ": " + firstFailure);
+        }
+        return result;
+    }
+
+    private String failureOf(TestGenerationResult part) {
+        if (!"SUCCESS".equals(part.getStatus())) {
+            return part.getErrorMessage() != null ? part.getErrorMessage() : "Generation failed";
+        }
+        return part.getGeneratedTest() == null ? "No test class generated" : null;
+    }
+
+    private void mergeMembers(TypeDeclaration<?> target, TypeDeclaration<?> source, int partIndex) {
+        for (AnnotationExpr annotation : source.getAnnotations()) {
+            if (!target.isAnnotationPresent(annotation.getNameAsString())) {
+                target.addAnnotation(annotation.clone());
+            }
+        }
+
+        for (BodyDeclaration<?> member : source.getMembers()) {
+            if (member instanceof FieldDeclaration field) {
+                mergeField(target, field);
+            } else if (member instanceof MethodDeclaration method) {
+                mergeMethod(target, method, partIndex);
+            } else if (member instanceof TypeDeclaration<?> nestedType) {
+                Optional<TypeDeclaration<?>> existing = target.getMembers().stream()
+                        .filter(TypeDeclaration.class::isInstance)
+                        .map(candidate -> (TypeDeclaration<?>) candidate)
+                        .filter(candidate -> candidate.getNameAsString().equals(nestedType.getNameAsString()))
+                        .findFirst();
+                if (existing.isPresent()) {
+                    mergeMembers(existing.get(), nestedType, partIndex);
+                } else {
+                    target.addMember(nestedType.clone());
+                }
+            } else if (member instanceof CallableDeclaration<?> callable) {
+                boolean exists = target.getMembers().stream()
+                        .filter(CallableDeclaration.class::isInstance)
+                        .map(candidate -> (CallableDeclaration<?>) candidate)
+                        .anyMatch(candidate -> candidate.getSignature().equals(callable.getSignature()));
+                if (!exists) {
+                    target.addMember(callable.clone());
+                }
+            }
+        }
+    }
+
+    private void mergeField(TypeDeclaration<?> target, FieldDeclaration field) {
+        boolean exists = field.getVariables().stream()
+                .anyMatch(variable -> target.getFieldByName(variable.getNameAsString()).isPresent());
+        if (!exists) {
+            target.addMember(field.clone());
+        }
+    }
+
+    private void mergeMethod(TypeDeclaration<?> target, MethodDeclaration method, int partIndex) {
+        Optional<String> lifecycle = method.getAnnotations().stream()
+                .map(AnnotationExpr::getNameAsString)
+                .filter(LIFECYCLE_ANNOTATIONS::contains)
+                .findFirst();
+        if (lifecycle.isPresent()) {
+            Optional<MethodDeclaration> existing = target.getMethods().stream()
+                    .filter(candidate -> candidate.isAnnotationPresent(lifecycle.get()))
+                    .findFirst();
+            if (existing.isPresent() && existing.get().getBody().isPresent() && method.getBody().isPresent()) {
+                mergeFixture(existing.get().getBody().get(), method.getBody().get());
+                return;
+            }
+        }
+
+        MethodDeclaration copy = method.clone();
+        boolean clashes = target.getMethods().stream()
+                .anyMatch(candidate -> candidate.getSignature().equals(method.getSignature()));
+        if (clashes) {
+            copy.setName(method.getNameAsString() + "Group" + (partIndex + 1));
+        }
+        target.addMember(copy);
+    }
+
+    private void mergeFixture(BlockStmt target, BlockStmt source) {
+        Set<String> present = new LinkedHashSet<>();
+        target.getStatements().forEach(statement -> present.add(statement.toString()));
+        for (Statement statement : source.getStatements()) {
+            if (present.add(statement.toString())) {
+                target.addStatement(statement.clone());
+            }
+        }
+    }
+
+    private TestGenerationResult buildResult(List<TestGenerationResult> parts, String sourceCode) {
+        TestGenerationResult first = parts.get(0);
+        TestGenerationResult result = new TestGenerationResult(first.getSessionId());
+
+        TestGenerationResult.TestClass testClass = new TestGenerationResult.TestClass();
+        if (first.getTestClass() != null) {
+            testClass.setPackageName(first.getTestClass().getPackageName());
+            testClass.setClassName(first.getTestClass().getClassName());
+        }
+        testClass.setImports(union(parts, part -> part.getTestClass() != null ? part.getTestClass().getImports() : null));
+        testClass.setAnnotations(union(parts, part -> part.getTestClass() != null ? part.getTestClass().getAnnotations() : null));
+        testClass.setSourceCode(sourceCode);
+        result.setTestClass(testClass);
+
+        TestGenerationResult.TestMetadata metadata = new TestGenerationResult.TestMetadata();
+        if (first.getMetadata() != null) {
+            metadata.setComponentType(first.getMetadata().getComponentType());
+            metadata.setEntityName(first.getMetadata().getEntityName());
+            metadata.setTestFramework(first.getMetadata().getTestFramework());
+            metadata.setAssertionLibrary(first.getMetadata().getAssertionLibrary());
+        }
+        metadata.setTestCount(parts.stream()
+                .mapToInt(part -> part.getMetadata() != null ? part.getMetadata().getTestCount() : 0)
+                .sum());
+        metadata.setCoverageAreas(union(parts, part -> part.getMetadata() != null ? part.getMetadata().getCoverageAreas() : null));
+        metadata.setDependencies(union(parts, part -> part.getMetadata() != null ? part.getMetadata().getDependencies() : null));
+        result.setMetadata(metadata);
+
+        TestGenerationResult.TestSummary summary = new TestGenerationResult.TestSummary();
+        TestGenerationResult.QualityChecklist checklist = new TestGenerationResult.QualityChecklist();
+        checklist.setAllTestsExecutable(true);
+        checklist.setProperMocking(true);
+        checklist.setComprehensiveAssertions(true);
+        checklist.setFollowsNamingConventions(true);
+        checklist.setIncludesEdgeCases(true);
+        checklist.setHandlesErrorConditions(true);
+        int promptTokens = 0;
+        int completionTokens = 0;
+        int cachedPromptTokens = 0;
+        for (TestGenerationResult part : parts) {
+            TestGenerationResult.TestSummary partSummary = part.getTestSummary();
+            if (partSummary != null) {
+                summary.setHappyPathTests(summary.getHappyPathTests() + partSummary.getHappyPathTests());
+                summary.setEdgeCaseTests(summary.getEdgeCaseTests() + partSummary.getEdgeCaseTests());
+                summary.setErrorConditionTests(summary.getErrorConditionTests() + partSummary.getErrorConditionTests());
+                summary.setValidationTests(summary.getValidationTests() + partSummary.getValidationTests());
+            }
+            TestGenerationResult.QualityChecklist partChecklist = part.getQualityChecklist();
+            if (partChecklist != null) {
+                checklist.setAllTestsExecutable(checklist.isAllTestsExecutable() && partChecklist.isAllTestsExecutable());
+                checklist.setProperMocking(checklist.isProperMocking() && partChecklist.isProperMocking());
+                checklist.setComprehensiveAssertions(checklist.isComprehensiveAssertions() && partChecklist.isComprehensiveAssertions());
+                checklist.setFollowsNamingConventions(checklist.isFollowsNamingConventions() && partChecklist.isFollowsNamingConventions());
+                checklist.setIncludesEdgeCases(checklist.isIncludesEdgeCases() && partChecklist.isIncludesEdgeCases());
+                checklist.setHandlesErrorConditions(checklist.isHandlesErrorConditions() && partChecklist.isHandlesErrorConditions());
+            }
+            TokenUsage usage = part.getTokenUsage();
+            if (usage != null) {
+                promptTokens += usage.getPromptTokens();
+                completionTokens += usage.getCompletionTokens();
+                cachedPromptTokens += usage.getCachedPromptTokens();
+            }
+        }
+        result.setTestSummary(summary);
+        result.setQualityChecklist(checklist);
+
+        String model = parts.stream()
+                .map(TestGenerationResult::getTokenUsage)
+                .filter(usage -> usage != null && usage.getModel() != null)
+                .map(TokenUsage::getModel)
+                .distinct()
+                .reduce((left, right) -> left + "," + right)
+                .orElse(null);
+        result.setTokenUsage(new TokenUsage(model, promptTokens, completionTokens, cachedPromptTokens));
+        return result;
+    }
+
+    private List<String> union(List<TestGenerationResult> parts,
+                               Function<TestGenerationResult, Collection<String>> values) {
+        Set<String> merged = new LinkedHashSet<>();
+        for (TestGenerationResult part : parts) {
+            Collection<String> partValues = values.apply(part);
+            if (partValues != null) {
+                merged.addAll(partValues);
+            }
+        }
+        return new ArrayList<>(merged);
+    }
+
+    private TestGenerationResult createErrorResult(String errorMessage) {
+        TestGenerationResult result = new TestGenerationResult();
+        result.setStatus("ERROR");
+        result.setErrorMessage(errorMessage);
+        return result;
+    }
+}
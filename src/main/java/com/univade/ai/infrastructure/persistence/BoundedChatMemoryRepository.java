@@ -0,0 +1,205 @@
+package com.univade.ai.infrastructure.persistence;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.chat.messages.Message;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Chat memory held on the heap under a byte budget shared by all conversations. Conversations are
+ * kept in access order: idle ones past the TTL are dropped first, then the least recently used until
+ * the total fits the budget again.
+ */
+public class BoundedChatMemoryRepository implements CompactingChatMemoryRepository {
+
+    private static final Logger logger = LoggerFactory.getLogger(BoundedChatMemoryRepository.class);
+
+    private static final long MESSAGE_OVERHEAD_BYTES = 128;
+
+    private final long maxBytes;
+    private final long ttlMs;
+    private final LinkedHashMap<String, StoredConversation> conversations = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalBytes;
+
+    private final Counter lruEvictions;
+    private final Counter ttlEvictions;
+
+    public BoundedChatMemoryRepository(String name, long maxBytes, long timeoutMinutes, MeterRegistry meterRegistry) {
+        this.maxBytes = maxBytes;
+        this.ttlMs = TimeUnit.MINUTES.toMillis(timeoutMinutes);
+
+        this.lruEvictions = Counter.builder("testgen.memory.evictions")
+                .tag("store", name)
+                .tag("reason", "lru")
+                .register(meterRegistry);
+        this.ttlEvictions = Counter.builder("testgen.memory.evictions")
+                .tag("store", name)
+                .tag("reason", "ttl")
+                .register(meterRegistry);
+        Gauge.builder("testgen.memory.conversations", this, BoundedChatMemoryRepository::getConversationCount)
+                .tag("store", name)
+                .register(meterRegistry);
+        Gauge.builder("testgen.memory.bytes", this, BoundedChatMemoryRepository::getTotalBytes)
+                .tag("store", name)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public List<String> findConversationIds() {
+        synchronized (conversations) {
+            evictExpired(System.currentTimeMillis());
+            return new ArrayList<>(conversations.keySet());
+        }
+    }
+
+    @Override
+    public List<Message> findByConversationId(String conversationId) {
+        synchronized (conversations) {
+            StoredConversation conversation = conversations.get(conversationId);
+            if (conversation == null) {
+                return List.of();
+            }
+            long now = System.currentTimeMillis();
+            if (conversation.isExpired(now, ttlMs)) {
+                remove(conversationId);
+                ttlEvictions.increment();
+                return List.of();
+            }
+            conversation.lastAccessMs = now;
+            return conversation.messages;
+        }
+    }
+
+    @Override
+    public void saveAll(String conversationId, List<Message> messages) {
+        StoredConversation conversation = new StoredConversation(List.copyOf(messages), sizeOf(messages),
+                System.currentTimeMillis());
+        synchronized (conversations) {
+            StoredConversation previous = conversations.put(conversationId, conversation);
+            totalBytes += conversation.bytes - (previous != null ? previous.bytes : 0);
+            evictExpired(conversation.lastAccessMs);
+            evictToBudget(conversationId);
+        }
+    }
+
+    @Override
+    public boolean replaceIfUnchanged(String conversationId, List<Message> expectedPrefix, List<Message> replacement) {
+        synchronized (conversations) {
+            List<Message> current = findByConversationId(conversationId);
+            if (!CompactingChatMemoryRepository.startsWith(current, expectedPrefix)) {
+                return false;
+            }
+            saveAll(conversationId, CompactingChatMemoryRepository.replacePrefix(current, expectedPrefix.size(), replacement));
+            return true;
+        }
+    }
+
+    @Override
+    public void deleteByConversationId(String conversationId) {
+        synchronized (conversations) {
+            remove(conversationId);
+        }
+    }
+
+    /**
+     * Drops conversations idle for longer than the TTL and returns their ids. Access order puts the
+     * idlest first, so the scan stops at the first live entry.
+     */
+    public List<String> evictExpired() {
+        synchronized (conversations) {
+            return evictExpired(System.currentTimeMillis());
+        }
+    }
+
+    public int getConversationCount() {
+        synchronized (conversations) {
+            return conversations.size();
+        }
+    }
+
+    public long getTotalBytes() {
+        synchronized (conversations) {
+            return totalBytes;
+        }
+    }
+
+    private List<String> evictExpired(long now) {
+        List<String> evicted = new ArrayList<>();
+        Iterator<Map.Entry<String, StoredConversation>> iterator = conversations.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, StoredConversation> eldest = iterator.next();
+            if (!eldest.getValue().isExpired(now, ttlMs)) {
+                break;
+            }
+            iterator.remove();
+            totalBytes -= eldest.getValue().bytes;
+            evicted.add(eldest.getKey());
+            ttlEvictions.increment();
+        }
+        if (!evicted.isEmpty()) {
+            logger.debug("Evicted {} idle conversations from chat memory", evicted.size());
+        }
+        return evicted;
+    }
+
+    private void evictToBudget(String keep) {
+        Iterator<Map.Entry<String, StoredConversation>> iterator = conversations.entrySet().iterator();
+        while (totalBytes > maxBytes && iterator.hasNext()) {
+            Map.Entry<String, StoredConversation> eldest = iterator.next();
+            if (eldest.getKey().equals(keep)) {
+                continue;
+            }
+            iterator.remove();
+            totalBytes -= eldest.getValue().bytes;
+            lruEvictions.increment();
+            logger.debug("Evicted conversation {} from chat memory to stay under {} bytes", eldest.getKey(), maxBytes);
+        }
+        if (totalBytes > maxBytes) {
+            logger.warn("Conversation {} alone holds {} bytes of chat memory, above the {} byte budget",
+                    keep, totalBytes, maxBytes);
+        }
+    }
+
+    private void remove(String conversationId) {
+        StoredConversation removed = conversations.remove(conversationId);
+        if (removed != null) {
+            totalBytes -= removed.bytes;
+        }
+    }
+
+    private long sizeOf(List<Message> messages) {
+        long bytes = 0;
+        for (Message message : messages) {
+            String text = message.getText();
+            // Strings are UTF-16 on the heap; the overhead covers the message object and its metadata map.
+            bytes += MESSAGE_OVERHEAD_BYTES + (text != null ? 2L * text.length() : 0);
+        }
+        return bytes;
+    }
+
+    private static final class StoredConversation {
+        private final List<Message> messages;
+        private final long bytes;
+        private long lastAccessMs;
+
+        private StoredConversation(List<Message> messages, long bytes, long lastAccessMs) {
+            this.messages = messages;
+            this.bytes = bytes;
+            this.lastAccessMs = lastAccessMs;
+        }
+
+        private boolean isExpired(long now, long ttlMs) {
+            return ttlMs > 0 && now - lastAccessMs > ttlMs;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.univade.ai.infrastructure.persistence;
+
+import org.springframework.ai.chat.memory.ChatMemoryRepository;
+import org.springframework.ai.chat.messages.Message;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Chat memory that can swap the start of a conversation for a shorter replacement, e.g. a summary,
+ * without losing messages saved while the replacement was being produced.
+ */
+public interface CompactingChatMemoryRepository extends ChatMemoryRepository {
+
+    /**
+     * Replaces {@code expectedPrefix} with {@code replacement} and keeps whatever follows it, provided the
+     * conversation still starts with {@code expectedPrefix}. Runs under the same lock as
+     * {@link #saveAll}, so no save can land between the check and the write. Returns whether it replaced.
+     */
+    boolean replaceIfUnchanged(String conversationId, List<Message> expectedPrefix, List<Message> replacement);
+
+    static boolean startsWith(List<Message> messages, List<Message> prefix) {
+        if (messages.size() < prefix.size()) {
+            return false;
+        }
+        for (int i = 0; i < prefix.size(); i++) {
+            Message a = messages.get(i);
+            Message b = prefix.get(i);
+            if (a.getMessageType() != b.getMessageType() || !Objects.equals(a.getText(), b.getText())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static List<Message> replacePrefix(List<Message> messages, int prefixSize, List<Message> replacement) {
+        List<Message> replaced = new ArrayList<>(replacement.size() + messages.size() - prefixSize);
+        replaced.addAll(replacement);
+        replaced.addAll(messages.subList(prefixSize, messages.size()));
+        return replaced;
+    }
+}
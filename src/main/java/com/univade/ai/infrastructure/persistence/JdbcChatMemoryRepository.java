@@ -0,0 +1,398 @@
+package com.univade.ai.infrastructure.persistence;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.MessageType;
+import org.springframework.ai.chat.messages.SystemMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Chat memory persisted in the {@code chat_memory_message} table. Writes are queued and flushed in
+ * batches by a background thread, so the request path never waits on an insert; reads are served by
+ * a bounded hot cache, then by not yet flushed writes, and only then by a query. A batch that fails
+ * is retried as a full replace of each conversation it touched, using that conversation's latest snapshot.
+ */
+public class JdbcChatMemoryRepository implements CompactingChatMemoryRepository {
+
+    private static final Logger logger = LoggerFactory.getLogger(JdbcChatMemoryRepository.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BoundedChatMemoryRepository hotCache;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final int maxWriteAttempts;
+
+    private final BlockingQueue<WriteOperation> writes = new LinkedBlockingQueue<>();
+    private final Map<String, List<Message>> unflushed = new ConcurrentHashMap<>();
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    private final Counter retriedWrites;
+    private final Counter droppedWrites;
+
+    public JdbcChatMemoryRepository(JdbcTemplate jdbcTemplate, BoundedChatMemoryRepository hotCache,
+                                    int batchSize, long flushIntervalMs, int maxWriteAttempts,
+                                    MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.hotCache = hotCache;
+        this.batchSize = Math.max(1, batchSize);
+        this.flushIntervalMs = Math.max(1, flushIntervalMs);
+        this.maxWriteAttempts = Math.max(1, maxWriteAttempts);
+        this.retriedWrites = Counter.builder("testgen.memory.write-failures")
+                .tag("outcome", "retried")
+                .register(meterRegistry);
+        this.droppedWrites = Counter.builder("testgen.memory.write-failures")
+                .tag("outcome", "dropped")
+                .register(meterRegistry);
+        this.writer = new Thread(this::writeLoop, "chat-memory-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    @Override
+    public List<String> findConversationIds() {
+        Set<String> ids = new LinkedHashSet<>(jdbcTemplate.queryForList(
+                "SELECT conversation_id FROM chat_memory_conversation", String.class));
+        ids.addAll(unflushed.keySet());
+        return new ArrayList<>(ids);
+    }
+
+    @Override
+    public List<Message> findByConversationId(String conversationId) {
+        List<Message> cached = hotCache.findByConversationId(conversationId);
+        if (!cached.isEmpty()) {
+            return cached;
+        }
+
+        List<Message> pending = unflushed.get(conversationId);
+        if (pending != null) {
+            return pending;
+        }
+
+        List<Message> stored = jdbcTemplate.query("""
+                SELECT message_type, content FROM chat_memory_message
+                WHERE conversation_id = ?
+                ORDER BY id
+                """, (rs, rowNum) -> toMessage(rs.getString("message_type"), rs.getString("content")), conversationId);
+        if (!stored.isEmpty()) {
+            hotCache.saveAll(conversationId, stored);
+        }
+        return stored;
+    }
+
+    @Override
+    public synchronized void saveAll(String conversationId, List<Message> messages) {
+        List<Message> previous = findByConversationId(conversationId);
+        List<Message> current = List.copyOf(messages);
+
+        hotCache.saveAll(conversationId, current);
+        unflushed.put(conversationId, current);
+        writes.add(diff(conversationId, previous, current));
+    }
+
+    @Override
+    public synchronized boolean replaceIfUnchanged(String conversationId, List<Message> expectedPrefix,
+                                                   List<Message> replacement) {
+        List<Message> current = findByConversationId(conversationId);
+        if (!CompactingChatMemoryRepository.startsWith(current, expectedPrefix)) {
+            return false;
+        }
+        saveAll(conversationId, CompactingChatMemoryRepository.replacePrefix(current, expectedPrefix.size(), replacement));
+        return true;
+    }
+
+    @Override
+    public synchronized void deleteByConversationId(String conversationId) {
+        hotCache.deleteByConversationId(conversationId);
+        unflushed.put(conversationId, List.of());
+        writes.add(new WriteOperation(conversationId, 0, List.of(), true, List.of(), 0, null));
+    }
+
+    /**
+     * Deletes the stored messages of conversations nothing was written to since {@code cutoff}. This
+     * catches conversations whose tracking was lost, e.g. across a restart, and so are never cleared
+     * through the chat memory. Conversations with pending writes or matched by {@code keep} stay.
+     * <p>
+     * Candidates come from an index range over {@code chat_memory_conversation.last_activity}, so only
+     * idle conversations are read. The lookup runs without the lock saveAll takes; each deletion is queued
+     * behind the writes already pending and is skipped by the writer if the conversation was written to in
+     * the meantime. Returns the number of conversations queued for deletion.
+     */
+    public int deleteIdleConversations(LocalDateTime cutoff, Predicate<String> keep) {
+        List<String> idle = jdbcTemplate.queryForList(
+                "SELECT conversation_id FROM chat_memory_conversation WHERE last_activity < ?",
+                String.class, Timestamp.valueOf(cutoff));
+        int queued = 0;
+        for (String conversationId : idle) {
+            if (!keep.test(conversationId) && queueIdleDelete(conversationId, cutoff)) {
+                queued++;
+            }
+        }
+        return queued;
+    }
+
+    private synchronized boolean queueIdleDelete(String conversationId, LocalDateTime cutoff) {
+        if (unflushed.containsKey(conversationId)) {
+            return false;
+        }
+        hotCache.deleteByConversationId(conversationId);
+        writes.add(new WriteOperation(conversationId, 0, List.of(), false, null, 0, cutoff));
+        return true;
+    }
+
+    public int getPendingWrites() {
+        return writes.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        writer.interrupt();
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+
+    /**
+     * MessageWindowChatMemory always saves the whole window. When the new window is the old one with
+     * its oldest messages dropped and new ones appended, only that difference is written.
+     */
+    static WriteOperation diff(String conversationId, List<Message> previous, List<Message> current) {
+        for (int dropped = 0; dropped <= previous.size(); dropped++) {
+            int kept = previous.size() - dropped;
+            if (kept <= current.size() && sameMessages(previous.subList(dropped, previous.size()), current.subList(0, kept))) {
+                return new WriteOperation(conversationId, dropped, current.subList(kept, current.size()), false, current, 0,
+                        null);
+            }
+        }
+        return new WriteOperation(conversationId, 0, current, true, current, 0, null);
+    }
+
+    private static boolean sameMessages(List<Message> left, List<Message> right) {
+        for (int i = 0; i < left.size(); i++) {
+            Message a = left.get(i);
+            Message b = right.get(i);
+            if (a != b && (a.getMessageType() != b.getMessageType() || !String.valueOf(a.getText()).equals(String.valueOf(b.getText())))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void writeLoop() {
+        while (running) {
+            try {
+                WriteOperation first = writes.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    List<WriteOperation> batch = new ArrayList<>(batchSize);
+                    batch.add(first);
+                    writes.drainTo(batch, batchSize - 1);
+                    if (!tryWrite(batch)) {
+                        TimeUnit.MILLISECONDS.sleep(flushIntervalMs);
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void flush() {
+        List<WriteOperation> remaining = new ArrayList<>();
+        writes.drainTo(remaining);
+        for (int start = 0; start < remaining.size(); start += batchSize) {
+            List<WriteOperation> batch = remaining.subList(start, Math.min(remaining.size(), start + batchSize));
+            try {
+                write(batch);
+            } catch (RuntimeException e) {
+                logger.error("Failed to flush {} chat memory operations on shutdown", batch.size(), e);
+            }
+        }
+    }
+
+    private boolean tryWrite(List<WriteOperation> batch) {
+        try {
+            write(batch);
+            return true;
+        } catch (RuntimeException e) {
+            logger.error("Failed to write chat memory batch of {} operations, rewriting affected conversations",
+                    batch.size(), e);
+            requeueAsReplace(batch);
+            return false;
+        }
+    }
+
+    /**
+     * A failed batch may have been applied in part, so the queued diffs of the conversations it touched no
+     * longer fit what is stored. They are taken out of the queue and replaced by one full rewrite per
+     * conversation with its latest snapshot. Runs under the same lock as saveAll, so no diff can be queued
+     * against a snapshot older than the rewrite.
+     */
+    private synchronized void requeueAsReplace(List<WriteOperation> failed) {
+        Map<String, Integer> attempts = new LinkedHashMap<>();
+        failed.forEach(operation -> attempts.merge(operation.conversationId(), operation.attempt(), Integer::max));
+
+        List<WriteOperation> queued = new ArrayList<>();
+        writes.drainTo(queued);
+        for (WriteOperation operation : queued) {
+            if (attempts.containsKey(operation.conversationId())) {
+                attempts.merge(operation.conversationId(), operation.attempt(), Integer::max);
+            } else {
+                writes.add(operation);
+            }
+        }
+
+        attempts.forEach((conversationId, attempt) -> {
+            List<Message> snapshot = unflushed.get(conversationId);
+            if (snapshot == null) {
+                return;
+            }
+            if (attempt + 1 >= maxWriteAttempts) {
+                // The hot cache still holds the snapshot; left there, later diffs would be taken against
+                // messages the database never got. Without it, the next save diffs against what is stored.
+                unflushed.remove(conversationId, snapshot);
+                hotCache.deleteByConversationId(conversationId);
+                droppedWrites.increment();
+                logger.error("Giving up on persisting conversation {} after {} failed writes", conversationId,
+                        attempt + 1);
+                return;
+            }
+            writes.add(new WriteOperation(conversationId, 0, snapshot, true, snapshot, attempt + 1, null));
+            retriedWrites.increment();
+        });
+    }
+
+    private void write(List<WriteOperation> batch) {
+        // Inserts are batched until a delete needs to run, which keeps each conversation's writes in order.
+        List<Object[]> inserts = new ArrayList<>();
+        Map<String, Boolean> touched = new LinkedHashMap<>();
+        for (WriteOperation operation : batch) {
+            if (operation.idleBefore() != null) {
+                insert(inserts);
+                deleteIfIdle(operation.conversationId(), operation.idleBefore());
+                continue;
+            }
+            if (operation.replace() || operation.dropped() > 0) {
+                insert(inserts);
+                if (operation.replace()) {
+                    jdbcTemplate.update("DELETE FROM chat_memory_message WHERE conversation_id = ?",
+                            operation.conversationId());
+                } else {
+                    jdbcTemplate.update("""
+                            DELETE FROM chat_memory_message WHERE id IN (
+                                SELECT id FROM chat_memory_message WHERE conversation_id = ?
+                                ORDER BY id FETCH FIRST ? ROWS ONLY)
+                            """, operation.conversationId(), operation.dropped());
+                }
+            }
+
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            for (Message message : operation.appended()) {
+                inserts.add(new Object[] {operation.conversationId(), message.getMessageType().name(),
+                        message.getText() != null ? message.getText() : "", now});
+            }
+            touched.put(operation.conversationId(), !(operation.replace() && operation.appended().isEmpty()));
+        }
+        insert(inserts);
+        touch(touched);
+        // Only now is the database at least as new as each snapshot; a newer snapshot stays in place.
+        batch.stream()
+                .filter(operation -> operation.snapshot() != null)
+                .forEach(operation -> unflushed.remove(operation.conversationId(), operation.snapshot()));
+        logger.debug("Wrote {} chat memory operations", batch.size());
+    }
+
+    /**
+     * A save queued after the sweep looked at this conversation shows up in {@code unflushed}, and one
+     * already written has a newer row; either way the conversation is in use again and stays.
+     */
+    private void deleteIfIdle(String conversationId, LocalDateTime cutoff) {
+        if (unflushed.containsKey(conversationId)) {
+            return;
+        }
+        int idle = jdbcTemplate.update(
+                "DELETE FROM chat_memory_conversation WHERE conversation_id = ? AND last_activity < ?",
+                conversationId, Timestamp.valueOf(cutoff));
+        if (idle > 0) {
+            int deleted = jdbcTemplate.update("DELETE FROM chat_memory_message WHERE conversation_id = ?",
+                    conversationId);
+            logger.debug("Deleted {} stored messages of idle conversation {}", deleted, conversationId);
+        }
+    }
+
+    /**
+     * Keeps one row per stored conversation with the time of its last write; a conversation whose
+     * messages were all deleted loses its row.
+     */
+    private void touch(Map<String, Boolean> touched) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> active = new ArrayList<>();
+        List<Object[]> deleted = new ArrayList<>();
+        touched.forEach((conversationId, stored) -> {
+            if (stored) {
+                active.add(new Object[] {conversationId, now});
+            } else {
+                deleted.add(new Object[] {conversationId});
+            }
+        });
+        if (!active.isEmpty()) {
+            jdbcTemplate.batchUpdate(
+                    "MERGE INTO chat_memory_conversation (conversation_id, last_activity) KEY (conversation_id) VALUES (?, ?)",
+                    active);
+        }
+        if (!deleted.isEmpty()) {
+            jdbcTemplate.batchUpdate("DELETE FROM chat_memory_conversation WHERE conversation_id = ?", deleted);
+        }
+    }
+
+    private void insert(List<Object[]> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO chat_memory_message (conversation_id, message_type, content, created_at)
+                VALUES (?, ?, ?, ?)
+                """, rows);
+        rows.clear();
+    }
+
+    private Message toMessage(String type, String content) {
+        return switch (MessageType.valueOf(type)) {
+            case USER -> new UserMessage(content);
+            case SYSTEM -> new SystemMessage(content);
+            default -> new AssistantMessage(content);
+        };
+    }
+
+    /**
+     * One queued write. {@code snapshot} is the conversation the write brings the database up to; an
+     * operation with {@code idleBefore} set is a sweep deletion instead and carries no snapshot.
+     */
+    record WriteOperation(String conversationId, int dropped, List<Message> appended, boolean replace,
+                          List<Message> snapshot, int attempt, LocalDateTime idleBefore) {
+    }
+}
@@ -0,0 +1,186 @@
+package com.univade.ai.infrastructure.persistence;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.univade.ai.domain.model.GenerationJob;
+import com.univade.ai.domain.model.JobStatus;
+import com.univade.ai.domain.model.TestGenerationResult;
+import com.univade.ai.domain.model.TokenUsage;
+import com.univade.ai.domain.repository.GenerationJobRepository;
+import com.univade.ai.domain.value.RequestPriority;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public class JdbcGenerationJobRepository implements GenerationJobRepository {
+
+    private static final Logger logger = LoggerFactory.getLogger(JdbcGenerationJobRepository.class);
+    private static final int MAX_CLAIM_ATTEMPTS = 5;
+    private static final int MAX_ERROR_LENGTH = 4000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final RowMapper<GenerationJob> rowMapper = this::mapRow;
+
+    public JdbcGenerationJobRepository(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void save(GenerationJob job) {
+        jdbcTemplate.update("""
+                INSERT INTO generation_job (id, status, session_id, conversation_id, user_input,
+                                            class_source_code, user_id, priority, attempts, created_at)
+                VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+                """,
+                job.getId(), job.getStatus().name(), job.getSessionId(), job.getConversationId(),
+                job.getUserInput(), job.getClassSourceCode(), job.getUserId(),
+                job.getPriority() != null ? job.getPriority().name() : null,
+                job.getAttempts(), Timestamp.valueOf(job.getCreatedAt()));
+    }
+
+    @Override
+    public Optional<GenerationJob> findById(String jobId) {
+        List<GenerationJob> jobs = jdbcTemplate.query("SELECT * FROM generation_job WHERE id = ?", rowMapper, jobId);
+        return jobs.stream().findFirst();
+    }
+
+    @Override
+    public Optional<GenerationJob> claimNext() {
+        // The conditional update is the claim: if another worker got there first it matches no row.
+        // Jobs put back after a rejection wait until their not_before time has passed.
+        for (int attempt = 0; attempt < MAX_CLAIM_ATTEMPTS; attempt++) {
+            List<String> candidates = jdbcTemplate.queryForList("""
+                    SELECT id FROM generation_job
+                    WHERE status = 'QUEUED' AND (not_before IS NULL OR not_before <= ?)
+                    ORDER BY created_at LIMIT 1
+                    """, String.class, Timestamp.valueOf(LocalDateTime.now()));
+            if (candidates.isEmpty()) {
+                return Optional.empty();
+            }
+
+            String jobId = candidates.get(0);
+            int claimed = jdbcTemplate.update("""
+                    UPDATE generation_job
+                    SET status = 'RUNNING', started_at = ?, attempts = attempts + 1
+                    WHERE id = ? AND status = 'QUEUED'
+                    """, Timestamp.valueOf(LocalDateTime.now()), jobId);
+            if (claimed == 1) {
+                return findById(jobId);
+            }
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public void complete(String jobId, TestGenerationResult result) {
+        JobStatus status = "SUCCESS".equals(result.getStatus()) ? JobStatus.SUCCEEDED : JobStatus.FAILED;
+        jdbcTemplate.update("""
+                UPDATE generation_job
+                SET status = ?, result_json = ?, token_usage_json = ?, error_message = ?, finished_at = ?
+                WHERE id = ?
+                """,
+                status.name(), toJson(result), toJson(result.getTokenUsage()), truncate(result.getErrorMessage()),
+                Timestamp.valueOf(LocalDateTime.now()), jobId);
+    }
+
+    @Override
+    public void fail(String jobId, String errorMessage) {
+        jdbcTemplate.update("""
+                UPDATE generation_job
+                SET status = 'FAILED', error_message = ?, finished_at = ?
+                WHERE id = ?
+                """, truncate(errorMessage), Timestamp.valueOf(LocalDateTime.now()), jobId);
+    }
+
+    @Override
+    public void requeue(String jobId, LocalDateTime notBefore) {
+        // The attempt was turned away before reaching the model, so it does not count against the job.
+        jdbcTemplate.update("""
+                UPDATE generation_job
+                SET status = 'QUEUED', started_at = NULL, not_before = ?, attempts = GREATEST(attempts - 1, 0)
+                WHERE id = ? AND status = 'RUNNING'
+                """, Timestamp.valueOf(notBefore), jobId);
+    }
+
+    @Override
+    public int requeueRunning() {
+        return jdbcTemplate.update("UPDATE generation_job SET status = 'QUEUED', started_at = NULL WHERE status = 'RUNNING'");
+    }
+
+    @Override
+    public int countByStatus(JobStatus status) {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM generation_job WHERE status = ?", Integer.class, status.name());
+        return count != null ? count : 0;
+    }
+
+    private GenerationJob mapRow(ResultSet rs, int rowNum) throws SQLException {
+        GenerationJob job = new GenerationJob();
+        job.setId(rs.getString("id"));
+        job.setStatus(JobStatus.valueOf(rs.getString("status")));
+        job.setSessionId(rs.getString("session_id"));
+        job.setConversationId(rs.getString("conversation_id"));
+        job.setUserInput(rs.getString("user_input"));
+        job.setClassSourceCode(rs.getString("class_source_code"));
+        job.setUserId(rs.getString("user_id"));
+        String priority = rs.getString("priority");
+        job.setPriority(priority != null ? RequestPriority.valueOf(priority) : RequestPriority.BULK);
+        job.setErrorMessage(rs.getString("error_message"));
+        job.setAttempts(rs.getInt("attempts"));
+        job.setCreatedAt(toLocalDateTime(rs.getTimestamp("created_at")));
+        job.setStartedAt(toLocalDateTime(rs.getTimestamp("started_at")));
+        job.setFinishedAt(toLocalDateTime(rs.getTimestamp("finished_at")));
+        job.setNotBefore(toLocalDateTime(rs.getTimestamp("not_before")));
+
+        TestGenerationResult result = fromJson(rs.getString("result_json"), TestGenerationResult.class);
+        if (result != null) {
+            result.setTokenUsage(fromJson(rs.getString("token_usage_json"), TokenUsage.class));
+        }
+        job.setResult(result);
+        return job;
+    }
+
+    private String truncate(String message) {
+        return message != null && message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message;
+    }
+
+    private LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+
+    private String toJson(Object value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            logger.error("Failed to serialize {} for job storage", value.getClass().getSimpleName(), e);
+            return null;
+        }
+    }
+
+    private <T> T fromJson(String json, Class<T> type) {
+        if (json == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(json, type);
+        } catch (JsonProcessingException e) {
+            logger.error("Failed to read stored {}", type.getSimpleName(), e);
+            return null;
+        }
+    }
+}
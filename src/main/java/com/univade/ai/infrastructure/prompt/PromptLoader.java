@@ -11,13 +11,19 @@ import java.nio.charset.StandardCharsets;
 public class PromptLoader {
     
     private static final String SYSTEM_PROMPT_PATH = "prompts/testgen_system_prompt.md";
-    private String cachedSystemPrompt;
+    private static final String REQUEST_INSTRUCTIONS_PATH = "prompts/testgen_request_instructions.md";
+    private volatile String cachedSystemPrompt;
     
     public String loadSystemPrompt() {
-        if (cachedSystemPrompt == null) {
-            cachedSystemPrompt = loadPromptFromResource(SYSTEM_PROMPT_PATH);
+        String systemPrompt = cachedSystemPrompt;
+        if (systemPrompt == null) {
+            systemPrompt = loadPromptFromResource(SYSTEM_PROMPT_PATH).stripTrailing()
+                    + "\n\n"
+                    + loadPromptFromResource(REQUEST_INSTRUCTIONS_PATH).stripTrailing()
+                    + "\n";
+            cachedSystemPrompt = systemPrompt;
         }
-        return cachedSystemPrompt;
+        return systemPrompt;
     }
     
     public String loadPromptFromResource(String resourcePath) {
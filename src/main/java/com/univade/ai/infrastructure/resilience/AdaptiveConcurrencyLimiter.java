@@ -0,0 +1,220 @@
+package com.univade.ai.infrastructure.resilience;
+
+import com.univade.ai.domain.exception.LlmCapacityExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+@Component
+public class AdaptiveConcurrencyLimiter {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdaptiveConcurrencyLimiter.class);
+
+    private final boolean enabled;
+    private final double minLimit;
+    private final double maxLimit;
+    private final double backoffRatio;
+    private final int maxQueue;
+    private final long maxQueueWaitNanos;
+    private final long slowCallNanos;
+    private final Duration defaultRetryAfter;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition permitAvailable = lock.newCondition();
+    private double limit;
+    private int inFlight;
+    private int queued;
+    private long blockedUntilNanos;
+
+    private final Counter rejections;
+    private final Counter rateLimited;
+
+    public AdaptiveConcurrencyLimiter(@Value("${testgen.llm.limiter.enabled:true}") boolean enabled,
+                                      @Value("${testgen.llm.limiter.initial-limit:8}") int initialLimit,
+                                      @Value("${testgen.llm.limiter.min-limit:1}") int minLimit,
+                                      @Value("${testgen.llm.limiter.max-limit:64}") int maxLimit,
+                                      @Value("${testgen.llm.limiter.backoff-ratio:0.5}") double backoffRatio,
+                                      @Value("${testgen.llm.limiter.max-queue:200}") int maxQueue,
+                                      @Value("${testgen.llm.limiter.max-queue-wait-ms:120000}") long maxQueueWaitMs,
+                                      @Value("${testgen.llm.limiter.slow-call-threshold-ms:120000}") long slowCallMs,
+                                      @Value("${testgen.llm.limiter.default-retry-after-ms:5000}") long defaultRetryAfterMs,
+                                      MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.maxQueue = maxQueue;
+        this.maxQueueWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxQueueWaitMs);
+        this.slowCallNanos = TimeUnit.MILLISECONDS.toNanos(slowCallMs);
+        this.defaultRetryAfter = Duration.ofMillis(defaultRetryAfterMs);
+        this.limit = initialLimit;
+        this.blockedUntilNanos = System.nanoTime();
+
+        Gauge.builder("testgen.llm.limiter.limit", this, AdaptiveConcurrencyLimiter::getLimit)
+                .register(meterRegistry);
+        Gauge.builder("testgen.llm.limiter.in-flight", this, AdaptiveConcurrencyLimiter::getInFlight)
+                .register(meterRegistry);
+        Gauge.builder("testgen.llm.limiter.queued", this, AdaptiveConcurrencyLimiter::getQueued)
+                .register(meterRegistry);
+        this.rejections = Counter.builder("testgen.llm.limiter.rejections").register(meterRegistry);
+        this.rateLimited = Counter.builder("testgen.llm.limiter.rate-limited").register(meterRegistry);
+    }
+
+    public <T> T execute(Supplier<T> call) {
+        if (!enabled) {
+            return call.get();
+        }
+
+        acquire();
+        long start = System.nanoTime();
+        try {
+            T result = call.get();
+            onSuccess(System.nanoTime() - start);
+            return result;
+        } catch (RuntimeException e) {
+            onFailure(e);
+            throw e;
+        } finally {
+            release();
+        }
+    }
+
+    public double getLimit() {
+        lock.lock();
+        try {
+            return limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** The number of calls currently admitted at once, or {@link Integer#MAX_VALUE} when disabled. */
+    public int getPermitLimit() {
+        return enabled ? (int) getLimit() : Integer.MAX_VALUE;
+    }
+
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getQueued() {
+        lock.lock();
+        try {
+            return queued;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public double getRejectionCount() {
+        return rejections.count();
+    }
+
+    private void acquire() {
+        lock.lock();
+        try {
+            if (queued >= maxQueue) {
+                rejections.increment();
+                throw new LlmCapacityExceededException("LLM request queue is full (" + maxQueue + " waiting)");
+            }
+
+            queued++;
+            long deadline = System.nanoTime() + maxQueueWaitNanos;
+            try {
+                while (true) {
+                    long now = System.nanoTime();
+                    long backoffRemaining = blockedUntilNanos - now;
+                    if (backoffRemaining <= 0 && inFlight < (int) limit) {
+                        break;
+                    }
+
+                    long waitRemaining = deadline - now;
+                    if (waitRemaining <= 0) {
+                        rejections.increment();
+                        throw new LlmCapacityExceededException("Timed out waiting for an LLM request slot");
+                    }
+                    permitAvailable.awaitNanos(backoffRemaining > 0
+                            ? Math.min(backoffRemaining, waitRemaining)
+                            : waitRemaining);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                rejections.increment();
+                throw new LlmCapacityExceededException("Interrupted while waiting for an LLM request slot", e);
+            } finally {
+                queued--;
+            }
+
+            inFlight++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void release() {
+        lock.lock();
+        try {
+            inFlight--;
+            permitAvailable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void onSuccess(long latencyNanos) {
+        lock.lock();
+        try {
+            if (latencyNanos > slowCallNanos) {
+                decrease("slow call");
+            } else {
+                limit = Math.min(maxLimit, limit + 1.0 / limit);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void onFailure(RuntimeException failure) {
+        boolean limited = LlmFailures.isRateLimited(failure);
+        if (!limited && !LlmFailures.isTimeout(failure)) {
+            return;
+        }
+
+        lock.lock();
+        try {
+            if (limited) {
+                rateLimited.increment();
+                Duration retryAfter = LlmFailures.retryAfter(failure).orElse(defaultRetryAfter);
+                blockedUntilNanos = Math.max(blockedUntilNanos, System.nanoTime() + retryAfter.toNanos());
+                decrease("rate limited, retry after " + retryAfter.toMillis() + "ms");
+            } else {
+                decrease("timeout");
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void decrease(String reason) {
+        double previous = limit;
+        limit = Math.max(minLimit, limit * backoffRatio);
+        logger.warn("Reducing LLM concurrency limit from {} to {} ({})",
+                String.format("%.1f", previous), String.format("%.1f", limit), reason);
+        permitAvailable.signalAll();
+    }
+}
@@ -0,0 +1,247 @@
+package com.univade.ai.infrastructure.resilience;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Sends a second attempt when the first has not answered within the recent latency percentile of its
+ * route tier. Latencies come from {@link #timed}, which callers wrap around the model call itself, so
+ * time spent queueing for a permit does not inflate the hedge delay. Attempts run on a bounded pool;
+ * when it is full the hedge is skipped rather than queued.
+ */
+@Component
+public class HedgedRequestExecutor {
+
+    private static final Logger logger = LoggerFactory.getLogger(HedgedRequestExecutor.class);
+
+    private final boolean enabled;
+    private final double percentile;
+    private final long minDelayMs;
+    private final int minSamples;
+    private final int windowSize;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, LatencyWindow> latencies = new ConcurrentHashMap<>();
+
+    private final ThreadPoolExecutor attempts;
+    private final Counter requests;
+    private final Counter hedgesFired;
+    private final Counter hedgesSkipped;
+    private final Counter hedgeWins;
+
+    public HedgedRequestExecutor(@Value("${testgen.llm.hedging.enabled:false}") boolean enabled,
+                                 @Value("${testgen.llm.hedging.percentile:0.95}") double percentile,
+                                 @Value("${testgen.llm.hedging.min-delay-ms:20000}") long minDelayMs,
+                                 @Value("${testgen.llm.hedging.min-samples:20}") int minSamples,
+                                 @Value("${testgen.llm.hedging.window-size:200}") int windowSize,
+                                 @Value("${testgen.llm.hedging.max-threads:32}") int maxThreads,
+                                 MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.percentile = percentile;
+        this.minDelayMs = minDelayMs;
+        this.minSamples = minSamples;
+        this.windowSize = Math.max(1, windowSize);
+        this.meterRegistry = meterRegistry;
+
+        AtomicInteger threadCounter = new AtomicInteger();
+        this.attempts = new ThreadPoolExecutor(0, Math.max(2, maxThreads), 60, TimeUnit.SECONDS,
+                new SynchronousQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "llm-attempt-" + threadCounter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+
+        this.requests = Counter.builder("testgen.llm.hedging.requests").register(meterRegistry);
+        this.hedgesFired = Counter.builder("testgen.llm.hedging.hedges").register(meterRegistry);
+        this.hedgesSkipped = Counter.builder("testgen.llm.hedging.skipped").register(meterRegistry);
+        this.hedgeWins = Counter.builder("testgen.llm.hedging.wins").register(meterRegistry);
+    }
+
+    /**
+     * Runs {@code call}, hedging it with a second attempt after the tier's hedge delay. Runs it on the
+     * calling thread, unhedged, while the tier has too few samples or no attempt thread is free.
+     */
+    public <T> T execute(String tier, Supplier<T> call) {
+        if (!enabled) {
+            return call.get();
+        }
+
+        requests.increment();
+        long hedgeDelayMs = currentHedgeDelayMs(tier);
+        if (hedgeDelayMs < 0) {
+            return call.get();
+        }
+
+        CompletableFuture<T> winner = new CompletableFuture<>();
+        Attempts attemptState = new Attempts();
+        Future<?> primary;
+        try {
+            primary = submitAttempt(call, winner, attemptState, false);
+        } catch (RejectedExecutionException e) {
+            hedgesSkipped.increment();
+            return call.get();
+        }
+
+        try {
+            try {
+                return winner.get(hedgeDelayMs, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                Future<?> hedge;
+                try {
+                    hedge = submitAttempt(call, winner, attemptState, true);
+                } catch (RejectedExecutionException rejected) {
+                    attemptState.launched.decrementAndGet();
+                    // The primary may have failed while the hedge still counted as launched.
+                    if (attemptState.failures.get() >= attemptState.launched.get()) {
+                        winner.completeExceptionally(attemptState.lastFailure);
+                    }
+                    hedgesSkipped.increment();
+                    logger.debug("No attempt thread free, not hedging the {} tier request", tier);
+                    return await(winner);
+                }
+                hedgesFired.increment();
+                logger.debug("No AI reply after {}ms on the {} tier, sending hedge request", hedgeDelayMs, tier);
+                try {
+                    return await(winner);
+                } finally {
+                    hedge.cancel(true);
+                }
+            } catch (ExecutionException e) {
+                throw unwrap(e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for AI reply", e);
+            }
+        } finally {
+            primary.cancel(true);
+        }
+    }
+
+    /** Runs a single model call and records its latency for the tier when it succeeds. */
+    public <T> T timed(String tier, Supplier<T> call) {
+        if (!enabled) {
+            return call.get();
+        }
+        long start = System.nanoTime();
+        T result = call.get();
+        window(tier).record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return result;
+    }
+
+    public long currentHedgeDelayMs(String tier) {
+        LatencyWindow window = latencies.get(tier);
+        return window != null ? window.hedgeDelayMs() : -1;
+    }
+
+    public double getHedgeRate() {
+        return requests.count() == 0 ? 0 : hedgesFired.count() / requests.count();
+    }
+
+    public double getHedgeWinCount() {
+        return hedgeWins.count();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        attempts.shutdownNow();
+    }
+
+    private LatencyWindow window(String tier) {
+        return latencies.computeIfAbsent(tier, key -> {
+            LatencyWindow window = new LatencyWindow(windowSize);
+            Gauge.builder("testgen.llm.hedging.delay", window, LatencyWindow::hedgeDelayMs)
+                    .tag("tier", key)
+                    .baseUnit("milliseconds")
+                    .register(meterRegistry);
+            return window;
+        });
+    }
+
+    private <T> Future<?> submitAttempt(Supplier<T> call, CompletableFuture<T> winner,
+                                        Attempts attemptState, boolean hedge) {
+        attemptState.launched.incrementAndGet();
+        return attempts.submit(() -> {
+            try {
+                T value = call.get();
+                if (winner.complete(value) && hedge) {
+                    hedgeWins.increment();
+                }
+            } catch (Throwable t) {
+                attemptState.lastFailure = t;
+                if (attemptState.failures.incrementAndGet() >= attemptState.launched.get()) {
+                    winner.completeExceptionally(t);
+                }
+            }
+        });
+    }
+
+    private <T> T await(CompletableFuture<T> winner) {
+        try {
+            return winner.join();
+        } catch (CompletionException e) {
+            throw unwrap(e.getCause());
+        }
+    }
+
+    private RuntimeException unwrap(Throwable cause) {
+        if (cause instanceof RuntimeException runtimeException) {
+            return runtimeException;
+        }
+        if (cause instanceof Error error) {
+            throw error;
+        }
+        return new IllegalStateException(cause);
+    }
+
+    private final class LatencyWindow {
+        private final long[] samples;
+        private int count;
+        private int index;
+
+        private LatencyWindow(int size) {
+            this.samples = new long[size];
+        }
+
+        private synchronized void record(long latencyMs) {
+            samples[index] = latencyMs;
+            index = (index + 1) % samples.length;
+            count = Math.min(count + 1, samples.length);
+        }
+
+        private synchronized long hedgeDelayMs() {
+            if (count < minSamples) {
+                return -1;
+            }
+            long[] window = Arrays.copyOf(samples, count);
+            Arrays.sort(window);
+            int position = (int) Math.min(window.length - 1, Math.ceil(percentile * window.length) - 1);
+            return Math.max(minDelayMs, window[Math.max(0, position)]);
+        }
+    }
+
+    private static class Attempts {
+        private final AtomicInteger launched = new AtomicInteger();
+        private final AtomicInteger failures = new AtomicInteger();
+        private volatile Throwable lastFailure;
+    }
+}
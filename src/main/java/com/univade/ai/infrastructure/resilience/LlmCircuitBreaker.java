@@ -0,0 +1,219 @@
+package com.univade.ai.infrastructure.resilience;
+
+import com.univade.ai.domain.exception.LlmCapacityExceededException;
+import com.univade.ai.domain.exception.LlmUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+@Component
+public class LlmCircuitBreaker {
+
+    private static final Logger logger = LoggerFactory.getLogger(LlmCircuitBreaker.class);
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final boolean enabled;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final double slowCallRateThreshold;
+    private final long slowCallNanos;
+    private final long openNanos;
+    private final int closeAfterProbes;
+
+    private final boolean[] failedCalls;
+    private final boolean[] slowCalls;
+    private int recordedCalls;
+    private int nextSlot;
+
+    private State state = State.CLOSED;
+    private long openedAt;
+    private int probeLimit;
+    private int probesInFlight;
+    private int probeSuccesses;
+
+    private final Counter rejected;
+    private final Counter opened;
+
+    public LlmCircuitBreaker(@Value("${testgen.llm.circuit.enabled:true}") boolean enabled,
+                             @Value("${testgen.llm.circuit.window-size:20}") int windowSize,
+                             @Value("${testgen.llm.circuit.minimum-calls:10}") int minimumCalls,
+                             @Value("${testgen.llm.circuit.failure-rate-threshold:0.5}") double failureRateThreshold,
+                             @Value("${testgen.llm.circuit.slow-call-rate-threshold:0.8}") double slowCallRateThreshold,
+                             @Value("${testgen.llm.circuit.slow-call-duration-ms:90000}") long slowCallMs,
+                             @Value("${testgen.llm.circuit.open-duration-ms:30000}") long openMs,
+                             @Value("${testgen.llm.circuit.close-after-probes:8}") int closeAfterProbes,
+                             MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.minimumCalls = Math.min(minimumCalls, windowSize);
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallRateThreshold = slowCallRateThreshold;
+        this.slowCallNanos = TimeUnit.MILLISECONDS.toNanos(slowCallMs);
+        this.openNanos = TimeUnit.MILLISECONDS.toNanos(openMs);
+        this.closeAfterProbes = Math.max(1, closeAfterProbes);
+        this.failedCalls = new boolean[windowSize];
+        this.slowCalls = new boolean[windowSize];
+
+        this.rejected = Counter.builder("testgen.llm.circuit.rejected").register(meterRegistry);
+        this.opened = Counter.builder("testgen.llm.circuit.opened").register(meterRegistry);
+        Gauge.builder("testgen.llm.circuit.state", this, breaker -> breaker.getState().ordinal())
+                .description("0 = closed, 1 = open, 2 = half-open")
+                .register(meterRegistry);
+    }
+
+    public <T> T execute(Supplier<T> call) {
+        if (!enabled) {
+            return call.get();
+        }
+
+        acquirePermission();
+        long start = System.nanoTime();
+        try {
+            T result = call.get();
+            onResult(false, System.nanoTime() - start);
+            return result;
+        } catch (LlmCapacityExceededException e) {
+            // Local back-pressure, not a signal about the model endpoint.
+            releaseProbe();
+            throw e;
+        } catch (RuntimeException e) {
+            if (Thread.currentThread().isInterrupted()) {
+                // Cancelled by the caller, e.g. a hedge that lost the race.
+                releaseProbe();
+            } else {
+                onResult(true, System.nanoTime() - start);
+            }
+            throw e;
+        }
+    }
+
+    public <T> Flux<T> execute(Flux<T> stream) {
+        if (!enabled) {
+            return stream;
+        }
+
+        return Flux.defer(() -> {
+            acquirePermission();
+            long start = System.nanoTime();
+            return stream
+                    .doOnComplete(() -> onResult(false, System.nanoTime() - start))
+                    .doOnError(e -> onResult(true, System.nanoTime() - start))
+                    .doOnCancel(this::releaseProbe);
+        });
+    }
+
+    public synchronized State getState() {
+        if (state == State.OPEN && System.nanoTime() - openedAt >= openNanos) {
+            return State.HALF_OPEN;
+        }
+        return state;
+    }
+
+    public boolean isClosed() {
+        return getState() == State.CLOSED;
+    }
+
+    private synchronized void acquirePermission() {
+        if (state == State.OPEN) {
+            long remaining = openNanos - (System.nanoTime() - openedAt);
+            if (remaining > 0) {
+                rejected.increment();
+                throw new LlmUnavailableException("AI service temporarily unavailable (circuit open)",
+                        TimeUnit.NANOSECONDS.toMillis(remaining));
+            }
+            transitionTo(State.HALF_OPEN);
+            probeLimit = 1;
+            probeSuccesses = 0;
+            probesInFlight = 0;
+        }
+
+        if (state == State.HALF_OPEN) {
+            if (probesInFlight >= probeLimit) {
+                rejected.increment();
+                throw new LlmUnavailableException("AI service recovering, request not admitted", 1000);
+            }
+            probesInFlight++;
+        }
+    }
+
+    private synchronized void onResult(boolean failed, long durationNanos) {
+        boolean slow = durationNanos > slowCallNanos;
+        if (state == State.HALF_OPEN) {
+            probesInFlight = Math.max(0, probesInFlight - 1);
+            if (failed || slow) {
+                open(failed ? "probe failed" : "probe was slow");
+                return;
+            }
+            // Each successful probe doubles how many concurrent calls are let through.
+            probeSuccesses++;
+            probeLimit = Math.min(closeAfterProbes, probeLimit * 2);
+            if (probeSuccesses >= closeAfterProbes) {
+                resetWindow();
+                transitionTo(State.CLOSED);
+            }
+            return;
+        }
+
+        if (state != State.CLOSED) {
+            return;
+        }
+
+        failedCalls[nextSlot] = failed;
+        slowCalls[nextSlot] = slow;
+        nextSlot = (nextSlot + 1) % failedCalls.length;
+        recordedCalls = Math.min(recordedCalls + 1, failedCalls.length);
+        if (recordedCalls < minimumCalls) {
+            return;
+        }
+
+        int failures = 0;
+        int slowOnes = 0;
+        for (int i = 0; i < recordedCalls; i++) {
+            failures += failedCalls[i] ? 1 : 0;
+            slowOnes += slowCalls[i] ? 1 : 0;
+        }
+        if ((double) failures / recordedCalls >= failureRateThreshold) {
+            open(failures + " of the last " + recordedCalls + " calls failed");
+        } else if ((double) slowOnes / recordedCalls >= slowCallRateThreshold) {
+            open(slowOnes + " of the last " + recordedCalls + " calls were slow");
+        }
+    }
+
+    private synchronized void releaseProbe() {
+        if (state == State.HALF_OPEN) {
+            probesInFlight = Math.max(0, probesInFlight - 1);
+        }
+    }
+
+    private void open(String reason) {
+        logger.warn("Opening AI circuit breaker: {}", reason);
+        opened.increment();
+        openedAt = System.nanoTime();
+        resetWindow();
+        transitionTo(State.OPEN);
+    }
+
+    private void resetWindow() {
+        recordedCalls = 0;
+        nextSlot = 0;
+    }
+
+    private void transitionTo(State next) {
+        if (state != next) {
+            logger.info("AI circuit breaker {} -> {}", state, next);
+            state = next;
+        }
+    }
+}
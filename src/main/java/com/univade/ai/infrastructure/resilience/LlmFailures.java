@@ -0,0 +1,88 @@
+package com.univade.ai.infrastructure.resilience;
+
+import org.springframework.web.client.RestClientResponseException;
+
+import java.net.SocketTimeoutException;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Optional;
+import java.util.concurrent.TimeoutException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+public final class LlmFailures {
+
+    private static final int TOO_MANY_REQUESTS = 429;
+    private static final String RETRY_AFTER = "Retry-After";
+    private static final Pattern TRY_AGAIN_IN = Pattern.compile("try again in ([0-9]+(?:\\.[0-9]+)?)(ms|s)");
+
+    private LlmFailures() {
+    }
+
+    public static boolean isRateLimited(Throwable failure) {
+        for (Throwable t = failure; t != null; t = t.getCause()) {
+            if (t instanceof RestClientResponseException response
+                    && response.getStatusCode().value() == TOO_MANY_REQUESTS) {
+                return true;
+            }
+            String message = t.getMessage();
+            if (message != null && (message.startsWith(TOO_MANY_REQUESTS + " ")
+                    || message.contains("rate_limit_exceeded")
+                    || message.contains("Too Many Requests"))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static boolean isTimeout(Throwable failure) {
+        for (Throwable t = failure; t != null; t = t.getCause()) {
+            if (t instanceof SocketTimeoutException
+                    || t instanceof HttpTimeoutException
+                    || t instanceof TimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static Optional<Duration> retryAfter(Throwable failure) {
+        for (Throwable t = failure; t != null; t = t.getCause()) {
+            if (t instanceof RestClientResponseException response && response.getResponseHeaders() != null) {
+                Optional<Duration> fromHeader = parseRetryAfter(response.getResponseHeaders().getFirst(RETRY_AFTER));
+                if (fromHeader.isPresent()) {
+                    return fromHeader;
+                }
+            }
+            if (t.getMessage() != null) {
+                Matcher matcher = TRY_AGAIN_IN.matcher(t.getMessage());
+                if (matcher.find()) {
+                    double amount = Double.parseDouble(matcher.group(1));
+                    long millis = "ms".equals(matcher.group(2)) ? (long) amount : (long) (amount * 1000);
+                    return Optional.of(Duration.ofMillis(millis));
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static Optional<Duration> parseRetryAfter(String value) {
+        if (value == null || value.isBlank()) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(Duration.ofSeconds(Long.parseLong(value.trim())));
+        } catch (NumberFormatException e) {
+            try {
+                ZonedDateTime retryAt = ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME);
+                Duration delay = Duration.between(ZonedDateTime.now(retryAt.getZone()), retryAt);
+                return Optional.of(delay.isNegative() ? Duration.ZERO : delay);
+            } catch (DateTimeParseException ignored) {
+                return Optional.empty();
+            }
+        }
+    }
+}
@@ -1,10 +1,14 @@
 package com.univade.ai.interfaces.dto;
 
+import com.univade.ai.domain.value.RequestPriority;
+
 public class TestRequestDTO {
     private String userInput;
     private String classSourceCode;
     private String sessionId;
     private String conversationId;
+    private String userId;
+    private RequestPriority priority;
 
     public String getUserInput() {
         return userInput;
@@ -38,6 +42,22 @@ public class TestRequestDTO {
         this.conversationId = conversationId;
     }
 
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    public RequestPriority getPriority() {
+        return priority;
+    }
+
+    public void setPriority(RequestPriority priority) {
+        this.priority = priority;
+    }
+
     public boolean isContinuingConversation() {
         return conversationId != null && !conversationId.trim().isEmpty();
     }
@@ -12,6 +12,10 @@ public class TestResponseDTO {
     private String errorMessage;
     private LocalDateTime generatedAt;
     private boolean isNewConversation;
+    private boolean stale;
+    private Integer promptTokens;
+    private Integer cachedPromptTokens;
+    private Integer completionTokens;
 
     public TestResponseDTO() {}
 
@@ -41,4 +45,16 @@ public class TestResponseDTO {
 
     public boolean isNewConversation() { return isNewConversation; }
     public void setNewConversation(boolean newConversation) { isNewConversation = newConversation; }
+
+    public boolean isStale() { return stale; }
+    public void setStale(boolean stale) { this.stale = stale; }
+
+    public Integer getPromptTokens() { return promptTokens; }
+    public void setPromptTokens(Integer promptTokens) { this.promptTokens = promptTokens; }
+
+    public Integer getCachedPromptTokens() { return cachedPromptTokens; }
+    public void setCachedPromptTokens(Integer cachedPromptTokens) { this.cachedPromptTokens = cachedPromptTokens; }
+
+    public Integer getCompletionTokens() { return completionTokens; }
+    public void setCompletionTokens(Integer completionTokens) { this.completionTokens = completionTokens; }
 }
@@ -0,0 +1,48 @@
+package com.univade.ai.interfaces.dto;
+
+import java.util.Map;
+
+public class TokenEstimateDTO {
+    private int systemPromptTokens;
+    private int userPromptTokens;
+    private int inputTokens;
+    private int estimatedOutputTokens;
+    private int totalTokens;
+    private long estimatedLatencyMs;
+    private int maxInputTokens;
+    private int maxTotalTokens;
+    private boolean withinBudget;
+    private Map<String, Integer> compactionSavedTokens;
+
+    public TokenEstimateDTO() {}
+
+    public int getSystemPromptTokens() { return systemPromptTokens; }
+    public void setSystemPromptTokens(int systemPromptTokens) { this.systemPromptTokens = systemPromptTokens; }
+
+    public int getUserPromptTokens() { return userPromptTokens; }
+    public void setUserPromptTokens(int userPromptTokens) { this.userPromptTokens = userPromptTokens; }
+
+    public int getInputTokens() { return inputTokens; }
+    public void setInputTokens(int inputTokens) { this.inputTokens = inputTokens; }
+
+    public int getEstimatedOutputTokens() { return estimatedOutputTokens; }
+    public void setEstimatedOutputTokens(int estimatedOutputTokens) { this.estimatedOutputTokens = estimatedOutputTokens; }
+
+    public int getTotalTokens() { return totalTokens; }
+    public void setTotalTokens(int totalTokens) { this.totalTokens = totalTokens; }
+
+    public long getEstimatedLatencyMs() { return estimatedLatencyMs; }
+    public void setEstimatedLatencyMs(long estimatedLatencyMs) { this.estimatedLatencyMs = estimatedLatencyMs; }
+
+    public int getMaxInputTokens() { return maxInputTokens; }
+    public void setMaxInputTokens(int maxInputTokens) { this.maxInputTokens = maxInputTokens; }
+
+    public int getMaxTotalTokens() { return maxTotalTokens; }
+    public void setMaxTotalTokens(int maxTotalTokens) { this.maxTotalTokens = maxTotalTokens; }
+
+    public boolean isWithinBudget() { return withinBudget; }
+    public void setWithinBudget(boolean withinBudget) { this.withinBudget = withinBudget; }
+
+    public Map<String, Integer> getCompactionSavedTokens() { return compactionSavedTokens; }
+    public void setCompactionSavedTokens(Map<String, Integer> compactionSavedTokens) { this.compactionSavedTokens = compactionSavedTokens; }
+}
@@ -1,10 +1,16 @@
 package com.univade.ai.interfaces.web;
 
+import com.univade.ai.domain.exception.GenerationRejectedException;
+import com.univade.ai.domain.exception.LlmCapacityExceededException;
+import com.univade.ai.domain.exception.LlmUnavailableException;
 import com.univade.ai.domain.exception.SessionNotFoundException;
 import com.univade.ai.domain.exception.TestGenerationException;
+import com.univade.ai.domain.exception.TokenBudgetExceededException;
+import com.univade.ai.domain.exception.TokenQuotaExceededException;
 import com.univade.ai.interfaces.dto.TestResponseDTO;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -30,6 +36,30 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
     }
     
+    @ExceptionHandler(TokenQuotaExceededException.class)
+    public ResponseEntity<TestResponseDTO> handleTokenQuotaExceeded(TokenQuotaExceededException ex) {
+        logger.warn("Token quota exceeded for user {}: {}", ex.getUserId(), ex.getMessage());
+        return rejected(ex, HttpStatus.TOO_MANY_REQUESTS);
+    }
+    
+    @ExceptionHandler(TokenBudgetExceededException.class)
+    public ResponseEntity<TestResponseDTO> handleTokenBudgetExceeded(TokenBudgetExceededException ex) {
+        logger.warn("Token budget exceeded for session {}: {}", ex.getSessionId(), ex.getMessage());
+        return rejected(ex, HttpStatus.PAYLOAD_TOO_LARGE);
+    }
+    
+    @ExceptionHandler(LlmCapacityExceededException.class)
+    public ResponseEntity<TestResponseDTO> handleCapacityExceeded(LlmCapacityExceededException ex) {
+        logger.warn("Shedding load: {}", ex.getMessage());
+        return rejected(ex, HttpStatus.TOO_MANY_REQUESTS);
+    }
+    
+    @ExceptionHandler(LlmUnavailableException.class)
+    public ResponseEntity<TestResponseDTO> handleLlmUnavailable(LlmUnavailableException ex) {
+        logger.warn("AI service unavailable: {}", ex.getMessage());
+        return rejected(ex, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+    
     @ExceptionHandler(TestGenerationException.class)
     public ResponseEntity<TestResponseDTO> handleTestGenerationException(TestGenerationException ex) {
         logger.error("Test generation error: {}", ex.getMessage(), ex);
@@ -66,4 +96,18 @@ public class GlobalExceptionHandler {
         
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
     }
+    
+    private ResponseEntity<TestResponseDTO> rejected(GenerationRejectedException ex, HttpStatus status) {
+        TestResponseDTO response = new TestResponseDTO();
+        response.setSessionId(ex.getSessionId());
+        response.setStatus("ERROR");
+        response.setErrorMessage(ex.getMessage());
+        response.setGeneratedAt(LocalDateTime.now());
+        
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(status);
+        if (ex.getRetryAfterMs() > 0) {
+            builder.header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, (ex.getRetryAfterMs() + 999) / 1000)));
+        }
+        return builder.body(response);
+    }
 }
@@ -1,31 +1,61 @@
 package com.univade.ai.interfaces.web;
 
+import com.univade.ai.application.service.GenerationJobService;
 import com.univade.ai.application.service.TestGenerationService;
 import com.univade.ai.application.usecase.GenerateTestsUseCase;
+import com.univade.ai.domain.exception.GenerationRejectedException;
+import com.univade.ai.domain.model.GenerationEstimate;
+import com.univade.ai.domain.model.GenerationJob;
 import com.univade.ai.domain.model.PromptContext;
 import com.univade.ai.domain.model.TestGenerationResult;
+import com.univade.ai.domain.value.RequestPriority;
+import com.univade.ai.interfaces.dto.JobResponseDTO;
 import com.univade.ai.interfaces.dto.TestRequestDTO;
 import com.univade.ai.interfaces.dto.TestResponseDTO;
+import com.univade.ai.interfaces.dto.TokenEstimateDTO;
 import org.slf4j.Logger;
+import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+import reactor.core.publisher.Flux;
+
+import java.net.URI;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api/test-generation")
 public class TestGenerationController {
+    private static final Logger logger = LoggerFactory.getLogger(TestGenerationController.class);
+
+    private static final long MAX_JOB_WAIT_SECONDS = 120;
+
     private final TestGenerationService testGenerationService;
+    private final GenerationJobService generationJobService;
+    private final String userHeader;
 
-    public TestGenerationController(TestGenerationService testGenerationService) {
+    public TestGenerationController(TestGenerationService testGenerationService,
+                                    GenerationJobService generationJobService,
+                                    @Value("${testgen.identity.user-header:}") String userHeader) {
         this.testGenerationService = testGenerationService;
+        this.generationJobService = generationJobService;
+        this.userHeader = userHeader;
     }
 
     @PostMapping("/generate")
-    public ResponseEntity<TestResponseDTO> generateTest(@RequestBody TestRequestDTO request) {
+    public ResponseEntity<TestResponseDTO> generateTest(@RequestBody TestRequestDTO request,
+                                                       HttpServletRequest httpRequest) {
         try {
            
-            PromptContext context = buildContextAwarePromptContext(request);
+            PromptContext context = buildContextAwarePromptContext(request, resolveUserId(request, httpRequest));
             TestGenerationResult result = testGenerationService.generateTestsWithMemory(context);
             TestResponseDTO response = convertToContextAwareResponseDTO(result);
 
@@ -33,6 +63,8 @@ public class TestGenerationController {
                 ? ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response)
                 : ResponseEntity.ok(response);
 
+        } catch (GenerationRejectedException e) {
+            throw e;
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(createErrorResponse(null, e.getMessage()));
         } catch (Exception e) {
@@ -41,17 +73,140 @@ public class TestGenerationController {
         }
     }
 
-    private PromptContext buildContextAwarePromptContext(TestRequestDTO request) {
+    @PostMapping(value = "/generate/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<String>> streamTest(@RequestBody TestRequestDTO request,
+                                                    HttpServletRequest httpRequest) {
+        if (request.getUserInput() == null || request.getUserInput().trim().isEmpty()) {
+            return Flux.just(errorEvent("User input cannot be null or empty"));
+        }
+
+        PromptContext context = testGenerationService.buildContext(request.getUserInput(), request.getClassSourceCode());
+        if (request.getSessionId() != null) {
+            context.setSessionId(request.getSessionId());
+        }
+        context.setUserId(resolveUserId(request, httpRequest));
+        context.setPriority(RequestPriority.STANDARD.lowerTo(request.getPriority()));
+
+        return Flux.defer(() -> testGenerationService.streamTests(context))
+                .map(chunk -> ServerSentEvent.builder(chunk).event("source").build())
+                .concatWith(Flux.defer(() -> Flux.just(
+                        ServerSentEvent.builder(context.getSessionId()).event("done").build())))
+                .onErrorResume(e -> {
+                    logger.error("Streaming test generation failed for session: {}", context.getSessionId(), e);
+                    return Flux.just(errorEvent("Failed to generate tests: " + e.getMessage()));
+                });
+    }
+
+    @PostMapping("/jobs")
+    public ResponseEntity<JobResponseDTO> submitJob(@RequestBody TestRequestDTO request,
+                                                    HttpServletRequest httpRequest) {
+        GenerationJob job = generationJobService.submit(request.getUserInput(), request.getClassSourceCode(),
+                request.getSessionId(), request.getConversationId(), resolveUserId(request, httpRequest),
+                RequestPriority.BULK.lowerTo(request.getPriority()));
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/test-generation/jobs/" + job.getId()))
+                .body(convertToJobResponseDTO(job));
+    }
+
+    @GetMapping("/jobs/{jobId}")
+    public DeferredResult<ResponseEntity<JobResponseDTO>> getJob(@PathVariable String jobId,
+                                                                 @RequestParam(defaultValue = "0") long waitSeconds) {
+        long timeoutSeconds = Math.min(Math.max(waitSeconds, 0), MAX_JOB_WAIT_SECONDS);
+        DeferredResult<ResponseEntity<JobResponseDTO>> deferred =
+                new DeferredResult<>(TimeUnit.SECONDS.toMillis(timeoutSeconds));
+
+        Optional<GenerationJob> job = generationJobService.getJob(jobId);
+        if (job.isEmpty()) {
+            deferred.setResult(ResponseEntity.notFound().build());
+            return deferred;
+        }
+        if (timeoutSeconds == 0 || job.get().getStatus().isTerminal()) {
+            deferred.setResult(ResponseEntity.ok(convertToJobResponseDTO(job.get())));
+            return deferred;
+        }
+
+        // Long-poll: the request thread is released here and the response is written on completion or timeout.
+        deferred.onTimeout(() -> deferred.setResult(ResponseEntity.ok(convertToJobResponseDTO(
+                generationJobService.getJob(jobId).orElse(job.get())))));
+        generationJobService.awaitCompletion(jobId)
+                .thenAccept(finished -> deferred.setResult(ResponseEntity.ok(convertToJobResponseDTO(finished))));
+        return deferred;
+    }
+
+    @PostMapping("/estimate")
+    public ResponseEntity<TokenEstimateDTO> estimate(@RequestBody TestRequestDTO request) {
+        if (request.getUserInput() == null || request.getUserInput().trim().isEmpty()) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        PromptContext context = testGenerationService.buildContext(request.getUserInput(), request.getClassSourceCode());
+        return ResponseEntity.ok(convertToEstimateDTO(testGenerationService.estimate(context)));
+    }
+
+    private TokenEstimateDTO convertToEstimateDTO(GenerationEstimate estimate) {
+        TokenEstimateDTO response = new TokenEstimateDTO();
+        response.setSystemPromptTokens(estimate.getSystemPromptTokens());
+        response.setUserPromptTokens(estimate.getUserPromptTokens());
+        response.setInputTokens(estimate.getInputTokens());
+        response.setEstimatedOutputTokens(estimate.getEstimatedOutputTokens());
+        response.setTotalTokens(estimate.getTotalTokens());
+        response.setEstimatedLatencyMs(estimate.getEstimatedLatencyMs());
+        response.setMaxInputTokens(estimate.getMaxInputTokens());
+        response.setMaxTotalTokens(estimate.getMaxTotalTokens());
+        response.setWithinBudget(estimate.isWithinBudget());
+
+        if (estimate.getCompactionReport() != null) {
+            Map<String, Integer> saved = new LinkedHashMap<>();
+            estimate.getCompactionReport().getSavedTokensByLevel()
+                    .forEach((level, tokens) -> saved.put(level.name(), tokens));
+            response.setCompactionSavedTokens(saved);
+        }
+        return response;
+    }
+
+    private JobResponseDTO convertToJobResponseDTO(GenerationJob job) {
+        JobResponseDTO response = new JobResponseDTO();
+        response.setJobId(job.getId());
+        response.setStatus(job.getStatus().name());
+        response.setAttempts(job.getAttempts());
+        response.setCreatedAt(job.getCreatedAt());
+        response.setStartedAt(job.getStartedAt());
+        response.setFinishedAt(job.getFinishedAt());
+        response.setErrorMessage(job.getErrorMessage());
+        if (job.getResult() != null) {
+            response.setResult(convertToContextAwareResponseDTO(job.getResult()));
+        }
+        return response;
+    }
+
+    private ServerSentEvent<String> errorEvent(String message) {
+        return ServerSentEvent.builder(message).event("error").build();
+    }
+
+    /**
+     * Quotas and scheduler weights are keyed by user id. With {@code testgen.identity.user-header} set,
+     * the id comes only from that header, which the authenticating proxy in front of the service must
+     * set and strip from client requests; requests without it share the default user's quota. Without
+     * it the client-supplied {@code userId} is used as is, which only suits trusted callers.
+     */
+    private String resolveUserId(TestRequestDTO request, HttpServletRequest httpRequest) {
+        if (userHeader == null || userHeader.isBlank()) {
+            return request.getUserId();
+        }
+        return httpRequest.getHeader(userHeader);
+    }
+
+    private PromptContext buildContextAwarePromptContext(TestRequestDTO request, String userId) {
+        PromptContext context;
         if (request.isContinuingConversation()) {
-            PromptContext context = new PromptContext(
+            context = new PromptContext(
                     request.getSessionId(),
                     request.getConversationId(),
                     request.getUserInput(),
                     request.getClassSourceCode());
             context.setUseConversationMemory(true);
-            return context;
         } else {
-            PromptContext context = testGenerationService.buildConversationContext(
+            context = testGenerationService.buildConversationContext(
                     request.getUserInput(),
                     request.getClassSourceCode(),
                     true);
@@ -59,9 +214,13 @@ public class TestGenerationController {
             if (request.getSessionId() != null) {
                 context.setSessionId(request.getSessionId());
             }
-
-            return context;
         }
+
+        // Follow-ups in a conversation are someone waiting at the keyboard; new generations are not.
+        RequestPriority granted = request.isContinuingConversation() ? RequestPriority.INTERACTIVE : RequestPriority.STANDARD;
+        context.setUserId(userId);
+        context.setPriority(granted.lowerTo(request.getPriority()));
+        return context;
     }
 
     private TestResponseDTO convertToContextAwareResponseDTO(TestGenerationResult result) {
@@ -80,6 +239,7 @@ public class TestGenerationController {
         response.setStatus(result.getStatus());
         response.setErrorMessage(result.getErrorMessage());
         response.setGeneratedAt(result.getGeneratedAt());
+        response.setStale(result.isStale());
 
         if (result.getTestClass() != null && result.getTestClass().getSourceCode() != null) {
             response.setGeneratedTestCode(result.getTestClass().getSourceCode());
@@ -90,6 +250,12 @@ public class TestGenerationController {
             response.setTargetLayer(result.getMetadata().getComponentType());
         }
 
+        if (result.getTokenUsage() != null) {
+            response.setPromptTokens(result.getTokenUsage().getPromptTokens());
+            response.setCachedPromptTokens(result.getTokenUsage().getCachedPromptTokens());
+            response.setCompletionTokens(result.getTokenUsage().getCompletionTokens());
+        }
+
         return response;
     }
 
@@ -0,0 +1,50 @@
+CREATE TABLE IF NOT EXISTS generation_job (
+    id                VARCHAR(36)   PRIMARY KEY,
+    status            VARCHAR(16)   NOT NULL,
+    session_id        VARCHAR(64),
+    conversation_id   VARCHAR(64),
+    user_input        CLOB          NOT NULL,
+    class_source_code CLOB,
+    user_id           VARCHAR(128),
+    priority          VARCHAR(16),
+    result_json       CLOB,
+    token_usage_json  VARCHAR(1000),
+    error_message     VARCHAR(4000),
+    attempts          INT           NOT NULL DEFAULT 0,
+    created_at        TIMESTAMP     NOT NULL,
+    started_at        TIMESTAMP,
+    finished_at       TIMESTAMP,
+    not_before        TIMESTAMP
+);
+
+-- Columns added after the table was first created; file databases from older versions need them too.
+ALTER TABLE generation_job ADD COLUMN IF NOT EXISTS user_id VARCHAR(128);
+ALTER TABLE generation_job ADD COLUMN IF NOT EXISTS priority VARCHAR(16);
+ALTER TABLE generation_job ADD COLUMN IF NOT EXISTS not_before TIMESTAMP;
+
+CREATE INDEX IF NOT EXISTS idx_generation_job_status ON generation_job (status, created_at);
+
+CREATE TABLE IF NOT EXISTS chat_memory_message (
+    id                BIGINT        AUTO_INCREMENT PRIMARY KEY,
+    conversation_id   VARCHAR(64)   NOT NULL,
+    message_type      VARCHAR(16)   NOT NULL,
+    content           CLOB          NOT NULL,
+    created_at        TIMESTAMP     NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_chat_memory_conversation ON chat_memory_message (conversation_id, id);
+
+-- One row per stored conversation with the time of its last write, so the idle sweep reads an index
+-- range instead of grouping every message.
+CREATE TABLE IF NOT EXISTS chat_memory_conversation (
+    conversation_id   VARCHAR(64)   PRIMARY KEY,
+    last_activity     TIMESTAMP     NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_chat_memory_last_activity ON chat_memory_conversation (last_activity);
+
+-- Conversations stored before the table above existed.
+INSERT INTO chat_memory_conversation (conversation_id, last_activity)
+SELECT conversation_id, MAX(created_at) FROM chat_memory_message m
+WHERE NOT EXISTS (SELECT 1 FROM chat_memory_conversation c WHERE c.conversation_id = m.conversation_id)
+GROUP BY conversation_id;
@@ -0,0 +1,112 @@
+package com.univade.ai.application.service;
+
+import com.univade.ai.domain.model.ConversationContext;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConversationServiceTest {
+
+    private static final int CAP = 5;
+
+    @Test
+    void concurrentStartsKeepOnlyTheNewestConversationsPerUser() throws Exception {
+        ConversationService service = new ConversationService(30, CAP);
+        Set<String> started = ConcurrentHashMap.newKeySet();
+        ExecutorService starters = Executors.newFixedThreadPool(8);
+        CountDownLatch go = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < 8; thread++) {
+                futures.add(starters.submit(() -> {
+                    go.await();
+                    for (int i = 0; i < 200; i++) {
+                        started.add(service.startConversation("alice"));
+                    }
+                    return null;
+                }));
+            }
+            go.countDown();
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            starters.shutdownNow();
+        }
+
+        List<ConversationContext> kept = service.getUserConversations("alice");
+        assertThat(kept).hasSize(CAP);
+        assertThat(kept).allSatisfy(context -> assertThat(service.isTracked(context.getConversationId())).isTrue());
+        assertThat(started).hasSize(8 * 200);
+        assertThat(started.stream().filter(service::isTracked)).hasSize(CAP);
+        assertThat(service.getActiveConversationCount() + service.getInactiveConversationCount()).isEqualTo(CAP);
+
+        // Every pushed-out conversation is handed to the next sweep exactly once.
+        assertThat(service.cleanupInactiveConversations()).hasSize(8 * 200 - CAP);
+    }
+
+    @Test
+    void sweepingWhileUsersStartConversationsNeverLosesOrLeaksARing() throws Exception {
+        // A zero timeout makes every conversation expire as soon as the sweep reaches it.
+        ConversationService service = new ConversationService(0, CAP);
+        AtomicBoolean running = new AtomicBoolean(true);
+        ExecutorService workers = Executors.newFixedThreadPool(5);
+        try {
+            Future<?> sweeper = workers.submit(() -> {
+                while (running.get()) {
+                    service.cleanupInactiveConversations();
+                    for (String user : List.of("alice", "bob")) {
+                        assertThat(service.getUserConversations(user).size()).isLessThanOrEqualTo(CAP);
+                    }
+                }
+                return null;
+            });
+            List<Future<?>> starters = new ArrayList<>();
+            for (int thread = 0; thread < 4; thread++) {
+                String user = thread % 2 == 0 ? "alice" : "bob";
+                starters.add(workers.submit(() -> {
+                    for (int i = 0; i < 2000; i++) {
+                        service.startConversation(user);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> starter : starters) {
+                starter.get(30, TimeUnit.SECONDS);
+            }
+
+            // Conversations started after a ring was dropped must land in a ring the service still sees.
+            Set<String> latest = new HashSet<>();
+            for (int i = 0; i < CAP; i++) {
+                latest.add(service.startConversation("alice"));
+            }
+            assertThat(service.getUserConversations("alice"))
+                    .extracting(ConversationContext::getConversationId)
+                    .containsAll(latest.stream().filter(service::isTracked).toList());
+
+            running.set(false);
+            sweeper.get(10, TimeUnit.SECONDS);
+        } finally {
+            running.set(false);
+            workers.shutdownNow();
+        }
+
+        service.cleanupInactiveConversations();
+        assertThat(service.getUserConversations("alice")).isEmpty();
+        assertThat(service.getUserConversations("bob")).isEmpty();
+        assertThat(service.getTrackedUsers()).isZero();
+        assertThat(service.getActiveConversationCount() + service.getInactiveConversationCount()).isZero();
+    }
+}
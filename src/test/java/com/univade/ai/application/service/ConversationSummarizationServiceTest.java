@@ -0,0 +1,107 @@
+package com.univade.ai.application.service;
+
+import com.knuddels.jtokkit.api.EncodingType;
+import com.univade.ai.domain.model.TokenUsage;
+import com.univade.ai.infrastructure.ai.ConversationSummarizer;
+import com.univade.ai.infrastructure.ai.ModelRouter;
+import com.univade.ai.infrastructure.ai.TokenEstimator;
+import com.univade.ai.infrastructure.persistence.BoundedChatMemoryRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.UserMessage;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ConversationSummarizationServiceTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final BoundedChatMemoryRepository repository =
+            new BoundedChatMemoryRepository("test", 1_000_000, 30, meterRegistry);
+    private final ConversationService conversationService = new ConversationService(30, 20);
+    private final TokenQuotaService tokenQuotaService =
+            new TokenQuotaService(conversationService, meterRegistry, true, 60, 60, 1_000_000, "", 0);
+    private final ConversationSummarizer summarizer = mock(ConversationSummarizer.class);
+    private final ConversationSummarizationService service = new ConversationSummarizationService(repository,
+            summarizer, conversationService, tokenQuotaService, new TokenEstimator(EncodingType.O200K_BASE),
+            mock(ModelRouter.class), meterRegistry, 10, 2, 100, 1, 10);
+
+    private final String conversationId = conversationService.startConversation("alice");
+
+    @AfterEach
+    void shutdown() {
+        service.shutdown();
+    }
+
+    @Test
+    void foldsOlderTurnsIntoASummaryAndChargesItsTokens() {
+        repository.saveAll(conversationId, turns(6));
+        when(summarizer.summarize(any(), anyList(), any()))
+                .thenReturn(new ConversationSummarizer.Summary("short summary", new TokenUsage("mini", 300, 50, 0)));
+
+        assertThat(service.summarize(conversationId, "alice")).isTrue();
+
+        List<Message> compacted = repository.findByConversationId(conversationId);
+        assertThat(compacted).hasSize(3);
+        assertThat(ConversationSummarizer.isSummary(compacted.get(0))).isTrue();
+        assertThat(compacted.get(0).getText()).endsWith("short summary");
+        assertThat(compacted.subList(1, 3)).extracting(Message::getText).containsExactly(text(4), text(5));
+        assertThat(tokenQuotaService.getWindowTokens("alice")).isEqualTo(350);
+        assertThat(conversationService.getConversationContext(conversationId).orElseThrow().getTotalTokens())
+                .isEqualTo(350);
+    }
+
+    @Test
+    void keepsTurnsSavedWhileTheSummaryWasBeingWritten() {
+        repository.saveAll(conversationId, turns(6));
+        when(summarizer.summarize(any(), anyList(), any())).thenAnswer(invocation -> {
+            List<Message> grown = new ArrayList<>(repository.findByConversationId(conversationId));
+            grown.add(new UserMessage("late turn"));
+            repository.saveAll(conversationId, grown);
+            return new ConversationSummarizer.Summary("short summary", null);
+        });
+
+        assertThat(service.summarize(conversationId, "alice")).isTrue();
+
+        assertThat(repository.findByConversationId(conversationId)).extracting(Message::getText)
+                .endsWith(text(4), text(5), "late turn")
+                .hasSize(4);
+    }
+
+    @Test
+    void leavesTheConversationAloneWhenItsStartChangedMeanwhile() {
+        repository.saveAll(conversationId, turns(6));
+        List<Message> trimmed = turns(6).subList(1, 6);
+        when(summarizer.summarize(any(), anyList(), any())).thenAnswer(invocation -> {
+            repository.saveAll(conversationId, trimmed);
+            return new ConversationSummarizer.Summary("short summary", new TokenUsage("mini", 100, 20, 0));
+        });
+
+        assertThat(service.summarize(conversationId, "alice")).isFalse();
+
+        assertThat(repository.findByConversationId(conversationId)).extracting(Message::getText)
+                .containsExactly(text(1), text(2), text(3), text(4), text(5));
+        assertThat(tokenQuotaService.getWindowTokens("alice")).isEqualTo(120);
+    }
+
+    private List<Message> turns(int count) {
+        List<Message> turns = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            turns.add(i % 2 == 0 ? new UserMessage(text(i)) : new AssistantMessage(text(i)));
+        }
+        return turns;
+    }
+
+    private String text(int index) {
+        return "turn " + index + " with enough words to pass the small token threshold";
+    }
+}
@@ -0,0 +1,91 @@
+package com.univade.ai.application.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.univade.ai.domain.exception.LlmCapacityExceededException;
+import com.univade.ai.domain.exception.TokenBudgetExceededException;
+import com.univade.ai.domain.model.GenerationJob;
+import com.univade.ai.domain.model.JobStatus;
+import com.univade.ai.domain.model.PromptContext;
+import com.univade.ai.domain.model.TestGenerationResult;
+import com.univade.ai.infrastructure.persistence.JdbcGenerationJobRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class GenerationJobServiceTest {
+
+    private final TestGenerationService testGenerationService = mock(TestGenerationService.class);
+    private final JdbcGenerationJobRepository repository = new JdbcGenerationJobRepository(database(),
+            new ObjectMapper().findAndRegisterModules());
+    private final GenerationJobService jobs = new GenerationJobService(repository, testGenerationService,
+            new SimpleMeterRegistry(), 1, 20, 3);
+
+    @AfterEach
+    void shutdown() {
+        jobs.shutdown();
+    }
+
+    @Test
+    void aRejectedJobIsRetriedAfterItsRetryAfterDelayWithoutUsingUpAttempts() throws Exception {
+        when(testGenerationService.buildConversationContext(any(), any(), anyBoolean()))
+                .thenAnswer(invocation -> new PromptContext("session", invocation.getArgument(0), invocation.getArgument(1)));
+        // LlmCapacityExceededException asks callers to come back in five seconds.
+        when(testGenerationService.generateTestsWithMemory(any()))
+                .thenThrow(new LlmCapacityExceededException("Timed out waiting for a generation slot"))
+                .thenReturn(success());
+        jobs.startWorkers();
+
+        GenerationJob job = jobs.submit("Generate tests", "public class OrderService {}", null, null, "alice", null);
+        long submitted = System.nanoTime();
+
+        GenerationJob finished = jobs.awaitCompletion(job.getId()).get(20, TimeUnit.SECONDS);
+
+        assertThat(finished.getStatus()).isEqualTo(JobStatus.SUCCEEDED);
+        assertThat(finished.getAttempts()).isEqualTo(1);
+        assertThat(System.nanoTime() - submitted).isGreaterThanOrEqualTo(TimeUnit.SECONDS.toNanos(4));
+        verify(testGenerationService, times(2)).generateTestsWithMemory(any());
+    }
+
+    @Test
+    void aRejectionThatRetryingCannotFixFailsTheJob() throws Exception {
+        when(testGenerationService.buildConversationContext(any(), any(), anyBoolean()))
+                .thenAnswer(invocation -> new PromptContext("session", invocation.getArgument(0), invocation.getArgument(1)));
+        when(testGenerationService.generateTestsWithMemory(any()))
+                .thenThrow(new TokenBudgetExceededException("Request exceeds the token budget", "session"));
+        jobs.startWorkers();
+
+        GenerationJob job = jobs.submit("Generate tests", "public class OrderService {}", null, null, "alice", null);
+        GenerationJob finished = jobs.awaitCompletion(job.getId()).get(5, TimeUnit.SECONDS);
+
+        assertThat(finished.getStatus()).isEqualTo(JobStatus.FAILED);
+        verify(testGenerationService, times(1)).generateTestsWithMemory(any());
+    }
+
+    private static TestGenerationResult success() {
+        TestGenerationResult result = new TestGenerationResult();
+        result.setStatus("SUCCESS");
+        return result;
+    }
+
+    private static JdbcTemplate database() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(dataSource);
+        return new JdbcTemplate(dataSource);
+    }
+}
@@ -0,0 +1,95 @@
+package com.univade.ai.application.service;
+
+import com.univade.ai.domain.exception.LlmUnavailableException;
+import com.univade.ai.domain.model.GenerationEstimate;
+import com.univade.ai.domain.model.PromptContext;
+import com.univade.ai.domain.repository.MemoryRepository;
+import com.univade.ai.domain.service.PromptRefiner;
+import com.univade.ai.domain.service.TestResultProcessor;
+import com.univade.ai.infrastructure.ai.ModelRouter;
+import com.univade.ai.infrastructure.ai.OpenAiClient;
+import com.univade.ai.infrastructure.cache.StaleResultCache;
+import com.univade.ai.infrastructure.concurrent.BoundedBatchExecutor;
+import com.univade.ai.infrastructure.concurrent.FairRequestScheduler;
+import com.univade.ai.infrastructure.file.TestFileManager;
+import com.univade.ai.infrastructure.metrics.PipelineMetrics;
+import com.univade.ai.infrastructure.parser.ClassComplexityAnalyzer;
+import com.univade.ai.infrastructure.parser.MethodGroupSplitter;
+import com.univade.ai.infrastructure.parser.TestClassMerger;
+import com.univade.ai.infrastructure.prompt.PromptLoader;
+import com.univade.ai.infrastructure.resilience.AdaptiveConcurrencyLimiter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TestGenerationServiceTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final OpenAiClient openAiClient = mock(OpenAiClient.class);
+    private final PromptRefiner promptRefiner = mock(PromptRefiner.class);
+    private final TokenBudgetService tokenBudgetService = mock(TokenBudgetService.class);
+    private final ConversationService conversationService = new ConversationService(30, 20);
+    private final TokenQuotaService tokenQuotaService =
+            new TokenQuotaService(conversationService, meterRegistry, true, 60, 60, 1_000_000, "", 0);
+    private final TestGenerationService testGenerationService = new TestGenerationService(openAiClient,
+            mock(PromptLoader.class), promptRefiner, mock(MemoryRepository.class), mock(TestFileManager.class),
+            new TestResultProcessor(), conversationService, mock(BoundedBatchExecutor.class),
+            mock(BoundedBatchExecutor.class), tokenBudgetService,
+            new ModelRouter(mock(ClassComplexityAnalyzer.class), meterRegistry, false, "gpt-4o-mini", 4000, 12,
+                    "gpt-4o", 8000),
+            new MethodGroupSplitter(false, 2, 1), new TestClassMerger(),
+            new FairRequestScheduler(false, 64, 1000, "", mock(AdaptiveConcurrencyLimiter.class), meterRegistry),
+            new StaleResultCache(10, meterRegistry), new PipelineMetrics(meterRegistry, true, false),
+            tokenQuotaService, mock(ConversationSummarizationService.class));
+
+    @BeforeEach
+    void estimate() {
+        GenerationEstimate estimate = new GenerationEstimate();
+        estimate.setSystemPromptTokens(100);
+        estimate.setUserPromptTokens(50);
+        estimate.setEstimatedOutputTokens(1000);
+        when(promptRefiner.buildUserPrompt(any())).thenReturn("Generate tests for OrderService");
+        when(tokenBudgetService.enforceBudget(any(), any(), any())).thenReturn(estimate);
+        when(tokenBudgetService.countTokens(anyString())).thenAnswer(invocation -> invocation.<String>getArgument(0).length());
+    }
+
+    @Test
+    void aStreamChargesThePromptAndTheTokensStreamedBack() {
+        when(openAiClient.streamTestSource(any(), any(), any())).thenReturn(Flux.just("class ", "OrderServiceTest {}"));
+
+        assertThat(testGenerationService.streamTests(context()).collectList().block(Duration.ofSeconds(5)))
+                .containsExactly("class ", "OrderServiceTest {}");
+
+        // 150 prompt tokens plus one token per streamed character here, instead of the full 1150 estimate.
+        assertThat(tokenQuotaService.getWindowTokens("alice")).isEqualTo(150 + 25);
+        assertThat(tokenQuotaService.getGlobalTokens()).isEqualTo(150 + 25);
+    }
+
+    @Test
+    void aStreamTurnedAwayBeforeTheModelIsRefunded() {
+        when(openAiClient.streamTestSource(any(), any(), any()))
+                .thenReturn(Flux.error(new LlmUnavailableException("Circuit open", 1000)));
+
+        assertThatThrownBy(() -> testGenerationService.streamTests(context()).blockLast(Duration.ofSeconds(5)))
+                .isInstanceOf(LlmUnavailableException.class);
+
+        assertThat(tokenQuotaService.getWindowTokens("alice")).isZero();
+        assertThat(tokenQuotaService.getGlobalTokens()).isZero();
+    }
+
+    private static PromptContext context() {
+        PromptContext context = new PromptContext("session", "Generate tests", "public class OrderService {}");
+        context.setUserId("alice");
+        return context;
+    }
+}
@@ -0,0 +1,115 @@
+package com.univade.ai.application.service;
+
+import com.univade.ai.domain.exception.TokenQuotaExceededException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TokenQuotaServiceTest {
+
+    private final MutableClock clock = new MutableClock();
+    private final TokenQuotaService quotas = new TokenQuotaService(new ConversationService(30, 20),
+            new SimpleMeterRegistry(), true, 60, 60, 1000, "team-a:5000", 0, clock);
+
+    @Test
+    void rejectsOnceTheWindowIsUsedUp() {
+        quotas.reserve("user", 800, "session");
+
+        assertThatThrownBy(() -> quotas.reserve("user", 300, "session"))
+                .isInstanceOf(TokenQuotaExceededException.class);
+        assertThat(quotas.getWindowTokens("user")).isEqualTo(800);
+    }
+
+    @Test
+    void settlingReturnsUnusedTokens() {
+        TokenQuotaService.Reservation reservation = quotas.reserve("user", 800, "session");
+        quotas.settle(reservation, null, 200);
+
+        quotas.reserve("user", 700, "session");
+        assertThat(quotas.getWindowTokens("user")).isEqualTo(900);
+        assertThat(quotas.getGlobalTokens()).isEqualTo(200);
+    }
+
+    @Test
+    void settlesIntoTheBucketTheReservationWasChargedTo() {
+        TokenQuotaService.Reservation reservation = quotas.reserve("user", 800, "session");
+        clock.advance(Duration.ofMinutes(2));
+        quotas.settle(reservation, null, 200);
+        assertThat(quotas.getWindowTokens("user")).isEqualTo(200);
+
+        // Once the reservation's bucket leaves the window all of it is gone, not just the estimate.
+        clock.advance(Duration.ofMinutes(59));
+        quotas.reserve("user", 500, "session");
+        assertThat(quotas.getWindowTokens("user")).isEqualTo(500);
+    }
+
+    @Test
+    void settlingAReservationThatLeftTheWindowChangesNothing() {
+        TokenQuotaService.Reservation reservation = quotas.reserve("user", 800, "session");
+        clock.advance(Duration.ofMinutes(61));
+        quotas.settle(reservation, null, 100);
+
+        quotas.reserve("user", 300, "session");
+        assertThat(quotas.getWindowTokens("user")).isEqualTo(300);
+        assertThat(quotas.getGlobalTokens()).isEqualTo(100);
+    }
+
+    @Test
+    void chargesUnreservedUsageToTheCurrentBucket() {
+        quotas.charge("user", null, 400);
+        clock.advance(Duration.ofMinutes(30));
+        quotas.charge("user", null, 100);
+
+        assertThat(quotas.getWindowTokens("user")).isEqualTo(500);
+        clock.advance(Duration.ofMinutes(31));
+        assertThat(quotas.getWindowTokens("user")).isEqualTo(100);
+    }
+
+    @Test
+    void appliesPerUserLimitsAndKeepsUsersApart() {
+        quotas.reserve("team-a", 4000, "session");
+        quotas.reserve("other", 1000, "session");
+
+        assertThat(quotas.getWindowTokens("team-a")).isEqualTo(4000);
+        assertThat(quotas.getWindowTokens("other")).isEqualTo(1000);
+    }
+
+    @Test
+    void keepsWindowsThatStillHoldUsage() {
+        quotas.reserve("user", 100, "session");
+
+        assertThat(quotas.evictIdleWindows()).isZero();
+        assertThat(quotas.getTrackedUsers()).isEqualTo(1);
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now = Instant.parse("2026-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
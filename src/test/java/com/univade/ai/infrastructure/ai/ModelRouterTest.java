@@ -0,0 +1,103 @@
+package com.univade.ai.infrastructure.ai;
+
+import com.univade.ai.domain.model.ClassComplexity;
+import com.univade.ai.domain.model.ModelRoute;
+import com.univade.ai.domain.value.TargetLayer;
+import com.univade.ai.infrastructure.parser.ClassComplexityAnalyzer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class ModelRouterTest {
+
+    private static final int FAST_MAX_SCORE = 12;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ClassComplexityAnalyzer analyzer = mock(ClassComplexityAnalyzer.class);
+
+    @Test
+    void scoresMethodsExtraBranchesDependenciesAndLayer() {
+        ModelRouter router = router(true);
+
+        // 3 methods + (7 - 3) extra branches * 2 + 2 dependencies * 2 + service weight 6
+        assertThat(router.score(complexity(3, 7, 2, TargetLayer.SERVICE))).isEqualTo(3 + 8 + 4 + 6);
+        // branches below the method count never lower the score
+        assertThat(router.score(complexity(4, 2, 0, TargetLayer.DTO))).isEqualTo(4);
+    }
+
+    @Test
+    void routesToTheFastTierUpToTheThresholdInclusive() {
+        ModelRouter router = router(true);
+        when(analyzer.analyze("atThreshold")).thenReturn(complexity(FAST_MAX_SCORE, FAST_MAX_SCORE, 0, TargetLayer.DTO));
+        when(analyzer.analyze("aboveThreshold")).thenReturn(complexity(FAST_MAX_SCORE + 1, FAST_MAX_SCORE + 1, 0, TargetLayer.DTO));
+
+        ModelRoute fast = router.route("atThreshold");
+        ModelRoute standard = router.route("aboveThreshold");
+
+        assertThat(fast.getTier()).isEqualTo(ModelRouter.FAST_TIER);
+        assertThat(fast.getModel()).isEqualTo("gpt-4o-mini");
+        assertThat(fast.getMaxTokens()).isEqualTo(4000);
+        assertThat(fast.getScore()).isEqualTo(FAST_MAX_SCORE);
+        assertThat(standard.getTier()).isEqualTo(ModelRouter.DEFAULT_TIER);
+        assertThat(standard.getModel()).isEqualTo("gpt-4o");
+        assertThat(standard.getMaxTokens()).isEqualTo(8000);
+    }
+
+    @Test
+    void unparsedOrBlankSourceGoesToTheDefaultTier() {
+        ModelRouter router = router(true);
+        when(analyzer.analyze(any())).thenReturn(ClassComplexity.unknown());
+
+        assertThat(router.route("not java").getTier()).isEqualTo(ModelRouter.DEFAULT_TIER);
+        assertThat(router.route("  ").getTier()).isEqualTo(ModelRouter.DEFAULT_TIER);
+        assertThat(router.route(null).getTier()).isEqualTo(ModelRouter.DEFAULT_TIER);
+    }
+
+    @Test
+    void disabledRoutingAlwaysUsesTheDefaultTierWithoutAnalyzing() {
+        ModelRouter router = router(false);
+
+        assertThat(router.route("public class Tiny {}").getTier()).isEqualTo(ModelRouter.DEFAULT_TIER);
+        assertThat(router.summaryRoute(500).getTier()).isEqualTo(ModelRouter.DEFAULT_TIER);
+        verifyNoInteractions(analyzer);
+    }
+
+    @Test
+    void registersOneDecisionCounterAndLatencyTimerPerTier() {
+        ModelRouter router = router(true);
+        when(analyzer.analyze(any())).thenReturn(complexity(1, 1, 0, TargetLayer.DTO));
+
+        ModelRoute route = router.route("a");
+        router.route("b");
+        router.timed(route, () -> "reply");
+        router.timed(route, () -> "reply");
+        router.timed(null, () -> "reply");
+
+        assertThat(meterRegistry.find("testgen.llm.routing.decisions").counters()).hasSize(1);
+        assertThat(meterRegistry.get("testgen.llm.routing.decisions").tag("tier", ModelRouter.FAST_TIER)
+                .counter().count()).isEqualTo(2.0);
+        assertThat(meterRegistry.get("testgen.llm.routing.latency").tag("tier", ModelRouter.FAST_TIER)
+                .timer().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("testgen.llm.routing.latency").tag("tier", ModelRouter.DEFAULT_TIER)
+                .timer().count()).isEqualTo(1);
+    }
+
+    private ModelRouter router(boolean enabled) {
+        return new ModelRouter(analyzer, meterRegistry, enabled, "gpt-4o-mini", 4000, FAST_MAX_SCORE, "gpt-4o", 8000);
+    }
+
+    private static ClassComplexity complexity(int methods, int cyclomatic, int dependencies, TargetLayer layer) {
+        ClassComplexity complexity = new ClassComplexity();
+        complexity.setParsed(true);
+        complexity.setMethodCount(methods);
+        complexity.setCyclomaticComplexity(cyclomatic);
+        complexity.setDependencyCount(dependencies);
+        complexity.setTargetLayer(layer);
+        return complexity;
+    }
+}
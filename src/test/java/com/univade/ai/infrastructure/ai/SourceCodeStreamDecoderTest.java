@@ -0,0 +1,67 @@
+package com.univade.ai.infrastructure.ai;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SourceCodeStreamDecoderTest {
+
+    private static final String REPLY = """
+            Here are the tests:
+            {
+              "metadata": {"source_code": "not this one", "testCount": 2},
+              "test_class": {
+                "class_name": "UserServiceTest",
+                "imports": ["org.junit.jupiter.api.Test"],
+                "source_code": "class UserServiceTest {\\n\\t@Test\\n\\tvoid s() { assertEquals(\\"a\\\\b\\", x); }\\n}\\u0021"
+              },
+              "test_summary": {"happy_path_tests": 1}
+            }
+            """;
+
+    private static final String EXPECTED = "class UserServiceTest {\n\t@Test\n\tvoid s() { assertEquals(\"a\\b\", x); }\n}!";
+
+    @Test
+    void emitsOnlyTheUnescapedTestClassSource() {
+        SourceCodeStreamDecoder decoder = new SourceCodeStreamDecoder();
+
+        String decoded = decoder.decode(REPLY);
+
+        assertThat(decoded).isEqualTo(EXPECTED);
+        assertThat(decoder.isSourceComplete()).isTrue();
+        assertThat(decoder.isFinished()).isTrue();
+    }
+
+    @Test
+    void decodesTheSameTextWhenSplitIntoSingleCharacterChunks() {
+        SourceCodeStreamDecoder decoder = new SourceCodeStreamDecoder();
+        StringBuilder decoded = new StringBuilder();
+
+        for (int i = 0; i < REPLY.length(); i++) {
+            decoded.append(decoder.decode(REPLY.substring(i, i + 1)));
+        }
+
+        assertThat(decoded.toString()).isEqualTo(EXPECTED);
+    }
+
+    @Test
+    void reportsTheSourceCompleteAsSoonAsItsStringCloses() {
+        SourceCodeStreamDecoder decoder = new SourceCodeStreamDecoder();
+        int end = REPLY.indexOf("\\u0021\"") + "\\u0021\"".length();
+
+        decoder.decode(REPLY.substring(0, end - 1));
+        assertThat(decoder.isSourceComplete()).isFalse();
+
+        decoder.decode(REPLY.substring(end - 1, end));
+        assertThat(decoder.isSourceComplete()).isTrue();
+        assertThat(decoder.isFinished()).isFalse();
+    }
+
+    @Test
+    void ignoresInputAfterTheTopLevelObjectCloses() {
+        SourceCodeStreamDecoder decoder = new SourceCodeStreamDecoder();
+        decoder.decode("{\"test_class\": {\"source_code\": \"a\"}}");
+
+        assertThat(decoder.decode("{\"test_class\": {\"source_code\": \"b\"}}")).isEmpty();
+    }
+}
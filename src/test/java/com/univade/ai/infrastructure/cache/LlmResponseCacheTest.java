@@ -0,0 +1,108 @@
+package com.univade.ai.infrastructure.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LlmResponseCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void keyIsStableAndChangesWithThePromptOrTheModelOptions() {
+        LlmResponseCache cache = cache(60, false, 10);
+        String key = cache.key("system", "user", "model=gpt-4o;temperature=0.1");
+
+        assertThat(cache.key("system", "user", "model=gpt-4o;temperature=0.1")).isEqualTo(key);
+        assertThat(cache.key("system", "user!", "model=gpt-4o;temperature=0.1")).isNotEqualTo(key);
+        assertThat(cache.key("system!", "user", "model=gpt-4o;temperature=0.1")).isNotEqualTo(key);
+        assertThat(cache.key("system", "user", "model=gpt-4o-mini;temperature=0.1")).isNotEqualTo(key);
+        // Lengths are hashed too, so moving text across the boundary between parts changes the key.
+        assertThat(cache.key("systemu", "ser", "model=gpt-4o;temperature=0.1")).isNotEqualTo(key);
+    }
+
+    @Test
+    void missesForADifferentKeyAndHitsForTheSameOne() {
+        LlmResponseCache cache = cache(60, false, 10);
+        cache.put(cache.key("system", "user", "options"), "reply");
+
+        assertThat(cache.get(cache.key("system", "user", "options"))).contains("reply");
+        assertThat(cache.get(cache.key("system", "user", "other options"))).isEmpty();
+        assertThat(count("hit", "memory")).isEqualTo(1.0);
+        assertThat(count("miss", "none")).isEqualTo(1.0);
+    }
+
+    @Test
+    void expiredEntriesAreMisses() {
+        LlmResponseCache cache = cache(0, false, 10);
+        cache.put("key", "reply");
+
+        assertThat(cache.get("key")).isEmpty();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void diskEntriesSurviveARestart() {
+        cache(60, true, 10).put("key", "reply");
+
+        LlmResponseCache restarted = cache(60, true, 10);
+
+        assertThat(restarted.get("key")).contains("reply");
+        assertThat(restarted.get("key")).contains("reply");
+        assertThat(count("hit", "disk")).isEqualTo(1.0);
+        assertThat(count("hit", "memory")).isEqualTo(1.0);
+    }
+
+    @Test
+    void expiredDiskEntriesAreMissesAndDeleted() throws Exception {
+        cache(60, true, 10).put("key", "reply");
+        age(directory.resolve("key.txt"), Duration.ofMinutes(61));
+
+        assertThat(cache(60, true, 10).get("key")).isEmpty();
+        assertThat(directory.resolve("key.txt")).doesNotExist();
+    }
+
+    @Test
+    void sweepDeletesExpiredAndOldestEntriesBeyondTheLimit() throws Exception {
+        LlmResponseCache cache = cache(60, true, 2);
+        for (String key : new String[] {"expired", "oldest", "older", "newest"}) {
+            cache.put(key, "reply");
+        }
+        age(directory.resolve("expired.txt"), Duration.ofMinutes(90));
+        age(directory.resolve("oldest.txt"), Duration.ofMinutes(30));
+        age(directory.resolve("older.txt"), Duration.ofMinutes(20));
+        Files.writeString(directory.resolve("leftover.tmp"), "partial");
+        age(directory.resolve("leftover.tmp"), Duration.ofMinutes(90));
+
+        assertThat(cache.sweepDisk()).isEqualTo(3);
+        try (var files = Files.list(directory)) {
+            assertThat(files.map(path -> path.getFileName().toString()))
+                    .containsExactlyInAnyOrder("older.txt", "newest.txt");
+        }
+    }
+
+    private LlmResponseCache cache(long ttlMinutes, boolean diskEnabled, int maxDiskEntries) {
+        return new LlmResponseCache(true, 10, ttlMinutes, diskEnabled, directory.toString(), maxDiskEntries,
+                meterRegistry);
+    }
+
+    private double count(String result, String tier) {
+        return meterRegistry.get("testgen.llm.cache.requests").tag("result", result).tag("tier", tier)
+                .counter().count();
+    }
+
+    private static void age(Path path, Duration age) throws Exception {
+        Files.setLastModifiedTime(path, FileTime.from(Instant.now().minus(age)));
+    }
+}
@@ -0,0 +1,46 @@
+package com.univade.ai.infrastructure.cache;
+
+import com.univade.ai.domain.model.TestGenerationResult;
+import com.univade.ai.domain.model.TokenUsage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StaleResultCacheTest {
+
+    private static final String SOURCE = "public class Calculator { int add(int a, int b) { return a + b; } }";
+
+    private final StaleResultCache cache = new StaleResultCache(10, new SimpleMeterRegistry());
+
+    @Test
+    void staleCopyCarriesNoConversationOfTheOriginalCaller() {
+        TestGenerationResult result = new TestGenerationResult("first-session");
+        result.setTokenUsage(new TokenUsage("gpt-4o", 100, 50, 0));
+        cache.remember(SOURCE, result);
+        result.setConversationId("first-conversation");
+        result.setNewConversation(true);
+
+        Optional<TestGenerationResult> stale = cache.lastGood(SOURCE, "second-session");
+
+        assertThat(stale).isPresent();
+        assertThat(stale.get().getSessionId()).isEqualTo("second-session");
+        assertThat(stale.get().getConversationId()).isNull();
+        assertThat(stale.get().isNewConversation()).isFalse();
+        assertThat(stale.get().getTokenUsage()).isNull();
+        assertThat(stale.get().isStale()).isTrue();
+    }
+
+    @Test
+    void matchesIgnoringWhitespaceAndSkipsFailures() {
+        TestGenerationResult failed = new TestGenerationResult("session");
+        failed.setStatus("ERROR");
+        cache.remember(SOURCE, failed);
+        assertThat(cache.lastGood(SOURCE, "session")).isEmpty();
+
+        cache.remember(SOURCE, new TestGenerationResult("session"));
+        assertThat(cache.lastGood("  " + SOURCE.replace(" ", "\n  ") + "\n", "other")).isPresent();
+    }
+}
@@ -0,0 +1,148 @@
+package com.univade.ai.infrastructure.concurrent;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+class BoundedBatchExecutorTest {
+
+    private final BoundedBatchExecutor executor = new BoundedBatchExecutor("test", 2, 1);
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void returnsResultsInOrderWithFallbacksForFailures() {
+        List<String> results = executor.executeAll(List.of(1, 2, 3), item -> {
+            if (item == 2) {
+                throw new IllegalStateException("boom");
+            }
+            return "ok-" + item;
+        }, (item, failure) -> "failed-" + item + ": " + failure.getMessage());
+
+        assertThat(results).containsExactly("ok-1", "failed-2: boom", "ok-3");
+    }
+
+    @Test
+    void errorsThrownByATaskGetTheFallback() {
+        List<String> results = executor.executeAll(List.of(1, 2), item -> {
+            if (item == 1) {
+                throw new StackOverflowError("too deep");
+            }
+            return "ok-" + item;
+        }, (item, failure) -> "failed-" + item + ": " + failure.getMessage());
+
+        assertThat(results).containsExactly("failed-1: too deep", "ok-2");
+    }
+
+    @Test
+    void aThrowingFallbackFailsTheBatchInsteadOfHanging() {
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () ->
+                assertThatThrownBy(() -> executor.executeAll(List.of(1, 2), item -> {
+                    if (item == 1) {
+                        throw new IllegalStateException("boom");
+                    }
+                    return "ok-" + item;
+                }, (item, failure) -> {
+                    throw new IllegalArgumentException("rejected " + item, failure);
+                })).isInstanceOf(IllegalArgumentException.class).hasMessage("rejected 1"));
+    }
+
+    @Test
+    void timedOutItemsGetTheFallbackAndTheirWorkerIsInterrupted() {
+        AtomicBoolean interrupted = new AtomicBoolean();
+
+        List<String> results = executor.executeAll(List.of(1), item -> {
+            try {
+                Thread.sleep(10_000);
+                return "late";
+            } catch (InterruptedException e) {
+                interrupted.set(true);
+                return "interrupted";
+            }
+        }, (item, failure) -> failure instanceof TimeoutException ? "timeout" : "other");
+
+        assertThat(results).containsExactly("timeout");
+        assertThat(interrupted).isTrue();
+    }
+
+    @Test
+    void aTimeoutNeverInterruptsTheNextItemOnTheSameWorker() {
+        BoundedBatchExecutor single = new BoundedBatchExecutor("single", 1, 1);
+        try {
+            List<String> results = single.executeAll(List.of(1, 2), item -> {
+                if (item == 1) {
+                    try {
+                        Thread.sleep(10_000);
+                    } catch (InterruptedException e) {
+                        return "interrupted";
+                    }
+                    return "late";
+                }
+                try {
+                    Thread.sleep(100);
+                    return "ok-" + item;
+                } catch (InterruptedException e) {
+                    return "wrongly interrupted";
+                }
+            }, (item, failure) -> "fallback-" + item);
+
+            assertThat(results).containsExactly("fallback-1", "ok-2");
+        } finally {
+            single.shutdown();
+        }
+    }
+
+    @Test
+    void interruptingTheCallerAbortsUnfinishedItems() throws Exception {
+        CountDownLatch started = new CountDownLatch(2);
+        CountDownLatch workersInterrupted = new CountDownLatch(2);
+        AtomicBoolean callerStillInterrupted = new AtomicBoolean();
+        CompletableFuture<List<String>> outcome = new CompletableFuture<>();
+
+        Thread caller = new Thread(() -> {
+            outcome.complete(executor.executeAll(List.of(1, 2), item -> {
+                started.countDown();
+                try {
+                    Thread.sleep(10_000);
+                    return "late";
+                } catch (InterruptedException e) {
+                    workersInterrupted.countDown();
+                    return "interrupted";
+                }
+            }, (item, failure) -> failure instanceof InterruptedException ? "aborted-" + item : "other"));
+            callerStillInterrupted.set(Thread.currentThread().isInterrupted());
+        });
+        caller.start();
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        caller.interrupt();
+
+        assertThat(outcome.get(5, TimeUnit.SECONDS)).containsExactly("aborted-1", "aborted-2");
+        caller.join(5_000);
+        assertThat(callerStillInterrupted).isTrue();
+        assertThat(workersInterrupted.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void itemsSubmittedAfterShutdownGetTheFallback() {
+        executor.shutdown();
+
+        List<String> results = executor.executeAll(List.of(1), item -> "ran", (item, failure) -> "rejected");
+
+        assertThat(results).containsExactly("rejected");
+    }
+}
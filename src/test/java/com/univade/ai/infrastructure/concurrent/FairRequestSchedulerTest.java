@@ -0,0 +1,166 @@
+package com.univade.ai.infrastructure.concurrent;
+
+import com.univade.ai.domain.exception.LlmCapacityExceededException;
+import com.univade.ai.domain.value.RequestPriority;
+import com.univade.ai.infrastructure.resilience.AdaptiveConcurrencyLimiter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FairRequestSchedulerTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ExecutorService callers = Executors.newCachedThreadPool();
+    private final List<String> served = Collections.synchronizedList(new ArrayList<>());
+
+    @AfterEach
+    void shutdown() {
+        callers.shutdownNow();
+    }
+
+    @Test
+    void higherPriorityIsServedFirst() throws Exception {
+        FairRequestScheduler scheduler = scheduler(1, "", 60_000);
+        CountDownLatch release = holdSlot(scheduler);
+
+        Future<?> bulk = submit(scheduler, "bulk-user", RequestPriority.BULK, "bulk");
+        awaitCondition(() -> scheduler.getQueued(RequestPriority.BULK) == 1);
+        Future<?> interactive = submit(scheduler, "interactive-user", RequestPriority.INTERACTIVE, "interactive");
+        awaitCondition(() -> scheduler.getQueued(RequestPriority.INTERACTIVE) == 1);
+
+        release.countDown();
+        bulk.get(5, TimeUnit.SECONDS);
+        interactive.get(5, TimeUnit.SECONDS);
+
+        assertThat(served).containsExactly("interactive", "bulk");
+    }
+
+    @Test
+    void usersAreServedInProportionToTheirWeights() throws Exception {
+        FairRequestScheduler scheduler = scheduler(1, "heavy:3", 60_000);
+        CountDownLatch release = holdSlot(scheduler);
+
+        List<Future<?>> requests = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            requests.add(submit(scheduler, "heavy", RequestPriority.STANDARD, "heavy"));
+            requests.add(submit(scheduler, "light", RequestPriority.STANDARD, "light"));
+        }
+        awaitCondition(() -> scheduler.getQueued(RequestPriority.STANDARD) == 8);
+
+        release.countDown();
+        for (Future<?> request : requests) {
+            request.get(5, TimeUnit.SECONDS);
+        }
+
+        assertThat(served.subList(0, 4)).filteredOn("heavy"::equals).hasSizeGreaterThanOrEqualTo(3);
+    }
+
+    @Test
+    void dropsFinishTagsOfUsersWithNothingOutstanding() {
+        FairRequestScheduler scheduler = scheduler(8, "", 60_000);
+        for (int i = 0; i < 500; i++) {
+            scheduler.execute("user-" + i, RequestPriority.STANDARD, () -> "ok");
+        }
+
+        assertThat(scheduler.getTrackedUsers(RequestPriority.STANDARD)).isZero();
+        assertThat(scheduler.getInFlight()).isZero();
+    }
+
+    @Test
+    void timesOutWhenNoSlotFreesUp() throws Exception {
+        FairRequestScheduler scheduler = scheduler(1, "", 50);
+        CountDownLatch release = holdSlot(scheduler);
+        try {
+            assertThatThrownBy(() -> scheduler.execute("late", RequestPriority.STANDARD, () -> "ok"))
+                    .isInstanceOf(LlmCapacityExceededException.class);
+            assertThat(scheduler.getQueued(RequestPriority.STANDARD)).isZero();
+            assertThat(scheduler.getTrackedUsers(RequestPriority.STANDARD)).isZero();
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void admitsNoMoreThanTheLimiterAllows() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(true, 1, 1, 4, 0.5, 10, 1000, 60_000,
+                1000, meterRegistry);
+        FairRequestScheduler scheduler = new FairRequestScheduler(true, 8, 60_000, "", limiter, meterRegistry);
+        CountDownLatch release = holdSlot(scheduler);
+
+        Future<?> waiting = submit(scheduler, "second", RequestPriority.STANDARD, "second");
+        awaitCondition(() -> scheduler.getQueued(RequestPriority.STANDARD) == 1);
+        assertThat(scheduler.getInFlight()).isEqualTo(1);
+
+        release.countDown();
+        waiting.get(5, TimeUnit.SECONDS);
+        assertThat(served).containsExactly("second");
+    }
+
+    @Test
+    void streamsWaitForASlotWithoutBlockingTheSubscriber() throws Exception {
+        FairRequestScheduler scheduler = scheduler(1, "", 60_000);
+        CountDownLatch release = holdSlot(scheduler);
+
+        List<String> received = Collections.synchronizedList(new ArrayList<>());
+        Disposable subscription = scheduler.execute("streamer", RequestPriority.STANDARD, Flux.just("chunk"))
+                .subscribe(received::add);
+        assertThat(subscription.isDisposed()).isFalse();
+        awaitCondition(() -> scheduler.getQueued(RequestPriority.STANDARD) == 1);
+        assertThat(received).isEmpty();
+
+        release.countDown();
+        awaitCondition(() -> received.size() == 1);
+        awaitCondition(() -> scheduler.getInFlight() == 0);
+        assertThat(received).containsExactly("chunk");
+    }
+
+    private FairRequestScheduler scheduler(int maxConcurrent, String weights, long maxWaitMs) {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(false, 8, 1, 64, 0.5, 200, 1000, 60_000,
+                1000, meterRegistry);
+        return new FairRequestScheduler(true, maxConcurrent, maxWaitMs, weights, limiter, meterRegistry);
+    }
+
+    private CountDownLatch holdSlot(FairRequestScheduler scheduler) throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        callers.submit(() -> scheduler.execute("holder", RequestPriority.STANDARD, () -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return null;
+        }));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        return release;
+    }
+
+    private Future<?> submit(FairRequestScheduler scheduler, String userId, RequestPriority priority, String label) {
+        return callers.submit(() -> scheduler.execute(userId, priority, () -> served.add(label)));
+    }
+
+    private void awaitCondition(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition not reached in time").isLessThan(deadline);
+            Thread.sleep(5);
+        }
+    }
+}
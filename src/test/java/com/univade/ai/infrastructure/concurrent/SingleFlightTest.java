@@ -0,0 +1,92 @@
+package com.univade.ai.infrastructure.concurrent;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightTest {
+
+    private final SingleFlight<String> singleFlight = new SingleFlight<>();
+    private final ExecutorService callers = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void shutdown() {
+        callers.shutdownNow();
+    }
+
+    @Test
+    void concurrentCallsForTheSameKeyShareOneExecution() throws Exception {
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger executions = new AtomicInteger();
+
+        Future<SingleFlight.Call<String>> leader = callers.submit(() -> singleFlight.execute("key", () -> {
+            executions.incrementAndGet();
+            leaderStarted.countDown();
+            await(release);
+            return "value";
+        }));
+        assertThat(leaderStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        Future<SingleFlight.Call<String>> follower = callers.submit(() -> singleFlight.execute("key", () -> {
+            executions.incrementAndGet();
+            return "other";
+        }));
+
+        waitForFollowerToJoin();
+        release.countDown();
+
+        assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo(new SingleFlight.Call<>("value", false));
+        assertThat(follower.get(5, TimeUnit.SECONDS)).isEqualTo(new SingleFlight.Call<>("value", true));
+        assertThat(executions).hasValue(1);
+        assertThat(singleFlight.inFlightCount()).isZero();
+    }
+
+    @Test
+    void differentKeysRunIndependently() {
+        assertThat(singleFlight.execute("a", () -> "A").value()).isEqualTo("A");
+        assertThat(singleFlight.execute("b", () -> "B").value()).isEqualTo("B");
+    }
+
+    @Test
+    void failuresReachEveryWaiterAndAreNotRemembered() throws Exception {
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<SingleFlight.Call<String>> leader = callers.submit(() -> singleFlight.execute("key", () -> {
+            leaderStarted.countDown();
+            await(release);
+            throw new IllegalStateException("model down");
+        }));
+        assertThat(leaderStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        Future<SingleFlight.Call<String>> follower = callers.submit(() -> singleFlight.execute("key", () -> "other"));
+
+        waitForFollowerToJoin();
+        release.countDown();
+
+        assertThatThrownBy(() -> leader.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> follower.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(IllegalStateException.class);
+        assertThat(singleFlight.execute("key", () -> "retried")).isEqualTo(new SingleFlight.Call<>("retried", false));
+    }
+
+    // The follower blocks in join() once it found the leader's future; give it a moment to get there.
+    private void waitForFollowerToJoin() throws InterruptedException {
+        Thread.sleep(100);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.univade.ai.infrastructure.parser;
+
+import com.univade.ai.domain.model.ClassComplexity;
+import com.univade.ai.domain.value.TargetLayer;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ClassComplexityAnalyzerTest {
+
+    private final ClassComplexityAnalyzer analyzer = new ClassComplexityAnalyzer();
+
+    @Test
+    void classWithOnlyStrictAccessorsIsADto() {
+        ClassComplexity complexity = analyzer.analyze("""
+                public class OrderDto {
+                    private String id;
+                    private boolean paid;
+                    public String getId() { return id; }
+                    public void setId(String id) { this.id = id; }
+                    public boolean isPaid() { return this.paid; }
+                    public String toString() { return id; }
+                }
+                """);
+
+        assertThat(complexity.isParsed()).isTrue();
+        assertThat(complexity.getTargetLayer()).isEqualTo(TargetLayer.DTO);
+    }
+
+    @Test
+    void getterWithLogicIsNotTreatedAsAnAccessor() {
+        ClassComplexity complexity = analyzer.analyze("""
+                public class PriceCalculator {
+                    private int net;
+                    public int getGross() { return net * 2; }
+                }
+                """);
+
+        assertThat(complexity.getTargetLayer()).isEqualTo(TargetLayer.SERVICE);
+    }
+
+    @Test
+    void countsBranchesAcrossMethodsAndConstructors() {
+        ClassComplexity complexity = analyzer.analyze("""
+                public class OrderService {
+                    public OrderService(String name) { if (name == null) { throw new IllegalArgumentException(); } }
+                    public int place(int count, boolean express) {
+                        for (int i = 0; i < count; i++) { }
+                        if (count > 1 && express) { return 1; }
+                        return express ? 2 : 3;
+                    }
+                    public void cancel() { }
+                }
+                """);
+
+        // constructor: 1 + if; place: 1 + for + if + && + ternary; cancel: 1
+        assertThat(complexity.getMethodCount()).isEqualTo(2);
+        assertThat(complexity.getCyclomaticComplexity()).isEqualTo(2 + 5 + 1);
+    }
+
+    @Test
+    void countsDistinctNonValueDependencies() {
+        ClassComplexity complexity = analyzer.analyze("""
+                public class OrderService {
+                    private static final Logger LOG = null;
+                    private final OrderRepository orders;
+                    private final PaymentClient payments;
+                    private final String region;
+                    private final int retries;
+                    public OrderService(OrderRepository orders, PaymentClient payments, Clock clock) {
+                        this.orders = orders;
+                        this.payments = payments;
+                        this.region = "eu";
+                        this.retries = 3;
+                    }
+                }
+                """);
+
+        assertThat(complexity.getDependencyCount()).isEqualTo(3);
+    }
+
+    @Test
+    void detectsLayerFromAnnotationsAndRepositoryInterfaces() {
+        assertThat(analyzer.analyze("@RestController public class OrderController { public String get() { return \"\"; } }")
+                .getTargetLayer()).isEqualTo(TargetLayer.CONTROLLER);
+        assertThat(analyzer.analyze("public interface OrderRepository extends JpaRepository<Order, Long> { }")
+                .getTargetLayer()).isEqualTo(TargetLayer.REPOSITORY);
+        assertThat(analyzer.analyze("@Entity public class Order { private Long id; public Long getId() { return id; } }")
+                .getTargetLayer()).isEqualTo(TargetLayer.ENTITY);
+        assertThat(analyzer.analyze("@Service public class OrderService { }")
+                .getTargetLayer()).isEqualTo(TargetLayer.SERVICE);
+        assertThat(analyzer.analyze("public record OrderView(String id) { public String label() { return id + \"!\"; } }")
+                .getTargetLayer()).isEqualTo(TargetLayer.DTO);
+    }
+
+    @Test
+    void unparseableSourceIsUnknown() {
+        assertThat(analyzer.analyze("this is not java").isParsed()).isFalse();
+    }
+}
@@ -0,0 +1,89 @@
+package com.univade.ai.infrastructure.parser;
+
+import com.knuddels.jtokkit.api.EncodingType;
+import com.univade.ai.domain.value.CompactionLevel;
+import com.univade.ai.infrastructure.ai.TokenEstimator;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JavaSourceCompactorTest {
+
+    private static final String SOURCE = """
+            package com.example;
+
+            public class Account {
+                // the owner's display name
+                private String name;
+                private boolean active;
+                private Account parent;
+
+                public String getName() {
+                    return name;
+                }
+
+                public void setName(String name) {
+                    this.name = name;
+                }
+
+                public boolean isActive() {
+                    return this.active;
+                }
+
+                public Account getOrCreate() {
+                    return parent != null ? parent : new Account();
+                }
+
+                public void isolate() {
+                    parent = null;
+                }
+
+                public void settle() {
+                    active = false;
+                }
+
+                public void setActive(boolean active) {
+                    this.active = !active;
+                }
+
+                private int weight() {
+                    return name.length();
+                }
+            }
+            """;
+
+    private final JavaSourceCompactor compactor = new JavaSourceCompactor(new TokenEstimator(EncodingType.O200K_BASE));
+
+    @Test
+    void stripsCommentsOnly() {
+        String compacted = compactor.compact(SOURCE, CompactionLevel.STRIP_COMMENTS);
+
+        assertThat(compacted).doesNotContain("display name");
+        assertThat(compacted).contains("return name.length();");
+    }
+
+    @Test
+    void collapsesPrivateMethods() {
+        String compacted = compactor.compact(SOURCE, CompactionLevel.COLLAPSE_PRIVATE);
+
+        assertThat(compacted).doesNotContain("return name.length();");
+        assertThat(compacted).contains("return name;", "this.name = name;");
+    }
+
+    @Test
+    void collapsesOnlyRealFieldAccessors() {
+        String compacted = compactor.compact(SOURCE, CompactionLevel.COLLAPSE_PRIVATE_AND_TRIVIAL);
+
+        assertThat(compacted).doesNotContain("return name;", "this.name = name;", "return this.active;");
+        assertThat(compacted).contains(
+                "return parent != null ? parent : new Account();",
+                "parent = null;",
+                "active = false;",
+                "this.active = !active;");
+    }
+
+    @Test
+    void leavesUnparseableSourceAlone() {
+        assertThat(compactor.compact("not java", CompactionLevel.COLLAPSE_PRIVATE_AND_TRIVIAL)).isEqualTo("not java");
+    }
+}
@@ -0,0 +1,58 @@
+package com.univade.ai.infrastructure.parser;
+
+import com.univade.ai.domain.model.MethodGroup;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MethodGroupSplitterTest {
+
+    private static final String SOURCE = """
+            package com.example;
+
+            public class OrderService {
+                public void create() { validate(); }
+                public void create(String id) { validate(); }
+                public void update() { }
+                public void delete() { }
+                public void find() { }
+                private void validate() { }
+            }
+            """;
+
+    @Test
+    void splitsPublicMethodsIntoGroupsKeepingOverloadsTogether() {
+        MethodGroupSplitter splitter = new MethodGroupSplitter(true, 4, 2);
+
+        List<MethodGroup> groups = splitter.split(SOURCE);
+
+        assertThat(groups).extracting(MethodGroup::getMethodNames)
+                .containsExactly(List.of("create", "update"), List.of("delete", "find"));
+        assertThat(groups).extracting(MethodGroup::getIndex).containsExactly(0, 1);
+    }
+
+    @Test
+    void groupSourceKeepsPrivateHelpersAndDropsOtherGroupsMethods() {
+        MethodGroupSplitter splitter = new MethodGroupSplitter(true, 4, 2);
+
+        String firstGroup = splitter.split(SOURCE).get(0).getSourceCode();
+
+        assertThat(firstGroup).contains("void create()", "void create(String id)", "void update()", "void validate()");
+        assertThat(firstGroup).doesNotContain("void delete()", "void find()");
+    }
+
+    @Test
+    void leavesSmallClassesWhole() {
+        MethodGroupSplitter splitter = new MethodGroupSplitter(true, 5, 2);
+
+        assertThat(splitter.split(SOURCE)).isEmpty();
+    }
+
+    @Test
+    void doesNothingWhenDisabledOrUnparseable() {
+        assertThat(new MethodGroupSplitter(false, 1, 1).split(SOURCE)).isEmpty();
+        assertThat(new MethodGroupSplitter(true, 1, 1).split("not java at all")).isEmpty();
+    }
+}
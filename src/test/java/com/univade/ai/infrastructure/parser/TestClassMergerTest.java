@@ -0,0 +1,134 @@
+package com.univade.ai.infrastructure.parser;
+
+import com.univade.ai.domain.model.MethodGroup;
+import com.univade.ai.domain.model.TestGenerationResult;
+import com.univade.ai.domain.model.TokenUsage;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TestClassMergerTest {
+
+    private final TestClassMerger merger = new TestClassMerger();
+
+    private final List<MethodGroup> groups = List.of(
+            new MethodGroup(0, List.of("create", "update"), ""),
+            new MethodGroup(1, List.of("delete"), ""));
+
+    @Test
+    void mergesImportsFixturesAndTestMethodsOfAllGroups() {
+        TestGenerationResult first = part("""
+                package com.example;
+
+                import org.junit.jupiter.api.BeforeEach;
+                import org.junit.jupiter.api.Test;
+
+                class UserServiceTest {
+                    private UserService service;
+
+                    @BeforeEach
+                    void setUp() {
+                        service = new UserService();
+                    }
+
+                    @Test
+                    void shouldCreateUser() {
+                    }
+                }
+                """, 100, 40);
+        TestGenerationResult second = part("""
+                package com.example;
+
+                import org.junit.jupiter.api.BeforeEach;
+                import org.junit.jupiter.api.Test;
+                import static org.assertj.core.api.Assertions.assertThat;
+
+                class UserServiceTest {
+                    private UserService service;
+
+                    @BeforeEach
+                    void setUp() {
+                        service = new UserService();
+                        service.reset();
+                    }
+
+                    @Test
+                    void shouldCreateUser() {
+                    }
+
+                    @Test
+                    void shouldDeleteUser() {
+                    }
+                }
+                """, 120, 60);
+
+        TestGenerationResult merged = merger.merge(groups, List.of(first, second));
+
+        String source = merged.getGeneratedTest();
+        assertThat(merged.getStatus()).isEqualTo("SUCCESS");
+        assertThat(merged.getErrorMessage()).isNull();
+        assertThat(source).contains("import static org.assertj.core.api.Assertions.assertThat;");
+        assertThat(source).containsOnlyOnce("void setUp()");
+        assertThat(source).containsOnlyOnce("service = new UserService();");
+        assertThat(source).contains("service.reset();");
+        assertThat(source).contains("void shouldCreateUser()", "void shouldCreateUserGroup2()", "void shouldDeleteUser()");
+        assertThat(source).containsOnlyOnce("private UserService service;");
+        assertThat(merged.getTokenUsage().getPromptTokens()).isEqualTo(220);
+        assertThat(merged.getTokenUsage().getCompletionTokens()).isEqualTo(100);
+    }
+
+    @Test
+    void keepsSuccessfulGroupsAndReportsTheMethodsOfFailedOnes() {
+        TestGenerationResult ok = part("""
+                class UserServiceTest {
+                    @org.junit.jupiter.api.Test
+                    void shouldDeleteUser() {
+                    }
+                }
+                """, 100, 40);
+
+        TestGenerationResult merged = merger.merge(groups, List.of(error("Request timed out"), ok));
+
+        assertThat(merged.getStatus()).isEqualTo("SUCCESS");
+        assertThat(merged.getGeneratedTest()).contains("shouldDeleteUser");
+        assertThat(merged.getErrorMessage()).contains("[create, update]").contains("Request timed out");
+    }
+
+    @Test
+    void treatsUnparseableGroupOutputAsFailed() {
+        TestGenerationResult ok = part("class UserServiceTest { void shouldCreateUser() { } }", 10, 10);
+        TestGenerationResult broken = part("this is not java", 10, 10);
+
+        TestGenerationResult merged = merger.merge(groups, List.of(ok, broken));
+
+        assertThat(merged.getStatus()).isEqualTo("SUCCESS");
+        assertThat(merged.getErrorMessage()).contains("[delete]");
+    }
+
+    @Test
+    void failsOnlyWhenEveryGroupFails() {
+        TestGenerationResult merged = merger.merge(groups, List.of(error("first"), error("second")));
+
+        assertThat(merged.getStatus()).isEqualTo("ERROR");
+        assertThat(merged.getErrorMessage()).contains("first");
+    }
+
+    private TestGenerationResult part(String source, int promptTokens, int completionTokens) {
+        TestGenerationResult result = new TestGenerationResult("session");
+        TestGenerationResult.TestClass testClass = new TestGenerationResult.TestClass();
+        testClass.setClassName("UserServiceTest");
+        testClass.setSourceCode(source);
+        result.setTestClass(testClass);
+        result.setTokenUsage(new TokenUsage("gpt-4o-mini", promptTokens, completionTokens, 0));
+        return result;
+    }
+
+    private TestGenerationResult error(String message) {
+        TestGenerationResult result = new TestGenerationResult("session");
+        result.setStatus("ERROR");
+        result.setErrorMessage(message);
+        return result;
+    }
+}
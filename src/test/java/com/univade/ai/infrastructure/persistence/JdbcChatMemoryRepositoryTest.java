@@ -0,0 +1,194 @@
+package com.univade.ai.infrastructure.persistence;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JdbcChatMemoryRepositoryTest {
+
+    private final UserMessage question = new UserMessage("question");
+    private final AssistantMessage answer = new AssistantMessage("answer");
+    private final UserMessage followUp = new UserMessage("follow-up");
+    private final AssistantMessage secondAnswer = new AssistantMessage("second answer");
+
+    private JdbcChatMemoryRepository repository;
+
+    @AfterEach
+    void shutdown() {
+        if (repository != null) {
+            repository.shutdown();
+        }
+    }
+
+    @Test
+    void appendsOnlyNewMessages() {
+        JdbcChatMemoryRepository.WriteOperation operation = JdbcChatMemoryRepository.diff("c1",
+                List.of(question, answer), List.of(question, answer, followUp));
+
+        assertThat(operation.replace()).isFalse();
+        assertThat(operation.dropped()).isZero();
+        assertThat(operation.appended()).containsExactly(followUp);
+    }
+
+    @Test
+    void dropsMessagesThatSlidOutOfTheWindow() {
+        JdbcChatMemoryRepository.WriteOperation operation = JdbcChatMemoryRepository.diff("c1",
+                List.of(question, answer, followUp), List.of(followUp, secondAnswer));
+
+        assertThat(operation.replace()).isFalse();
+        assertThat(operation.dropped()).isEqualTo(2);
+        assertThat(operation.appended()).containsExactly(secondAnswer);
+    }
+
+    @Test
+    void comparesMessagesByTypeAndText() {
+        JdbcChatMemoryRepository.WriteOperation operation = JdbcChatMemoryRepository.diff("c1",
+                List.of(new UserMessage("question")), List.of(question, answer));
+
+        assertThat(operation.replace()).isFalse();
+        assertThat(operation.appended()).containsExactly(answer);
+    }
+
+    @Test
+    void replacesWhenTheWindowWasRewritten() {
+        JdbcChatMemoryRepository.WriteOperation operation = JdbcChatMemoryRepository.diff("c1",
+                List.of(question, answer), List.of(new UserMessage("summary"), followUp));
+
+        assertThat(operation.replace()).isTrue();
+        assertThat(operation.appended()).extracting(Message::getText).containsExactly("summary", "follow-up");
+    }
+
+    @Test
+    void rewritesTheConversationOnceTheDatabaseRecovers() throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        JdbcTemplate jdbcTemplate = database("VARCHAR(1)");
+        repository = repository(jdbcTemplate, meterRegistry);
+
+        // Every message is too long for the column, so the first writes fail.
+        repository.saveAll("c1", List.of(question, answer));
+        repository.saveAll("c1", List.of(question, answer, followUp));
+        waitUntil(() -> meterRegistry.counter("testgen.memory.write-failures", "outcome", "retried").count() > 0);
+        assertThat(repository.findByConversationId("c1")).hasSize(3);
+
+        jdbcTemplate.execute("ALTER TABLE chat_memory_message ALTER COLUMN content CLOB");
+        waitUntil(() -> repository.getPendingWrites() == 0 && count(jdbcTemplate) == 3);
+
+        assertThat(jdbcTemplate.queryForList(
+                "SELECT content FROM chat_memory_message WHERE conversation_id = 'c1' ORDER BY id", String.class))
+                .containsExactly("question", "answer", "follow-up");
+    }
+
+    @Test
+    void deletesConversationsIdleSinceTheCutoffUnlessKept() {
+        JdbcTemplate jdbcTemplate = database("CLOB");
+        repository = repository(jdbcTemplate, new SimpleMeterRegistry());
+        LocalDateTime now = LocalDateTime.now();
+        insert(jdbcTemplate, "orphan", now.minusHours(2));
+        insert(jdbcTemplate, "tracked", now.minusHours(2));
+        insert(jdbcTemplate, "recent", now.minusHours(2));
+        insert(jdbcTemplate, "recent", now);
+
+        int deleted = repository.deleteIdleConversations(now.minusHours(1), "tracked"::equals);
+
+        assertThat(deleted).isEqualTo(1);
+        waitUntil(() -> repository.getPendingWrites() == 0 && count(jdbcTemplate) == 3);
+        assertThat(jdbcTemplate.queryForList(
+                "SELECT DISTINCT conversation_id FROM chat_memory_message ORDER BY conversation_id", String.class))
+                .containsExactly("recent", "tracked");
+        assertThat(jdbcTemplate.queryForList(
+                "SELECT conversation_id FROM chat_memory_conversation ORDER BY conversation_id", String.class))
+                .containsExactly("recent", "tracked");
+    }
+
+    @Test
+    void keepsAnIdleConversationThatIsSavedAgainBeforeTheSweepRuns() throws Exception {
+        JdbcTemplate jdbcTemplate = database("CLOB");
+        repository = repository(jdbcTemplate, new SimpleMeterRegistry());
+        insert(jdbcTemplate, "revived", LocalDateTime.now().minusHours(2));
+
+        assertThat(repository.deleteIdleConversations(LocalDateTime.now().minusHours(1), id -> false)).isEqualTo(1);
+        repository.saveAll("revived", List.of(question));
+
+        waitUntil(() -> repository.getPendingWrites() == 0);
+        waitUntil(() -> jdbcTemplate.queryForList(
+                "SELECT content FROM chat_memory_message WHERE conversation_id = 'revived'", String.class)
+                .equals(List.of("question")));
+    }
+
+    @Test
+    void aDroppedConversationIsReadBackFromTheDatabaseNotTheHotCache() throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        JdbcTemplate jdbcTemplate = database("VARCHAR(1)");
+        repository = new JdbcChatMemoryRepository(jdbcTemplate,
+                new BoundedChatMemoryRepository("test", 1_000_000, 30, meterRegistry), 10, 20, 2, meterRegistry);
+
+        repository.saveAll("c1", List.of(question, answer));
+        waitUntil(() -> meterRegistry.counter("testgen.memory.write-failures", "outcome", "dropped").count() > 0);
+        assertThat(repository.findByConversationId("c1")).isEmpty();
+
+        // The next save is diffed against what is stored, so the messages lost earlier are written now.
+        jdbcTemplate.execute("ALTER TABLE chat_memory_message ALTER COLUMN content CLOB");
+        repository.saveAll("c1", List.of(question, answer, followUp));
+        waitUntil(() -> repository.getPendingWrites() == 0 && count(jdbcTemplate) == 3);
+
+        assertThat(jdbcTemplate.queryForList(
+                "SELECT content FROM chat_memory_message WHERE conversation_id = 'c1' ORDER BY id", String.class))
+                .containsExactly("question", "answer", "follow-up");
+    }
+
+    private JdbcTemplate database(String contentType) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", ""));
+        jdbcTemplate.execute("""
+                CREATE TABLE chat_memory_message (
+                    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+                    conversation_id VARCHAR(64) NOT NULL,
+                    message_type VARCHAR(16) NOT NULL,
+                    content %s NOT NULL,
+                    created_at TIMESTAMP NOT NULL)
+                """.formatted(contentType));
+        jdbcTemplate.execute("""
+                CREATE TABLE chat_memory_conversation (
+                    conversation_id VARCHAR(64) PRIMARY KEY,
+                    last_activity TIMESTAMP NOT NULL)
+                """);
+        return jdbcTemplate;
+    }
+
+    private JdbcChatMemoryRepository repository(JdbcTemplate jdbcTemplate, SimpleMeterRegistry meterRegistry) {
+        return new JdbcChatMemoryRepository(jdbcTemplate,
+                new BoundedChatMemoryRepository("test", 1_000_000, 30, meterRegistry), 10, 20, 1_000, meterRegistry);
+    }
+
+    private void insert(JdbcTemplate jdbcTemplate, String conversationId, LocalDateTime createdAt) {
+        jdbcTemplate.update("INSERT INTO chat_memory_message (conversation_id, message_type, content, created_at) "
+                + "VALUES (?, 'USER', 'text', ?)", conversationId, Timestamp.valueOf(createdAt));
+        jdbcTemplate.update("MERGE INTO chat_memory_conversation (conversation_id, last_activity) KEY (conversation_id) "
+                + "VALUES (?, ?)", conversationId, Timestamp.valueOf(createdAt));
+    }
+
+    private int count(JdbcTemplate jdbcTemplate) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM chat_memory_message", Integer.class);
+    }
+
+    private void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.currentTimeMillis()).as("condition not met in time").isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+}
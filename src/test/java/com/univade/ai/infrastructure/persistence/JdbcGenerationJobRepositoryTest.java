@@ -0,0 +1,108 @@
+package com.univade.ai.infrastructure.persistence;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.univade.ai.domain.model.GenerationJob;
+import com.univade.ai.domain.model.JobStatus;
+import com.univade.ai.domain.model.TestGenerationResult;
+import com.univade.ai.domain.value.RequestPriority;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JdbcGenerationJobRepositoryTest {
+
+    private final JdbcGenerationJobRepository repository = new JdbcGenerationJobRepository(database(),
+            new ObjectMapper().findAndRegisterModules());
+
+    @Test
+    void claimsTheOldestQueuedJobOnce() {
+        GenerationJob first = job();
+        first.setCreatedAt(LocalDateTime.now().minusMinutes(1));
+        GenerationJob second = job();
+        repository.save(second);
+        repository.save(first);
+
+        GenerationJob claimed = repository.claimNext().orElseThrow();
+
+        assertThat(claimed.getId()).isEqualTo(first.getId());
+        assertThat(claimed.getStatus()).isEqualTo(JobStatus.RUNNING);
+        assertThat(claimed.getAttempts()).isEqualTo(1);
+        assertThat(claimed.getStartedAt()).isNotNull();
+        assertThat(repository.claimNext()).map(GenerationJob::getId).contains(second.getId());
+        assertThat(repository.claimNext()).isEmpty();
+    }
+
+    @Test
+    void finishingStoresTheOutcome() {
+        GenerationJob succeeded = job();
+        GenerationJob failed = job();
+        repository.save(succeeded);
+        repository.save(failed);
+        repository.claimNext();
+        repository.claimNext();
+
+        TestGenerationResult result = new TestGenerationResult();
+        result.setStatus("SUCCESS");
+        repository.complete(succeeded.getId(), result);
+        repository.fail(failed.getId(), "boom");
+
+        GenerationJob stored = repository.findById(succeeded.getId()).orElseThrow();
+        assertThat(stored.getStatus()).isEqualTo(JobStatus.SUCCEEDED);
+        assertThat(stored.getResult().getStatus()).isEqualTo("SUCCESS");
+        assertThat(stored.getFinishedAt()).isNotNull();
+        assertThat(repository.findById(failed.getId()).orElseThrow())
+                .extracting(GenerationJob::getStatus, GenerationJob::getErrorMessage)
+                .containsExactly(JobStatus.FAILED, "boom");
+        assertThat(repository.countByStatus(JobStatus.RUNNING)).isZero();
+    }
+
+    @Test
+    void aRequeuedJobWaitsForItsNotBeforeTimeAndKeepsItsAttempts() {
+        GenerationJob job = job();
+        repository.save(job);
+        repository.claimNext();
+
+        repository.requeue(job.getId(), LocalDateTime.now().plusMinutes(5));
+
+        GenerationJob queued = repository.findById(job.getId()).orElseThrow();
+        assertThat(queued.getStatus()).isEqualTo(JobStatus.QUEUED);
+        assertThat(queued.getAttempts()).isZero();
+        assertThat(queued.getNotBefore()).isAfter(LocalDateTime.now());
+        assertThat(repository.claimNext()).isEmpty();
+
+        GenerationJob due = job();
+        repository.save(due);
+        repository.claimNext();
+        repository.requeue(due.getId(), LocalDateTime.now().minusSeconds(1));
+        assertThat(repository.claimNext()).map(GenerationJob::getId).contains(due.getId());
+    }
+
+    @Test
+    void requeueRunningPutsInterruptedJobsBack() {
+        GenerationJob job = job();
+        repository.save(job);
+        repository.claimNext();
+
+        assertThat(repository.requeueRunning()).isEqualTo(1);
+        assertThat(repository.countByStatus(JobStatus.QUEUED)).isEqualTo(1);
+    }
+
+    private static GenerationJob job() {
+        return new GenerationJob(UUID.randomUUID().toString(), null, null, "Generate tests",
+                "public class OrderService {}", "alice", RequestPriority.BULK);
+    }
+
+    private static JdbcTemplate database() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(dataSource);
+        return new JdbcTemplate(dataSource);
+    }
+}
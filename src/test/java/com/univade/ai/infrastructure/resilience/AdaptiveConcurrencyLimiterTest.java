@@ -0,0 +1,113 @@
+package com.univade.ai.infrastructure.resilience;
+
+import com.univade.ai.domain.exception.LlmCapacityExceededException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.SocketTimeoutException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private final ExecutorService callers = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void shutdown() {
+        callers.shutdownNow();
+    }
+
+    private AdaptiveConcurrencyLimiter limiter(int initialLimit, int maxQueue, long maxQueueWaitMs) {
+        return new AdaptiveConcurrencyLimiter(true, initialLimit, 1, 64, 0.5, maxQueue, maxQueueWaitMs, 60_000, 10,
+                new SimpleMeterRegistry());
+    }
+
+    @Test
+    void growsAdditivelyOnSuccess() {
+        AdaptiveConcurrencyLimiter limiter = limiter(8, 10, 1000);
+
+        limiter.execute(() -> "ok");
+
+        assertThat(limiter.getLimit()).isCloseTo(8.125, within(1e-9));
+    }
+
+    @Test
+    void backsOffMultiplicativelyOnRateLimitsAndTimeouts() {
+        AdaptiveConcurrencyLimiter limiter = limiter(8, 10, 1000);
+
+        assertThatThrownBy(() -> limiter.execute(() -> {
+            throw new IllegalStateException("429 Too Many Requests, please try again in 1ms");
+        })).isInstanceOf(IllegalStateException.class);
+        assertThat(limiter.getLimit()).isEqualTo(4.0);
+
+        assertThatThrownBy(() -> limiter.execute(() -> {
+            throw new IllegalStateException("I/O error", new SocketTimeoutException("Read timed out"));
+        })).isInstanceOf(IllegalStateException.class);
+        assertThat(limiter.getLimit()).isEqualTo(2.0);
+    }
+
+    @Test
+    void holdsNewCallsBackUntilTheRetryAfterDelayHasPassed() {
+        AdaptiveConcurrencyLimiter limiter = limiter(8, 10, 50);
+
+        assertThatThrownBy(() -> limiter.execute(() -> {
+            throw new IllegalStateException("rate_limit_exceeded: please try again in 5s");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThatThrownBy(() -> limiter.execute(() -> "too early"))
+                .isInstanceOf(LlmCapacityExceededException.class);
+    }
+
+    @Test
+    void ignoresOtherFailures() {
+        AdaptiveConcurrencyLimiter limiter = limiter(8, 10, 1000);
+
+        assertThatThrownBy(() -> limiter.execute(() -> {
+            throw new IllegalArgumentException("bad prompt");
+        })).isInstanceOf(IllegalArgumentException.class);
+
+        assertThat(limiter.getLimit()).isEqualTo(8.0);
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    @Test
+    void shedsCallsThatWaitTooLongForAPermit() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = limiter(1, 10, 50);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        callers.submit(() -> limiter.execute(() -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return null;
+        }));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        try {
+            assertThatThrownBy(() -> limiter.execute(() -> "late"))
+                    .isInstanceOf(LlmCapacityExceededException.class);
+            assertThat(limiter.getQueued()).isZero();
+            assertThat(limiter.getRejectionCount()).isEqualTo(1.0);
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void rejectsImmediatelyWhenTheQueueIsFull() {
+        AdaptiveConcurrencyLimiter limiter = limiter(1, 0, 1000);
+
+        assertThatThrownBy(() -> limiter.execute(() -> "ok"))
+                .isInstanceOf(LlmCapacityExceededException.class);
+    }
+}
@@ -0,0 +1,117 @@
+package com.univade.ai.infrastructure.resilience;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HedgedRequestExecutorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final HedgedRequestExecutor executor = new HedgedRequestExecutor(true, 0.5, 20, 3, 10, 2, meterRegistry);
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void keepsASeparateLatencyWindowPerTier() {
+        prime("fast");
+
+        assertThat(executor.currentHedgeDelayMs("fast")).isEqualTo(20);
+        assertThat(executor.currentHedgeDelayMs("default")).isEqualTo(-1);
+    }
+
+    @Test
+    void runsUnhedgedOnTheCallerWhileTheTierHasTooFewSamples() {
+        String thread = executor.execute("default", () -> Thread.currentThread().getName());
+
+        assertThat(thread).isEqualTo(Thread.currentThread().getName());
+        assertThat(executor.getHedgeRate()).isZero();
+    }
+
+    @Test
+    void aSlowPrimaryIsOvertakenByTheHedge() {
+        prime("fast");
+        AtomicInteger calls = new AtomicInteger();
+
+        String result = executor.execute("fast", () -> {
+            if (calls.incrementAndGet() == 1) {
+                sleep(5_000);
+                return "primary";
+            }
+            return "hedge";
+        });
+
+        assertThat(result).isEqualTo("hedge");
+        assertThat(executor.getHedgeRate()).isEqualTo(1.0);
+        assertThat(executor.getHedgeWinCount()).isEqualTo(1.0);
+    }
+
+    @Test
+    void failsOnlyWhenEveryAttemptFailed() {
+        prime("fast");
+
+        assertThatThrownBy(() -> executor.execute("fast", () -> {
+            sleep(50);
+            throw new IllegalStateException("model down");
+        })).isInstanceOf(IllegalStateException.class).hasMessage("model down");
+    }
+
+    @Test
+    void skipsHedgesAndRunsInlineWhenNoAttemptThreadIsFree() throws Exception {
+        prime("fast");
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> executor.execute("fast", () -> {
+            await(release);
+            return "first";
+        }));
+        CompletableFuture<String> second = CompletableFuture.supplyAsync(() -> executor.execute("fast", () -> {
+            await(release);
+            return "second";
+        }));
+
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (meterRegistry.counter("testgen.llm.hedging.skipped").count() < 2) {
+            assertThat(System.currentTimeMillis()).isLessThan(deadline);
+            Thread.sleep(10);
+        }
+
+        String thread = executor.execute("fast", () -> Thread.currentThread().getName());
+        assertThat(thread).isEqualTo(Thread.currentThread().getName());
+
+        release.countDown();
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("first");
+        assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo("second");
+    }
+
+    private void prime(String tier) {
+        for (int i = 0; i < 3; i++) {
+            executor.timed(tier, () -> "warm-up");
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.univade.ai.infrastructure.resilience;
+
+import com.univade.ai.domain.exception.LlmCapacityExceededException;
+import com.univade.ai.domain.exception.LlmUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LlmCircuitBreakerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private LlmCircuitBreaker breaker(long openMs, int closeAfterProbes) {
+        return new LlmCircuitBreaker(true, 4, 4, 0.5, 0.8, 60_000, openMs, closeAfterProbes, meterRegistry);
+    }
+
+    @Test
+    void opensOnceFailureRateReachedAndRejectsWithoutCalling() {
+        LlmCircuitBreaker breaker = breaker(60_000, 1);
+        succeed(breaker);
+        succeed(breaker);
+        fail(breaker);
+        fail(breaker);
+
+        assertThat(breaker.getState()).isEqualTo(LlmCircuitBreaker.State.OPEN);
+        AtomicInteger calls = new AtomicInteger();
+        assertThatThrownBy(() -> breaker.execute(calls::incrementAndGet))
+                .isInstanceOf(LlmUnavailableException.class);
+        assertThat(calls).hasValue(0);
+    }
+
+    @Test
+    void staysClosedBelowMinimumCalls() {
+        LlmCircuitBreaker breaker = breaker(60_000, 1);
+        fail(breaker);
+        fail(breaker);
+        fail(breaker);
+
+        assertThat(breaker.getState()).isEqualTo(LlmCircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void closesAfterSuccessfulProbes() {
+        LlmCircuitBreaker breaker = breaker(0, 2);
+        openBreaker(breaker);
+        assertThat(breaker.getState()).isEqualTo(LlmCircuitBreaker.State.HALF_OPEN);
+
+        succeed(breaker);
+        assertThat(breaker.getState()).isEqualTo(LlmCircuitBreaker.State.HALF_OPEN);
+        succeed(breaker);
+        assertThat(breaker.getState()).isEqualTo(LlmCircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void failedProbeReopens() {
+        LlmCircuitBreaker breaker = breaker(0, 2);
+        openBreaker(breaker);
+
+        fail(breaker);
+
+        assertThat(meterRegistry.counter("testgen.llm.circuit.opened").count()).isEqualTo(2);
+    }
+
+    @Test
+    void localCapacityRejectionsDoNotCount() {
+        LlmCircuitBreaker breaker = breaker(60_000, 1);
+        for (int i = 0; i < 4; i++) {
+            assertThatThrownBy(() -> breaker.execute(() -> {
+                throw new LlmCapacityExceededException("queue full");
+            })).isInstanceOf(LlmCapacityExceededException.class);
+        }
+
+        assertThat(breaker.getState()).isEqualTo(LlmCircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void cancelledCallsDoNotCount() {
+        LlmCircuitBreaker breaker = breaker(60_000, 1);
+        try {
+            for (int i = 0; i < 4; i++) {
+                assertThatThrownBy(() -> breaker.execute(() -> {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("cancelled");
+                })).isInstanceOf(IllegalStateException.class);
+            }
+        } finally {
+            Thread.interrupted();
+        }
+
+        assertThat(breaker.getState()).isEqualTo(LlmCircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void passesThroughWhenDisabled() {
+        LlmCircuitBreaker breaker = new LlmCircuitBreaker(false, 4, 4, 0.5, 0.8, 60_000, 60_000, 1, meterRegistry);
+        for (int i = 0; i < 8; i++) {
+            fail(breaker);
+        }
+
+        assertThat(breaker.execute(() -> "ok")).isEqualTo("ok");
+    }
+
+    private void openBreaker(LlmCircuitBreaker breaker) {
+        for (int i = 0; i < 4; i++) {
+            fail(breaker);
+        }
+    }
+
+    private void succeed(LlmCircuitBreaker breaker) {
+        breaker.execute(() -> "ok");
+    }
+
+    private void fail(LlmCircuitBreaker breaker) {
+        assertThatThrownBy(() -> breaker.execute(() -> {
+            throw new IllegalStateException("boom");
+        })).isInstanceOf(IllegalStateException.class);
+    }
+}
@@ -0,0 +1,55 @@
+package com.univade.ai.infrastructure.resilience;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LlmFailuresTest {
+
+    @Test
+    void recognisesRateLimitResponsesAndTheirRetryAfterHeader() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, "7");
+        HttpClientErrorException tooMany = HttpClientErrorException.create(HttpStatus.TOO_MANY_REQUESTS,
+                "Too Many Requests", headers, new byte[0], StandardCharsets.UTF_8);
+        RuntimeException wrapped = new IllegalStateException("call failed", tooMany);
+
+        assertThat(LlmFailures.isRateLimited(wrapped)).isTrue();
+        assertThat(LlmFailures.retryAfter(wrapped)).contains(Duration.ofSeconds(7));
+    }
+
+    @Test
+    void readsRetryDelayFromTheErrorMessage() {
+        RuntimeException failure = new RuntimeException(
+                "429 - rate_limit_exceeded: Rate limit reached. Please try again in 250ms.");
+
+        assertThat(LlmFailures.isRateLimited(failure)).isTrue();
+        assertThat(LlmFailures.retryAfter(failure)).contains(Duration.ofMillis(250));
+        assertThat(LlmFailures.retryAfter(new RuntimeException("try again in 1.5s"))).contains(Duration.ofMillis(1500));
+    }
+
+    @Test
+    void recognisesNestedTimeouts() {
+        RuntimeException failure = new RuntimeException("I/O error", new SocketTimeoutException("Read timed out"));
+
+        assertThat(LlmFailures.isTimeout(failure)).isTrue();
+        assertThat(LlmFailures.isRateLimited(failure)).isFalse();
+    }
+
+    @Test
+    void otherFailuresAreNeitherRateLimitsNorTimeouts() {
+        HttpClientErrorException badRequest = HttpClientErrorException.create(HttpStatus.BAD_REQUEST,
+                "Bad Request", new HttpHeaders(), new byte[0], StandardCharsets.UTF_8);
+
+        assertThat(LlmFailures.isRateLimited(badRequest)).isFalse();
+        assertThat(LlmFailures.isTimeout(badRequest)).isFalse();
+        assertThat(LlmFailures.retryAfter(badRequest)).isEmpty();
+    }
+}
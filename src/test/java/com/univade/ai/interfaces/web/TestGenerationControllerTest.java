@@ -0,0 +1,162 @@
+package com.univade.ai.interfaces.web;
+
+import com.univade.ai.application.service.ConversationService;
+import com.univade.ai.application.service.ConversationSummarizationService;
+import com.univade.ai.application.service.GenerationJobService;
+import com.univade.ai.application.service.TestGenerationService;
+import com.univade.ai.application.service.TokenBudgetService;
+import com.univade.ai.application.service.TokenQuotaService;
+import com.univade.ai.domain.exception.LlmCapacityExceededException;
+import com.univade.ai.domain.model.GenerationEstimate;
+import com.univade.ai.domain.model.MethodGroup;
+import com.univade.ai.domain.model.TestGenerationResult;
+import com.univade.ai.domain.repository.MemoryRepository;
+import com.univade.ai.domain.service.PromptRefiner;
+import com.univade.ai.domain.service.TestResultProcessor;
+import com.univade.ai.infrastructure.ai.ModelRouter;
+import com.univade.ai.infrastructure.ai.OpenAiClient;
+import com.univade.ai.infrastructure.cache.StaleResultCache;
+import com.univade.ai.infrastructure.concurrent.BoundedBatchExecutor;
+import com.univade.ai.infrastructure.concurrent.FairRequestScheduler;
+import com.univade.ai.infrastructure.file.TestFileManager;
+import com.univade.ai.infrastructure.metrics.PipelineMetrics;
+import com.univade.ai.infrastructure.parser.ClassComplexityAnalyzer;
+import com.univade.ai.infrastructure.parser.MethodGroupSplitter;
+import com.univade.ai.infrastructure.parser.TestClassMerger;
+import com.univade.ai.infrastructure.prompt.PromptLoader;
+import com.univade.ai.infrastructure.resilience.AdaptiveConcurrencyLimiter;
+import com.univade.ai.interfaces.dto.TestRequestDTO;
+import com.univade.ai.interfaces.dto.TestResponseDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TestGenerationControllerTest {
+
+    private static final String USER_PROMPT = "Generate tests for OrderService";
+    private static final String TEST_SOURCE = "class OrderServiceTest {}";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final OpenAiClient openAiClient = mock(OpenAiClient.class);
+    private final PromptRefiner promptRefiner = mock(PromptRefiner.class);
+    private final TokenBudgetService tokenBudgetService = mock(TokenBudgetService.class);
+    private final ConversationService conversationService = new ConversationService(30, 20);
+    private final BoundedBatchExecutor methodGroupExecutor = new BoundedBatchExecutor("groups", 4, 5);
+    private final TestGenerationService testGenerationService = new TestGenerationService(openAiClient,
+            mock(PromptLoader.class), promptRefiner, mock(MemoryRepository.class), mock(TestFileManager.class),
+            new TestResultProcessor(), conversationService, mock(BoundedBatchExecutor.class), methodGroupExecutor,
+            tokenBudgetService,
+            new ModelRouter(mock(ClassComplexityAnalyzer.class), meterRegistry, false, "gpt-4o-mini", 4000, 12,
+                    "gpt-4o", 8000),
+            new MethodGroupSplitter(true, 2, 1), new TestClassMerger(),
+            new FairRequestScheduler(false, 64, 1000, "", mock(AdaptiveConcurrencyLimiter.class), meterRegistry),
+            new StaleResultCache(10, meterRegistry), new PipelineMetrics(meterRegistry, true, false),
+            new TokenQuotaService(conversationService, meterRegistry, false, 60, 60, 1_000_000, "", 0),
+            mock(ConversationSummarizationService.class));
+    private final TestGenerationController controller =
+            new TestGenerationController(testGenerationService, mock(GenerationJobService.class), "");
+    private final ExecutorService callers = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void shutdown() {
+        callers.shutdownNow();
+        methodGroupExecutor.shutdown();
+    }
+
+    @Test
+    void concurrentIdenticalGenerateRequestsMakeOneModelCall() throws Exception {
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger modelCalls = new AtomicInteger();
+        when(promptRefiner.buildUserPrompt(any())).thenReturn(USER_PROMPT);
+        when(tokenBudgetService.enforceBudget(any(), any(), any())).thenReturn(new GenerationEstimate());
+        when(openAiClient.generateTests(any(), any(), any())).thenAnswer(invocation -> {
+            modelCalls.incrementAndGet();
+            leaderStarted.countDown();
+            release.await();
+            return successResult();
+        });
+
+        Future<ResponseEntity<TestResponseDTO>> leader = callers.submit(this::postGenerate);
+        assertThat(leaderStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        Future<ResponseEntity<TestResponseDTO>> follower = callers.submit(this::postGenerate);
+
+        // The follower blocks on the leader's generation once it got there; give it a moment.
+        Thread.sleep(100);
+        release.countDown();
+
+        TestResponseDTO first = leader.get(5, TimeUnit.SECONDS).getBody();
+        TestResponseDTO second = follower.get(5, TimeUnit.SECONDS).getBody();
+        assertThat(modelCalls).hasValue(1);
+        assertThat(leader.get().getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(follower.get().getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(first.getGeneratedTestCode()).isEqualTo(TEST_SOURCE);
+        assertThat(second.getGeneratedTestCode()).isEqualTo(TEST_SOURCE);
+        assertThat(first.getSessionId()).isNotEqualTo(second.getSessionId());
+        assertThat(first.getConversationId()).isNotEqualTo(second.getConversationId());
+        assertThat(first.isNewConversation()).isTrue();
+        assertThat(second.isNewConversation()).isTrue();
+
+        // Each conversation still gets the shared turn as its opening exchange.
+        verify(openAiClient).rememberExchange(eq(first.getConversationId()), eq(USER_PROMPT), eq(TEST_SOURCE));
+        verify(openAiClient).rememberExchange(eq(second.getConversationId()), eq(USER_PROMPT), eq(TEST_SOURCE));
+        verify(openAiClient, times(0)).generateTestsWithMemory(any(), any(), anyString(), any());
+    }
+
+    @Test
+    void aRejectedMethodGroupRejectsTheWholeGenerateRequest() {
+        when(promptRefiner.buildUserPrompt(any())).thenReturn(USER_PROMPT);
+        when(promptRefiner.buildMethodGroupPrompt(any(), any())).thenAnswer(invocation ->
+                "Generate tests for " + invocation.<MethodGroup>getArgument(1).getMethodNames());
+        when(tokenBudgetService.enforceBudget(any(), any(), any())).thenReturn(new GenerationEstimate());
+        when(openAiClient.generateTests(any(), contains("place"), any())).thenReturn(successResult());
+        when(openAiClient.generateTests(any(), contains("cancel"), any()))
+                .thenThrow(new LlmCapacityExceededException("Timed out waiting for a generation slot"));
+
+        assertThatThrownBy(() -> postGenerate("public class OrderService { public void place() {} public void cancel() {} }"))
+                .isInstanceOf(LlmCapacityExceededException.class);
+    }
+
+    private ResponseEntity<TestResponseDTO> postGenerate() {
+        return postGenerate("public class OrderService {}");
+    }
+
+    private ResponseEntity<TestResponseDTO> postGenerate(String classSourceCode) {
+        TestRequestDTO request = new TestRequestDTO();
+        request.setUserInput("Generate tests");
+        request.setClassSourceCode(classSourceCode);
+        request.setUserId("alice");
+        return controller.generateTest(request, new MockHttpServletRequest());
+    }
+
+    private static TestGenerationResult successResult() {
+        TestGenerationResult.TestClass testClass = new TestGenerationResult.TestClass();
+        testClass.setClassName("OrderServiceTest");
+        testClass.setSourceCode(TEST_SOURCE);
+        TestGenerationResult result = new TestGenerationResult();
+        result.setStatus("SUCCESS");
+        result.setTestClass(testClass);
+        return result;
+    }
+}